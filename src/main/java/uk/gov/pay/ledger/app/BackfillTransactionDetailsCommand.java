@@ -0,0 +1,62 @@
+package uk.gov.pay.ledger.app;
+
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.jdbi3.JdbiFactory;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+
+public class BackfillTransactionDetailsCommand extends ConfiguredCommand<LedgerConfig> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackfillTransactionDetailsCommand.class);
+    private static final String BATCH_SIZE = "batchSize";
+
+    public BackfillTransactionDetailsCommand() {
+        super("backfill-transaction-details", "Copies fields stored in transaction_details into their own transaction columns");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("--batch-size")
+                .dest(BATCH_SIZE)
+                .type(Integer.class)
+                .setDefault(10000)
+                .help("Range of transaction ids updated per statement");
+    }
+
+    @Override
+    protected void run(Bootstrap<LedgerConfig> bootstrap, Namespace namespace, LedgerConfig config) throws Exception {
+        Environment environment = new Environment(bootstrap.getApplication().getName(),
+                bootstrap.getObjectMapper(),
+                bootstrap.getValidatorFactory().getValidator(),
+                bootstrap.getMetricRegistry(),
+                bootstrap.getClassLoader(),
+                bootstrap.getHealthCheckRegistry());
+        ManagedDataSource dataSource = config.getDataSourceFactory().build(environment.metrics(), "postgresql");
+        Jdbi jdbi = new JdbiFactory().build(environment, config.getDataSourceFactory(), dataSource, "postgresql");
+
+        try {
+            backfill(new TransactionDao(jdbi), namespace.getInt(BATCH_SIZE));
+        } finally {
+            dataSource.stop();
+        }
+    }
+
+    static long backfill(TransactionDao transactionDao, int batchSize) {
+        long maxId = transactionDao.findMaxTransactionId();
+        long updated = 0;
+        for (long fromId = 0; fromId < maxId; fromId += batchSize) {
+            long toId = Math.min(fromId + batchSize, maxId);
+            updated += transactionDao.backfillDetailsColumns(fromId, toId);
+            LOGGER.info("Backfilled transaction details columns. [toId={}] [maxId={}] [transactions={}]", toId, maxId, updated);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,84 @@
+package uk.gov.pay.ledger.app;
+
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.jdbi3.JdbiFactory;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.event.dao.EventPartitionDao;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class DetachEventPartitionsCommand extends ConfiguredCommand<LedgerConfig> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DetachEventPartitionsCommand.class);
+    private static final String BEFORE = "before";
+    private static final String TABLESPACE = "tablespace";
+
+    public DetachEventPartitionsCommand() {
+        super("detach-event-partitions", "Detaches the monthly event partitions before a month from the event table");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("--before")
+                .dest(BEFORE)
+                .type(String.class)
+                .required(true)
+                .help("Month (YYYY-MM) before which monthly partitions are detached");
+        subparser.addArgument("--tablespace")
+                .dest(TABLESPACE)
+                .type(String.class)
+                .help("Tablespace the detached partitions are moved to");
+    }
+
+    @Override
+    protected void run(Bootstrap<LedgerConfig> bootstrap, Namespace namespace, LedgerConfig config) throws Exception {
+        Environment environment = new Environment(bootstrap.getApplication().getName(),
+                bootstrap.getObjectMapper(),
+                bootstrap.getValidatorFactory().getValidator(),
+                bootstrap.getMetricRegistry(),
+                bootstrap.getClassLoader(),
+                bootstrap.getHealthCheckRegistry());
+        ManagedDataSource dataSource = config.getDataSourceFactory().build(environment.metrics(), "postgresql");
+        Jdbi jdbi = new JdbiFactory().build(environment, config.getDataSourceFactory(), dataSource, "postgresql");
+
+        try {
+            detach(new EventPartitionDao(jdbi), YearMonth.parse(namespace.getString(BEFORE)), namespace.getString(TABLESPACE));
+        } finally {
+            dataSource.stop();
+        }
+    }
+
+    static List<YearMonth> detach(EventPartitionDao eventPartitionDao, YearMonth before, String tablespace) {
+        List<YearMonth> detached = eventPartitionDao.findMonthlyPartitions().stream()
+                .filter(month -> month.isBefore(before))
+                .collect(Collectors.toList());
+        if (detached.isEmpty()) {
+            return detached;
+        }
+        long openResources = eventPartitionDao.countOpenResources(detached);
+        if (openResources > 0) {
+            LOGGER.error("Not detaching event partitions, because resources in them are still open. " +
+                    "[before={}] [open_resources={}]", before, openResources);
+            return List.of();
+        }
+        for (YearMonth month : detached) {
+            eventPartitionDao.detachMonthlyPartition(month);
+            if (tablespace != null) {
+                eventPartitionDao.moveToTablespace(month, tablespace);
+            }
+            LOGGER.info("Detached event partition. [partition={}] [tablespace={}]",
+                    EventPartitionDao.partitionName(month), tablespace);
+        }
+        return detached;
+    }
+}
@@ -6,6 +6,7 @@ import io.dropwizard.Application;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
 import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
 import io.dropwizard.jdbi3.JdbiFactory;
 import io.dropwizard.jdbi3.bundles.JdbiExceptionsBundle;
 import io.dropwizard.migrations.MigrationsBundle;
@@ -13,6 +14,7 @@ import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 import org.jdbi.v3.core.Jdbi;
 import uk.gov.pay.commons.utils.logging.LoggingFilter;
+import uk.gov.pay.ledger.event.managed.EventPartitionCreator;
 import uk.gov.pay.ledger.event.resource.EventResource;
 import uk.gov.pay.ledger.exception.BadRequestExceptionMapper;
 import uk.gov.pay.ledger.healthcheck.HealthCheckResource;
@@ -44,14 +46,22 @@ public class LedgerApp extends Application<LedgerConfig> {
         });
 
         bootstrap.addBundle(new JdbiExceptionsBundle());
+        bootstrap.addCommand(new RebuildTransactionsCommand());
+        bootstrap.addCommand(new BackfillTransactionDetailsCommand());
+        bootstrap.addCommand(new DetachEventPartitionsCommand());
     }
 
     @Override
     public void run(LedgerConfig config, Environment environment) {
         JdbiFactory jdbiFactory = new JdbiFactory();
-        final Jdbi jdbi = jdbiFactory.build(environment, config.getDataSourceFactory(), "postgresql");
+        final ManagedDataSource dataSource = config.getDataSourceFactory().build(environment.metrics(), "postgresql");
+        final Jdbi jdbi = jdbiFactory.build(environment, config.getDataSourceFactory(), dataSource, "postgresql");
+        final Jdbi readJdbi = config.getReadDatabaseConfig().isEnabled() ?
+                jdbiFactory.build(environment, config.getReadDataSourceFactory(), "postgresql-read") : null;
+        // Reads fall back to the primary database when the replica is unavailable, so it must not fail the health check
+        environment.healthChecks().unregister("postgresql-read");
 
-        final Injector injector = Guice.createInjector(new LedgerModule(config, environment, jdbi));
+        final Injector injector = Guice.createInjector(new LedgerModule(config, environment, jdbi, readJdbi, dataSource));
 
         environment.jersey().register(injector.getInstance(EventResource.class));
         environment.jersey().register(injector.getInstance(TransactionResource.class));
@@ -64,6 +74,10 @@ public class LedgerApp extends Application<LedgerConfig> {
         if(config.getQueueMessageReceiverConfig().isBackgroundProcessingEnabled()) {
             environment.lifecycle().manage(injector.getInstance(QueueMessageReceiver.class));
         }
+
+        if(config.getEventPartitionConfig().isPartitionCreationEnabled()) {
+            environment.lifecycle().manage(injector.getInstance(EventPartitionCreator.class));
+        }
     }
 
 }
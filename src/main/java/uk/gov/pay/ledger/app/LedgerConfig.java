@@ -3,8 +3,12 @@ package uk.gov.pay.ledger.app;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dropwizard.Configuration;
 import io.dropwizard.db.DataSourceFactory;
+import uk.gov.pay.ledger.app.config.EventPartitionConfig;
 import uk.gov.pay.ledger.app.config.QueueMessageReceiverConfig;
+import uk.gov.pay.ledger.app.config.ReadDatabaseConfig;
 import uk.gov.pay.ledger.app.config.SqsConfig;
+import uk.gov.pay.ledger.app.config.TransactionCacheConfig;
+import uk.gov.pay.ledger.app.config.TransactionSearchConfig;
 import uk.gov.pay.ledger.queue.managed.QueueMessageReceiver;
 
 import javax.validation.Valid;
@@ -25,6 +29,24 @@ public class LedgerConfig extends Configuration {
         this.database = dataSourceFactory;
     }
 
+    @Valid
+    private DataSourceFactory readDatabase;
+
+    @JsonProperty("readDatabase")
+    public DataSourceFactory getReadDataSourceFactory() {
+        return readDatabase;
+    }
+
+    @JsonProperty("readDatabase")
+    public void setReadDataSourceFactory(DataSourceFactory readDataSourceFactory) {
+        this.readDatabase = readDataSourceFactory;
+    }
+
+    @Valid
+    @NotNull
+    @JsonProperty("readDatabaseConfig")
+    private ReadDatabaseConfig readDatabaseConfig = new ReadDatabaseConfig();
+
     @NotNull
     @JsonProperty("sqsConfig")
     private SqsConfig sqsConfig;
@@ -33,6 +55,25 @@ public class LedgerConfig extends Configuration {
     @JsonProperty("queueMessageReceiverConfig")
     private QueueMessageReceiverConfig queueMessageReceiverConfig;
 
+    @Valid
+    @NotNull
+    @JsonProperty("transactionSearchConfig")
+    private TransactionSearchConfig transactionSearchConfig = new TransactionSearchConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("transactionCacheConfig")
+    private TransactionCacheConfig transactionCacheConfig = new TransactionCacheConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("eventPartitionConfig")
+    private EventPartitionConfig eventPartitionConfig = new EventPartitionConfig();
+
+    public ReadDatabaseConfig getReadDatabaseConfig() {
+        return readDatabaseConfig;
+    }
+
     public SqsConfig getSqsConfig() {
         return sqsConfig;
     }
@@ -40,4 +81,16 @@ public class LedgerConfig extends Configuration {
     public QueueMessageReceiverConfig getQueueMessageReceiverConfig() {
         return queueMessageReceiverConfig;
     }
+
+    public TransactionSearchConfig getTransactionSearchConfig() {
+        return transactionSearchConfig;
+    }
+
+    public TransactionCacheConfig getTransactionCacheConfig() {
+        return transactionCacheConfig;
+    }
+
+    public EventPartitionConfig getEventPartitionConfig() {
+        return eventPartitionConfig;
+    }
 }
@@ -5,34 +5,51 @@ import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.AmazonSQSClientBuilder;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
+import io.dropwizard.db.ManagedDataSource;
 import io.dropwizard.setup.Environment;
 import org.jdbi.v3.core.Jdbi;
 import uk.gov.pay.ledger.event.dao.EventDao;
+import uk.gov.pay.ledger.event.dao.EventPartitionDao;
+import uk.gov.pay.ledger.event.dao.EventReplayDao;
 import uk.gov.pay.ledger.event.dao.ResourceTypeDao;
 import uk.gov.pay.ledger.transaction.dao.TransactionDao;
 
+import java.time.Clock;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
 public class LedgerModule extends AbstractModule {
     private final LedgerConfig configuration;
     private final Environment environment;
     private final Jdbi jdbi;
+    private final Jdbi readJdbi;
+    private final ManagedDataSource dataSource;
 
     LedgerModule(
             LedgerConfig config,
             final Environment environment,
-            final Jdbi jdbi
+            final Jdbi jdbi,
+            final Jdbi readJdbi,
+            final ManagedDataSource dataSource
     ) {
         this.configuration = config;
         this.environment = environment;
         this.jdbi = jdbi;
+        this.readJdbi = readJdbi;
+        this.dataSource = dataSource;
     }
 
     @Override
     protected void configure() {
         bind(LedgerConfig.class).toInstance(configuration);
         bind(Environment.class).toInstance(environment);
+        bind(MetricRegistry.class).toInstance(environment.metrics());
+        bind(ManagedDataSource.class).toInstance(dataSource);
     }
 
     @Provides
@@ -41,6 +58,16 @@ public class LedgerModule extends AbstractModule {
         return jdbi.onDemand(EventDao.class);
     }
 
+    @Provides
+    @Singleton
+    public ReadReplicaRouter provideReadReplicaRouter() {
+        ReadReplicaRouter readReplicaRouter = new ReadReplicaRouter(jdbi, readJdbi, configuration.getReadDatabaseConfig(),
+                Clock.systemUTC());
+        environment.metrics().register(name(ReadReplicaRouter.class, "replica-in-use"),
+                (Gauge<Integer>) () -> readReplicaRouter.isReplicaInUse() ? 1 : 0);
+        return readReplicaRouter;
+    }
+
     @Provides
     @Singleton
     public ResourceTypeDao provideResourceTypeDao() {
@@ -49,8 +76,20 @@ public class LedgerModule extends AbstractModule {
 
     @Provides
     @Singleton
-    public TransactionDao provideTransactionDao() {
-        return new TransactionDao(jdbi);
+    public TransactionDao provideTransactionDao(ReadReplicaRouter readReplicaRouter) {
+        return new TransactionDao(readReplicaRouter);
+    }
+
+    @Provides
+    @Singleton
+    public EventReplayDao provideEventReplayDao() {
+        return new EventReplayDao(jdbi);
+    }
+
+    @Provides
+    @Singleton
+    public EventPartitionDao provideEventPartitionDao() {
+        return new EventPartitionDao(jdbi);
     }
 
     @Provides
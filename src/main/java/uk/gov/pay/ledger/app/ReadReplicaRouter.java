@@ -0,0 +1,82 @@
+package uk.gov.pay.ledger.app;
+
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.app.config.ReadDatabaseConfig;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Chooses the database that reads which tolerate some staleness are sent to. The read replica is used while its
+ * replication lag is within the configured maximum. The lag is checked at most once per check interval, and reads
+ * go to the primary while it is too high or the replica cannot be queried.
+ */
+public class ReadReplicaRouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadReplicaRouter.class);
+
+    private static final String REPLICATION_LAG_QUERY = "SELECT CASE " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) " +
+            "END";
+
+    private final Jdbi primary;
+    private final Jdbi replica;
+    private final double maximumReplicationLagInSeconds;
+    private final Duration checkInterval;
+    private final Clock clock;
+    private final AtomicReference<Instant> nextCheck = new AtomicReference<>(Instant.MIN);
+    private volatile boolean replicaUsable;
+
+    public ReadReplicaRouter(Jdbi primary) {
+        this(primary, null, new ReadDatabaseConfig(), Clock.systemUTC());
+    }
+
+    public ReadReplicaRouter(Jdbi primary, Jdbi replica, ReadDatabaseConfig config, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maximumReplicationLagInSeconds = config.getMaximumReplicationLagInSeconds();
+        this.checkInterval = Duration.ofSeconds(config.getReplicationLagCheckIntervalInSeconds());
+        this.clock = clock;
+    }
+
+    public Jdbi primary() {
+        return primary;
+    }
+
+    public boolean isReplicaInUse() {
+        return replica != null && replicaUsable;
+    }
+
+    public Jdbi forReads() {
+        if (replica == null) {
+            return primary;
+        }
+        Instant now = clock.instant();
+        Instant next = nextCheck.get();
+        if (!now.isBefore(next) && nextCheck.compareAndSet(next, now.plus(checkInterval))) {
+            replicaUsable = isReplicationLagWithinMaximum();
+        }
+        return replicaUsable ? replica : primary;
+    }
+
+    private boolean isReplicationLagWithinMaximum() {
+        try {
+            double lagInSeconds = replica.withHandle(handle -> handle.createQuery(REPLICATION_LAG_QUERY)
+                    .mapTo(Double.class)
+                    .findOnly());
+            if (lagInSeconds > maximumReplicationLagInSeconds) {
+                LOGGER.warn("Read replica is {} seconds behind, reading from the primary database", lagInSeconds);
+                return false;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to check read replica replication lag, reading from the primary database", e);
+            return false;
+        }
+    }
+}
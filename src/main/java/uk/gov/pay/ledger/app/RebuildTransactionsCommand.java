@@ -0,0 +1,63 @@
+package uk.gov.pay.ledger.app;
+
+import com.google.inject.Guice;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.jdbi3.JdbiFactory;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.jdbi.v3.core.Jdbi;
+import uk.gov.pay.ledger.transaction.service.TransactionRebuildService;
+
+public class RebuildTransactionsCommand extends ConfiguredCommand<LedgerConfig> {
+
+    private static final String THREADS = "threads";
+    private static final String BATCH_SIZE = "batchSize";
+    private static final String FETCH_SIZE = "fetchSize";
+
+    public RebuildTransactionsCommand() {
+        super("rebuild-transactions", "Rebuilds the transaction table from the events in the event table");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("--threads")
+                .dest(THREADS)
+                .type(Integer.class)
+                .setDefault(Runtime.getRuntime().availableProcessors())
+                .help("Number of resource ranges rebuilt in parallel");
+        subparser.addArgument("--batch-size")
+                .dest(BATCH_SIZE)
+                .type(Integer.class)
+                .setDefault(1000)
+                .help("Number of transactions written per batch");
+        subparser.addArgument("--fetch-size")
+                .dest(FETCH_SIZE)
+                .type(Integer.class)
+                .setDefault(5000)
+                .help("Number of events fetched per round trip from the server side cursor");
+    }
+
+    @Override
+    protected void run(Bootstrap<LedgerConfig> bootstrap, Namespace namespace, LedgerConfig config) throws Exception {
+        Environment environment = new Environment(bootstrap.getApplication().getName(),
+                bootstrap.getObjectMapper(),
+                bootstrap.getValidatorFactory().getValidator(),
+                bootstrap.getMetricRegistry(),
+                bootstrap.getClassLoader(),
+                bootstrap.getHealthCheckRegistry());
+        ManagedDataSource dataSource = config.getDataSourceFactory().build(environment.metrics(), "postgresql");
+        Jdbi jdbi = new JdbiFactory().build(environment, config.getDataSourceFactory(), dataSource, "postgresql");
+
+        try {
+            Guice.createInjector(new LedgerModule(config, environment, jdbi, null, dataSource))
+                    .getInstance(TransactionRebuildService.class)
+                    .rebuild(namespace.getInt(THREADS), namespace.getInt(BATCH_SIZE), namespace.getInt(FETCH_SIZE));
+        } finally {
+            dataSource.stop();
+        }
+    }
+}
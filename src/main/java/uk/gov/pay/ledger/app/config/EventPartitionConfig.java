@@ -0,0 +1,24 @@
+package uk.gov.pay.ledger.app.config;
+
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+public class EventPartitionConfig extends Configuration {
+
+    @Valid
+    private boolean partitionCreationEnabled;
+
+    @Valid
+    @Min(1)
+    private int monthsAhead = 3;
+
+    public boolean isPartitionCreationEnabled() {
+        return partitionCreationEnabled;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.pay.ledger.app.config;
 import io.dropwizard.Configuration;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 public class QueueMessageReceiverConfig extends Configuration {
@@ -10,6 +11,34 @@ public class QueueMessageReceiverConfig extends Configuration {
     @Valid
     private boolean backgroundProcessingEnabled;
 
+    @Valid
+    private boolean batchProcessingEnabled;
+
+    @Valid
+    private boolean incrementalDigestEnabled;
+
+    @Valid
+    private boolean pipelineProcessingEnabled;
+
+    @Valid
+    @Min(0)
+    private int numberOfPersistenceWorkers;
+
+    @Valid
+    @Min(1)
+    private int persistenceWorkerQueueSize = 100;
+
+    @Valid
+    private boolean prefetchingEnabled;
+
+    @Valid
+    @Min(1)
+    private int numberOfPrefetchingReceivers = 2;
+
+    @Valid
+    @Min(1)
+    private int prefetchBufferSize = 50;
+
     @Valid
     @NotNull
     private int threadDelayInMilliseconds;
@@ -35,4 +64,36 @@ public class QueueMessageReceiverConfig extends Configuration {
     }
 
     public boolean isBackgroundProcessingEnabled() { return backgroundProcessingEnabled; }
+
+    public boolean isBatchProcessingEnabled() {
+        return batchProcessingEnabled;
+    }
+
+    public boolean isIncrementalDigestEnabled() {
+        return incrementalDigestEnabled;
+    }
+
+    public boolean isPipelineProcessingEnabled() {
+        return pipelineProcessingEnabled;
+    }
+
+    public int getNumberOfPersistenceWorkers() {
+        return numberOfPersistenceWorkers > 0 ? numberOfPersistenceWorkers : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getPersistenceWorkerQueueSize() {
+        return persistenceWorkerQueueSize;
+    }
+
+    public boolean isPrefetchingEnabled() {
+        return prefetchingEnabled;
+    }
+
+    public int getNumberOfPrefetchingReceivers() {
+        return numberOfPrefetchingReceivers;
+    }
+
+    public int getPrefetchBufferSize() {
+        return prefetchBufferSize;
+    }
 }
@@ -0,0 +1,32 @@
+package uk.gov.pay.ledger.app.config;
+
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+public class ReadDatabaseConfig extends Configuration {
+
+    @Valid
+    private boolean enabled;
+
+    @Valid
+    @Min(0)
+    private int maximumReplicationLagInSeconds = 5;
+
+    @Valid
+    @Min(1)
+    private int replicationLagCheckIntervalInSeconds = 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaximumReplicationLagInSeconds() {
+        return maximumReplicationLagInSeconds;
+    }
+
+    public int getReplicationLagCheckIntervalInSeconds() {
+        return replicationLagCheckIntervalInSeconds;
+    }
+}
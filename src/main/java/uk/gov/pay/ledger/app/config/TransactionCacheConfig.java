@@ -0,0 +1,32 @@
+package uk.gov.pay.ledger.app.config;
+
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+public class TransactionCacheConfig extends Configuration {
+
+    @Valid
+    private boolean enabled;
+
+    @Valid
+    @Min(1)
+    private int ttlInSeconds = 5;
+
+    @Valid
+    @Min(1)
+    private int maximumSize = 10000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getTtlInSeconds() {
+        return ttlInSeconds;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+}
@@ -0,0 +1,82 @@
+package uk.gov.pay.ledger.app.config;
+
+import io.dropwizard.Configuration;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class TransactionSearchConfig extends Configuration {
+
+    @Valid
+    @NotNull
+    private SearchCountStrategy countStrategy = SearchCountStrategy.EXACT;
+
+    @Valid
+    @Min(1)
+    private int countCacheTtlInSeconds = 30;
+
+    @Valid
+    @Min(1)
+    private int countCacheMaximumSize = 10000;
+
+    @Valid
+    private boolean parallelCountEnabled;
+
+    @Valid
+    @Min(1)
+    private int numberOfCountThreads = 4;
+
+    @Valid
+    @Min(1)
+    private int countQueueSize = 20;
+
+    @Valid
+    @Min(1)
+    private int exportFetchSize = 500;
+
+    @Valid
+    @Min(1)
+    private int maximumConcurrentExports = 2;
+
+    @Valid
+    @Min(1)
+    private int exportTimeoutInSeconds = 60;
+
+    public SearchCountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    public int getCountCacheTtlInSeconds() {
+        return countCacheTtlInSeconds;
+    }
+
+    public int getCountCacheMaximumSize() {
+        return countCacheMaximumSize;
+    }
+
+    public boolean isParallelCountEnabled() {
+        return parallelCountEnabled;
+    }
+
+    public int getNumberOfCountThreads() {
+        return numberOfCountThreads;
+    }
+
+    public int getCountQueueSize() {
+        return countQueueSize;
+    }
+
+    public int getExportFetchSize() {
+        return exportFetchSize;
+    }
+
+    public int getMaximumConcurrentExports() {
+        return maximumConcurrentExports;
+    }
+
+    public int getExportTimeoutInSeconds() {
+        return exportTimeoutInSeconds;
+    }
+}
@@ -1,24 +1,23 @@
 package uk.gov.pay.ledger.event.dao;
 
-import org.jdbi.v3.sqlobject.CreateSqlObject;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.customizer.BindBean;
+import org.jdbi.v3.sqlobject.customizer.BindBeanList;
+import org.jdbi.v3.sqlobject.customizer.BindList;
 import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
-import org.jdbi.v3.sqlobject.transaction.Transaction;
 import uk.gov.pay.ledger.event.dao.mapper.EventMapper;
 import uk.gov.pay.ledger.event.model.Event;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @RegisterRowMapper(EventMapper.class)
 public interface EventDao {
-    @CreateSqlObject
-    ResourceTypeDao getResourceTypeDao();
-
     @SqlQuery("SELECT e.id, e.sqs_message_id, rt.name AS resource_type_name, e.resource_external_id, e.parent_resource_external_id," +
             " e.event_date, e.event_type, e.event_data" +
             " FROM event e, resource_type rt WHERE e.id = :eventId AND e.resource_type_id = rt.id")
@@ -31,34 +30,70 @@ public interface EventDao {
     @GetGeneratedKeys
     Long insert(@BindBean Event event, @Bind("resourceTypeId") int resourceTypeId);
 
-    @SqlUpdate("INSERT INTO event(sqs_message_id, resource_type_id, resource_external_id, parent_resource_external_id, " +
+    /**
+     * The event is only inserted when its key is claimed in event_key. A unique index on the partitioned event table
+     * has to include event_date, so event_key holds the dedup key for all partitions.
+     */
+    @SqlUpdate("WITH claimed_key AS ( " +
+            "    INSERT INTO event_key(resource_external_id, resource_type_id, event_type) " +
+            "    VALUES (:resourceExternalId, :resourceTypeId, :eventType) " +
+            "    ON CONFLICT (resource_external_id, resource_type_id, event_type) DO NOTHING " +
+            "    RETURNING resource_type_id) " +
+            "INSERT INTO event(sqs_message_id, resource_type_id, resource_external_id, parent_resource_external_id, " +
             "event_date, event_type, event_data) " +
-            "SELECT :sqsMessageId, :resourceTypeId, :resourceExternalId, :parentResourceExternalId, " +
-            "       :eventDate, :eventType, CAST(:eventData as jsonb) " +
-            "WHERE NOT EXISTS ( " +
-            "    SELECT 1 " +
-            "    FROM event " +
-            "    WHERE resource_type_id = :resourceTypeId AND " +
-            "          resource_external_id = :resourceExternalId AND  " +
-            "          event_type = :eventType) ")
-    @GetGeneratedKeys
+            "SELECT :sqsMessageId, k.resource_type_id, :resourceExternalId, :parentResourceExternalId, " +
+            "       CAST(:eventDate as timestamptz), :eventType, CAST(:eventData as jsonb) " +
+            "FROM claimed_key k")
+    @GetGeneratedKeys("id")
     Optional<Long> insertIfDoesNotExist(@BindBean Event event, @Bind("resourceTypeId") int resourceTypeId);
 
-    @Transaction
-    default Long insertEventWithResourceTypeId(Event event) {
-        int resourceTypeId = getResourceTypeDao().getResourceTypeIdByName(event.getResourceType().name());
-        return insert(event, resourceTypeId);
-    }
-
-    @Transaction
-    default Optional<Long> insertEventIfDoesNotExistWithResourceTypeId(Event event) {
-        int resourceTypeId = getResourceTypeDao().getResourceTypeIdByName(event.getResourceType().name());
-        return insertIfDoesNotExist(event, resourceTypeId);
-    }
+    @SqlUpdate("WITH new_event AS ( " +
+            "    SELECT DISTINCT ON (v.resource_type_id, v.resource_external_id, v.event_type) " +
+            "           v.sqs_message_id, v.resource_type_id, v.resource_external_id, " +
+            "           v.parent_resource_external_id, CAST(v.event_date as timestamptz) AS event_date, " +
+            "           v.event_type, CAST(v.event_data as jsonb) AS event_data " +
+            "    FROM (VALUES <events>) " +
+            "        AS v(sqs_message_id, resource_type_id, resource_external_id, parent_resource_external_id, " +
+            "             event_date, event_type, event_data)), " +
+            "claimed_key AS ( " +
+            "    INSERT INTO event_key(resource_external_id, resource_type_id, event_type) " +
+            "    SELECT resource_external_id, resource_type_id, event_type FROM new_event " +
+            "    ON CONFLICT (resource_external_id, resource_type_id, event_type) DO NOTHING " +
+            "    RETURNING resource_external_id, resource_type_id, event_type) " +
+            "INSERT INTO event(sqs_message_id, resource_type_id, resource_external_id, parent_resource_external_id, " +
+            "event_date, event_type, event_data) " +
+            "SELECT e.sqs_message_id, e.resource_type_id, e.resource_external_id, e.parent_resource_external_id, " +
+            "       e.event_date, e.event_type, e.event_data " +
+            "FROM new_event e " +
+            "JOIN claimed_key k ON k.resource_type_id = e.resource_type_id " +
+            "    AND k.resource_external_id IS NOT DISTINCT FROM e.resource_external_id " +
+            "    AND k.event_type IS NOT DISTINCT FROM e.event_type")
+    @GetGeneratedKeys("id")
+    List<Long> insertIfDoNotExist(@BindBeanList(value = "events", propertyNames = {"sqsMessageId", "resourceTypeId",
+            "resourceExternalId", "parentResourceExternalId", "eventDate", "eventType", "eventData"})
+                                          List<EventWithResourceTypeId> events);
 
     @SqlQuery("SELECT  e.id, e.sqs_message_id, rt.name AS resource_type_name, e.resource_external_id, " +
             "e.parent_resource_external_id, e.event_date," +
             "e.event_type, e.event_data FROM event e, resource_type rt WHERE e.resource_external_id = :resourceExternalId" +
             " AND e.resource_type_id = rt.id ORDER BY e.event_date DESC")
     List<Event> getEventsByResourceExternalId(@Bind("resourceExternalId") String resourceExternalId);
+
+    @SqlQuery("SELECT  e.id, e.sqs_message_id, rt.name AS resource_type_name, e.resource_external_id, " +
+            "e.parent_resource_external_id, e.event_date," +
+            "e.event_type, e.event_data FROM event e, resource_type rt WHERE e.resource_external_id IN (<resourceExternalIds>)" +
+            " AND e.resource_type_id = rt.id ORDER BY e.resource_external_id, e.event_date DESC")
+    List<Event> getEventsByResourceExternalIds(@BindList("resourceExternalIds") Collection<String> resourceExternalIds);
+
+    /**
+     * Only counts events from fromDate (all events when null), so that partitions of older events can be skipped.
+     * Events of the resource before fromDate make the count too low, so the check fails rather than passing wrongly.
+     */
+    @SqlQuery("SELECT count(*) = :eventCount AND max(event_date) <= :eventDate " +
+            "FROM event WHERE resource_external_id = :resourceExternalId " +
+            "AND event_date >= COALESCE(CAST(:fromDate as timestamptz), '-infinity')")
+    boolean hasEventCountWithNoLaterEvents(@Bind("resourceExternalId") String resourceExternalId,
+                                           @Bind("eventCount") int eventCount,
+                                           @Bind("eventDate") ZonedDateTime eventDate,
+                                           @Bind("fromDate") ZonedDateTime fromDate);
 }
@@ -0,0 +1,120 @@
+package uk.gov.pay.ledger.event.dao;
+
+import com.google.inject.Inject;
+import org.jdbi.v3.core.Jdbi;
+import uk.gov.pay.ledger.transaction.state.TransactionState;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Manages the monthly partitions of the event table, which is partitioned by event_date. Monthly partitions are named
+ * event_YYYY_MM. Events before the first monthly partition are in event_history, and events outside every partition
+ * go to event_default.
+ */
+public class EventPartitionDao {
+
+    private static final Pattern MONTHLY_PARTITION_NAME = Pattern.compile("event_(\\d{4})_(\\d{2})");
+    private static final Pattern TABLESPACE_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String FIND_PARTITION_NAMES = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'event'::regclass " +
+            "ORDER BY c.relname";
+
+    private static final String COUNT_OPEN_RESOURCES = "SELECT count(DISTINCT p.resource_external_id) FROM (%s) p " +
+            "WHERE EXISTS (SELECT 1 FROM event e " +
+            "    WHERE e.resource_external_id = p.resource_external_id AND e.tableoid NOT IN (%s)) " +
+            "OR EXISTS (SELECT 1 FROM transaction t " +
+            "    WHERE t.external_id = p.resource_external_id AND t.state IN (<unfinishedStates>))";
+
+    private final Jdbi jdbi;
+
+    @Inject
+    public EventPartitionDao(Jdbi jdbi) {
+        this.jdbi = jdbi;
+    }
+
+    public List<String> findPartitionNames() {
+        return jdbi.withHandle(handle -> handle.createQuery(FIND_PARTITION_NAMES)
+                .mapTo(String.class)
+                .list());
+    }
+
+    public List<YearMonth> findMonthlyPartitions() {
+        return findPartitionNames().stream()
+                .map(EventPartitionDao::toYearMonth)
+                .flatMap(Optional::stream)
+                .sorted()
+                .collect(toList());
+    }
+
+    public void createMonthlyPartition(YearMonth month) {
+        jdbi.useHandle(handle -> handle.execute(format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF event FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month),
+                month.atDay(1).atStartOfDay(ZoneOffset.UTC).toOffsetDateTime(),
+                month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toOffsetDateTime())));
+    }
+
+    /**
+     * Detaches the partition of the month from the event table, so that its events are no longer read or replayed.
+     * The partition is kept as a standalone table and can be moved to another tablespace or dropped. Check that no
+     * resource in it is still open with {@link #countOpenResources(List)} first.
+     */
+    public void detachMonthlyPartition(YearMonth month) {
+        jdbi.useHandle(handle -> handle.execute(format("ALTER TABLE event DETACH PARTITION %s", partitionName(month))));
+    }
+
+    /**
+     * Counts the resources with events in the partitions of the months that are still open: their transaction is not
+     * finished, or they also have events in another partition. Detaching the months would leave these resources with
+     * only some of their events, so their transactions could not be rebuilt and their next events would be ignored.
+     */
+    public long countOpenResources(List<YearMonth> months) {
+        String partitionEvents = months.stream()
+                .map(month -> "SELECT resource_external_id FROM " + partitionName(month))
+                .collect(joining(" UNION ALL "));
+        String partitions = months.stream()
+                .map(month -> format("'%s'::regclass", partitionName(month)))
+                .collect(joining(", "));
+        List<String> unfinishedStates = Stream.of(TransactionState.values())
+                .filter(state -> !state.isFinished())
+                .map(TransactionState::getState)
+                .collect(toList());
+        return jdbi.withHandle(handle -> handle.createQuery(format(COUNT_OPEN_RESOURCES, partitionEvents, partitions))
+                .bindList("unfinishedStates", unfinishedStates)
+                .mapTo(Long.class)
+                .findOnly());
+    }
+
+    public void moveToTablespace(YearMonth month, String tablespace) {
+        if (!TABLESPACE_NAME.matcher(tablespace).matches()) {
+            throw new IllegalArgumentException(format("Invalid tablespace name [%s]", tablespace));
+        }
+        jdbi.useHandle(handle -> handle.execute(format("ALTER TABLE %s SET TABLESPACE %s", partitionName(month), tablespace)));
+    }
+
+    public static String partitionName(YearMonth month) {
+        return "event_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Optional<YearMonth> toYearMonth(String partitionName) {
+        Matcher matcher = MONTHLY_PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+}
@@ -0,0 +1,89 @@
+package uk.gov.pay.ledger.event.dao;
+
+import com.google.inject.Inject;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.result.ResultIterator;
+import org.jdbi.v3.core.statement.Query;
+import uk.gov.pay.ledger.event.dao.mapper.EventMapper;
+import uk.gov.pay.ledger.event.model.Event;
+
+import java.sql.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class EventReplayDao {
+
+    private static final String RESOURCE_EXTERNAL_ID_BOUNDARIES = "SELECT percentile_disc(ARRAY[:fractions]) " +
+            "WITHIN GROUP (ORDER BY resource_external_id) " +
+            "FROM event :sample";
+
+    private static final String EVENTS_FOR_RESOURCE_RANGE = "SELECT e.id, e.sqs_message_id, rt.name AS resource_type_name, " +
+            "e.resource_external_id, e.parent_resource_external_id, e.event_date, e.event_type, e.event_data " +
+            "FROM event e JOIN resource_type rt ON e.resource_type_id = rt.id " +
+            "WHERE e.resource_external_id IS NOT NULL :range " +
+            "ORDER BY e.resource_external_id, e.event_date DESC";
+
+    private final Jdbi jdbi;
+
+    @Inject
+    public EventReplayDao(Jdbi jdbi) {
+        this.jdbi = jdbi;
+    }
+
+    /**
+     * Returns up to numberOfRanges - 1 distinct resource_external_ids that split the event table into
+     * ranges of roughly equal size, estimated from a sample of the table. They are kept in the order percentile_disc
+     * returns them, which follows the database collation used by the range predicates in {@link #streamEvents}.
+     * Sorting them in Java could order them differently and skip or repeat resources.
+     */
+    public List<String> getResourceExternalIdBoundaries(int numberOfRanges, double samplePercentage) {
+        if (numberOfRanges < 2) {
+            return List.of();
+        }
+        String fractions = IntStream.range(1, numberOfRanges)
+                .mapToObj(i -> String.valueOf((double) i / numberOfRanges))
+                .collect(Collectors.joining(","));
+        String sample = samplePercentage < 100 ? String.format("TABLESAMPLE SYSTEM (%s)", samplePercentage) : "";
+
+        String[] boundaries = jdbi.withHandle(handle ->
+                handle.createQuery(RESOURCE_EXTERNAL_ID_BOUNDARIES
+                        .replace(":fractions", fractions)
+                        .replace(":sample", sample))
+                        .map((resultSet, context) -> {
+                            Array array = resultSet.getArray(1);
+                            return array == null ? new String[0] : (String[]) array.getArray();
+                        })
+                        .findOnly());
+
+        return Arrays.stream(boundaries)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Streams the events with a resource_external_id in [fromInclusive, toExclusive) ordered by
+     * resource_external_id and then by event_date, most recent first. Either bound may be null.
+     * Rows are fetched through a server side cursor, fetchSize at a time.
+     */
+    public void streamEvents(String fromInclusive, String toExclusive, int fetchSize, Consumer<Event> consumer) {
+        String range = (fromInclusive == null ? "" : "AND e.resource_external_id >= :from ") +
+                (toExclusive == null ? "" : "AND e.resource_external_id < :to ");
+
+        jdbi.useTransaction(handle -> {
+            Query query = handle.createQuery(EVENTS_FOR_RESOURCE_RANGE.replace(":range", range))
+                    .setFetchSize(fetchSize);
+            Optional.ofNullable(fromInclusive).ifPresent(from -> query.bind("from", from));
+            Optional.ofNullable(toExclusive).ifPresent(to -> query.bind("to", to));
+
+            try (ResultIterator<Event> events = query.map(new EventMapper()).iterator()) {
+                events.forEachRemaining(consumer);
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package uk.gov.pay.ledger.event.dao;
+
+import uk.gov.pay.ledger.event.model.Event;
+
+import java.time.ZonedDateTime;
+
+/**
+ * An event to be inserted together with the id of its resource_type row, so that a batch of events can be bound
+ * without looking the resource types up in the insert.
+ */
+public class EventWithResourceTypeId {
+
+    private final Event event;
+    private final int resourceTypeId;
+
+    public EventWithResourceTypeId(Event event, int resourceTypeId) {
+        this.event = event;
+        this.resourceTypeId = resourceTypeId;
+    }
+
+    public String getSqsMessageId() {
+        return event.getSqsMessageId();
+    }
+
+    public int getResourceTypeId() {
+        return resourceTypeId;
+    }
+
+    public String getResourceExternalId() {
+        return event.getResourceExternalId();
+    }
+
+    public String getParentResourceExternalId() {
+        return event.getParentResourceExternalId();
+    }
+
+    public ZonedDateTime getEventDate() {
+        return event.getEventDate();
+    }
+
+    public String getEventType() {
+        return event.getEventType();
+    }
+
+    public String getEventData() {
+        return event.getEventData();
+    }
+}
@@ -0,0 +1,59 @@
+package uk.gov.pay.ledger.event.dao;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.event.model.ResourceType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Holds the ids of the resource_type rows, so that events can be inserted without looking the id up first.
+ * The rows are loaded when the cache is created and loaded again when a resource type is missing.
+ */
+@Singleton
+public class ResourceTypeIdCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceTypeIdCache.class);
+
+    private final ResourceTypeDao resourceTypeDao;
+    private volatile Map<ResourceType, Integer> resourceTypeIds = new EnumMap<>(ResourceType.class);
+
+    @Inject
+    public ResourceTypeIdCache(ResourceTypeDao resourceTypeDao) {
+        this.resourceTypeDao = resourceTypeDao;
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to load resource types, they will be loaded when an event is inserted", e);
+        }
+    }
+
+    public int getResourceTypeId(ResourceType resourceType) {
+        Integer resourceTypeId = resourceTypeIds.get(resourceType);
+        if (resourceTypeId == null) {
+            resourceTypeId = reload().get(resourceType);
+            if (resourceTypeId == null) {
+                throw new IllegalStateException(format("Resource type %s does not exist", resourceType));
+            }
+        }
+        return resourceTypeId;
+    }
+
+    private synchronized Map<ResourceType, Integer> reload() {
+        Map<ResourceType, Integer> loadedResourceTypeIds = new EnumMap<>(ResourceType.class);
+        resourceTypeDao.getResourceTypeIds().forEach((name, id) -> {
+            for (ResourceType resourceType : ResourceType.values()) {
+                if (resourceType.name().equalsIgnoreCase(name)) {
+                    loadedResourceTypeIds.put(resourceType, id);
+                }
+            }
+        });
+        resourceTypeIds = loadedResourceTypeIds;
+        return loadedResourceTypeIds;
+    }
+}
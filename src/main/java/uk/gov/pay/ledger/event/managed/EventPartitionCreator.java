@@ -0,0 +1,86 @@
+package uk.gov.pay.ledger.event.managed;
+
+import com.google.inject.Inject;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.app.LedgerConfig;
+import uk.gov.pay.ledger.event.dao.EventPartitionDao;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the monthly partitions of the event table ahead of time, so that new events are not written to the default
+ * partition. Runs when the application starts and then once a day.
+ */
+public class EventPartitionCreator implements Managed {
+
+    private static final String EVENT_PARTITION_CREATOR_THREAD_NAME = "event-partition-creator-%d";
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventPartitionCreator.class);
+
+    private final EventPartitionDao eventPartitionDao;
+    private final int monthsAhead;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @Inject
+    public EventPartitionCreator(Environment environment, LedgerConfig configuration, EventPartitionDao eventPartitionDao) {
+        this(eventPartitionDao, configuration.getEventPartitionConfig().getMonthsAhead(), Clock.systemUTC(),
+                environment.lifecycle()
+                        .scheduledExecutorService(EVENT_PARTITION_CREATOR_THREAD_NAME)
+                        .threads(1)
+                        .build());
+    }
+
+    EventPartitionCreator(EventPartitionDao eventPartitionDao, int monthsAhead, Clock clock,
+                          ScheduledExecutorService scheduledExecutorService) {
+        this.eventPartitionDao = eventPartitionDao;
+        this.monthsAhead = monthsAhead;
+        this.clock = clock;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    @Override
+    public void start() {
+        scheduledExecutorService.scheduleWithFixedDelay(this::createPartitions, 0, 1, TimeUnit.DAYS);
+    }
+
+    void createPartitions() {
+        try {
+            YearMonth currentMonth = YearMonth.now(clock);
+            List<YearMonth> existingPartitions = eventPartitionDao.findMonthlyPartitions();
+            YearMonth month = existingPartitions.isEmpty()
+                    ? currentMonth
+                    : existingPartitions.get(existingPartitions.size() - 1).plusMonths(1);
+            for (; !month.isAfter(currentMonth.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Event partition creator exception [{}]", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A month fails, for example, when event_default already holds events of that month. Its events stay in
+     * event_default, and the later months are still created.
+     */
+    private void createPartition(YearMonth month) {
+        try {
+            eventPartitionDao.createMonthlyPartition(month);
+            LOGGER.info("Created event partition [partition={}]", EventPartitionDao.partitionName(month));
+        } catch (Exception e) {
+            LOGGER.error("Unable to create event partition [partition={}] [{}]",
+                    EventPartitionDao.partitionName(month), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        scheduledExecutorService.shutdown();
+    }
+}
@@ -9,7 +9,9 @@ import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 import uk.gov.pay.ledger.transaction.search.model.ConvertedTransactionDetails;
 import uk.gov.pay.ledger.transaction.state.TransactionState;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.Optional;
 
 public class TransactionEntityFactory {
 
@@ -35,6 +37,30 @@ public class TransactionEntityFactory {
         return entity;
     }
 
+    public TransactionEntity fold(TransactionEntity transaction, Event event) {
+        String previousState = transaction.getState();
+        TransactionEntity entity;
+        try {
+            entity = objectMapper.readerForUpdating(transaction).readValue(event.getEventData());
+            ConvertedTransactionDetails details = objectMapper.readValue(
+                    Optional.ofNullable(transaction.getTransactionDetails()).orElse("{}"), ConvertedTransactionDetails.class);
+            objectMapper.readerForUpdating(details).readValue(event.getEventData());
+            entity.setTransactionDetails(objectMapper.writeValueAsString(details));
+        } catch (IOException e) {
+            throw new RuntimeException("Error folding event Json into transaction");
+        }
+        entity.setEventCount(transaction.getEventCount() + 1);
+        entity.setState(SalientEventType.from(event.getEventType())
+                .map(TransactionState::fromEventType)
+                .map(TransactionState::getState)
+                .orElse(previousState));
+        entity.setExternalId(event.getResourceExternalId());
+        entity.setParentExternalId(event.getParentResourceExternalId());
+        entity.setTransactionType(event.getResourceType().toString());
+
+        return entity;
+    }
+
     private String convertToTransactionDetails(Map<String, Object> transactionPayload) {
         ConvertedTransactionDetails details = objectMapper.convertValue(transactionPayload, ConvertedTransactionDetails.class);
         try {
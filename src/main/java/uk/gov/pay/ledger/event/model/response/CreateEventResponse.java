@@ -1,5 +1,6 @@
 package uk.gov.pay.ledger.event.model.response;
 
+import java.util.List;
 import java.util.Optional;
 
 public class CreateEventResponse {
@@ -11,11 +12,18 @@ public class CreateEventResponse {
 
     private boolean isSuccessful;
     private CreateEventState state;
+    private int insertedEventCount;
     private Exception exception;
 
     public CreateEventResponse(Optional<Long> status) {
         this.isSuccessful = true;
         this.state = status.isPresent() ? CreateEventState.INSERTED : CreateEventState.IGNORED;
+        this.insertedEventCount = status.isPresent() ? 1 : 0;
+    }
+
+    public CreateEventResponse(List<Long> insertedEventIds) {
+        this(insertedEventIds.stream().findFirst());
+        this.insertedEventCount = insertedEventIds.size();
     }
 
     public CreateEventResponse(Exception exception) {
@@ -32,6 +40,10 @@ public class CreateEventResponse {
         return state;
     }
 
+    public int getInsertedEventCount() {
+        return insertedEventCount;
+    }
+
     public String getErrorMessage() {
         return exception != null ? exception.getMessage() : "";
     }
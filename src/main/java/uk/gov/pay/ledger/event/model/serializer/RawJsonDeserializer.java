@@ -0,0 +1,37 @@
+package uk.gov.pay.ledger.event.model.serializer;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Deserializes a JSON object or array to the exact text it occupies in the source document,
+ * skipping over it instead of building a tree. Falls back to re-serialising a tree when the
+ * source text is not available, for example when reading from a stream.
+ */
+public class RawJsonDeserializer extends StdDeserializer<String> {
+
+    public RawJsonDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.getCurrentToken();
+        JsonLocation start = p.getTokenLocation();
+
+        if ((token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY)
+                && start.getSourceRef() instanceof String
+                && start.getCharOffset() >= 0) {
+            String source = (String) start.getSourceRef();
+            p.skipChildren();
+            return source.substring((int) start.getCharOffset(), (int) p.getCurrentLocation().getCharOffset());
+        }
+
+        return p.readValueAsTree().toString();
+    }
+}
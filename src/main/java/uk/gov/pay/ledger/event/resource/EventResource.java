@@ -2,8 +2,11 @@ package uk.gov.pay.ledger.event.resource;
 
 import com.codahale.metrics.annotation.Timed;
 import com.google.inject.Inject;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.JdbiException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.app.ReadReplicaRouter;
 import uk.gov.pay.ledger.event.dao.EventDao;
 import uk.gov.pay.ledger.event.model.Event;
 
@@ -13,6 +16,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
+import java.util.Optional;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -23,10 +27,12 @@ public class EventResource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EventResource.class);
     private final EventDao eventDao;
+    private final ReadReplicaRouter readReplicaRouter;
 
     @Inject
-    public EventResource(EventDao eventDao) {
+    public EventResource(EventDao eventDao, ReadReplicaRouter readReplicaRouter) {
         this.eventDao = eventDao;
+        this.readReplicaRouter = readReplicaRouter;
     }
 
     @Path("/{eventId}")
@@ -34,7 +40,25 @@ public class EventResource {
     @Timed
     public Event getEvent(@PathParam("eventId") Long eventId) {
         LOGGER.info("Get event request: {}", eventId);
-        return eventDao.getById(eventId)
+        return getFromReadDatabase(eventId)
+                .or(() -> eventDao.getById(eventId))
                 .orElseThrow(() -> new WebApplicationException(Response.Status.NOT_FOUND));
     }
+
+    /**
+     * Reads the event from the read replica when it is in use. An event that has not been replicated yet, or a
+     * replica that cannot be queried, falls back to the primary database.
+     */
+    private Optional<Event> getFromReadDatabase(Long eventId) {
+        Jdbi readJdbi = readReplicaRouter.forReads();
+        if (readJdbi == readReplicaRouter.primary()) {
+            return Optional.empty();
+        }
+        try {
+            return readJdbi.withExtension(EventDao.class, dao -> dao.getById(eventId));
+        } catch (JdbiException e) {
+            LOGGER.warn("Unable to read event from the read replica, reading from the primary database", e);
+            return Optional.empty();
+        }
+    }
 }
@@ -1,33 +1,96 @@
 package uk.gov.pay.ledger.event.service;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import uk.gov.pay.ledger.event.dao.EventDao;
+import uk.gov.pay.ledger.event.dao.EventWithResourceTypeId;
+import uk.gov.pay.ledger.event.dao.ResourceTypeIdCache;
 import uk.gov.pay.ledger.event.model.Event;
 import uk.gov.pay.ledger.event.model.EventDigest;
 import uk.gov.pay.ledger.event.model.response.CreateEventResponse;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
 public class EventService {
     private EventDao eventDao;
+    private ResourceTypeIdCache resourceTypeIdCache;
+    private final Timer readEventsTimer;
+    private final Timer buildDigestTimer;
+    private final Histogram eventsPerDigest;
 
     @Inject
-    public EventService(EventDao eventDao) {
+    public EventService(EventDao eventDao, ResourceTypeIdCache resourceTypeIdCache, MetricRegistry metricRegistry) {
         this.eventDao = eventDao;
+        this.resourceTypeIdCache = resourceTypeIdCache;
+        this.readEventsTimer = metricRegistry.timer(name(EventService.class, "read-events-for-digest"));
+        this.buildDigestTimer = metricRegistry.timer(name(EventService.class, "build-digest"));
+        this.eventsPerDigest = metricRegistry.histogram(name(EventService.class, "events-per-digest"));
     }
 
     public EventDigest getEventDigestForResource(String resourceExternalId) {
-        List<Event> events = eventDao.getEventsByResourceExternalId(resourceExternalId);
-        return EventDigest.fromEventList(events);
+        List<Event> events;
+        try (Timer.Context ignored = readEventsTimer.time()) {
+            events = eventDao.getEventsByResourceExternalId(resourceExternalId);
+        }
+        return toEventDigest(events);
+    }
+
+    public List<EventDigest> getEventDigestsForResources(Collection<String> resourceExternalIds) {
+        List<Event> events;
+        try (Timer.Context ignored = readEventsTimer.time()) {
+            events = eventDao.getEventsByResourceExternalIds(resourceExternalIds);
+        }
+        return events
+                .stream()
+                .collect(groupingBy(Event::getResourceExternalId, LinkedHashMap::new, toList()))
+                .values()
+                .stream()
+                .map(this::toEventDigest)
+                .collect(toList());
+    }
+
+    private EventDigest toEventDigest(List<Event> events) {
+        eventsPerDigest.update(events.size());
+        try (Timer.Context ignored = buildDigestTimer.time()) {
+            return EventDigest.fromEventList(events);
+        }
+    }
+
+    public boolean isMostRecentEventForResource(Event event, int expectedEventCount, ZonedDateTime earliestEventDate) {
+        return eventDao.hasEventCountWithNoLaterEvents(event.getResourceExternalId(), expectedEventCount,
+                event.getEventDate(), earliestEventDate);
     }
 
     public CreateEventResponse createIfDoesNotExist(Event event) {
         try {
-            Optional<Long> status = eventDao.insertEventIfDoesNotExistWithResourceTypeId(event);
+            Optional<Long> status = eventDao.insertIfDoesNotExist(event,
+                    resourceTypeIdCache.getResourceTypeId(event.getResourceType()));
             return new CreateEventResponse(status);
         } catch (Exception e) {
             return new CreateEventResponse(e);
         }
     }
+
+    public CreateEventResponse createIfDoesNotExist(List<Event> events) {
+        try {
+            List<EventWithResourceTypeId> eventsWithResourceTypeIds = events.stream()
+                    .map(event -> new EventWithResourceTypeId(event,
+                            resourceTypeIdCache.getResourceTypeId(event.getResourceType())))
+                    .collect(toList());
+            List<Long> insertedEventIds = eventDao.insertIfDoNotExist(eventsWithResourceTypeIds);
+            return new CreateEventResponse(insertedEventIds);
+        } catch (Exception e) {
+            return new CreateEventResponse(e);
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package uk.gov.pay.ledger.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gathers the outcome of each message in a received batch and, once every message has an
+ * outcome, acknowledges and defers them with one batch request each.
+ */
+public class EventMessageAcknowledgements {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventMessageAcknowledgements.class);
+
+    private final EventQueue eventQueue;
+    private final List<EventMessage> processed = new ArrayList<>();
+    private final List<EventMessage> deferred = new ArrayList<>();
+    private int remaining;
+
+    public EventMessageAcknowledgements(EventQueue eventQueue, int numberOfMessages) {
+        this.eventQueue = eventQueue;
+        this.remaining = numberOfMessages;
+    }
+
+    public void markMessageAsProcessed(EventMessage message) {
+        record(message, processed);
+    }
+
+    public void scheduleMessageForRetry(EventMessage message) {
+        record(message, deferred);
+    }
+
+    public void leaveMessageOnQueue(EventMessage message) {
+        record(message, null);
+    }
+
+    /**
+     * Outcomes recorded after the batch has been flushed are ignored, so that a message is never counted twice and the
+     * batch is not acknowledged again.
+     */
+    private void record(EventMessage message, List<EventMessage> outcome) {
+        synchronized (this) {
+            if (remaining <= 0) {
+                LOGGER.warn("Ignoring outcome recorded after the event messages were acknowledged. [queueMessageId={}]",
+                        message.getQueueMessageId());
+                return;
+            }
+            if (outcome != null) {
+                outcome.add(message);
+            }
+            if (--remaining > 0) {
+                return;
+            }
+        }
+        flush();
+    }
+
+    private void flush() {
+        try {
+            eventQueue.markMessagesAsProcessed(processed);
+        } catch (QueueException | RuntimeException e) {
+            LOGGER.warn("Error marking the event messages as processed. [count={}] [errorMessage={}]",
+                    processed.size(),
+                    e.getMessage());
+        }
+        try {
+            eventQueue.scheduleMessagesForRetry(deferred);
+        } catch (QueueException | RuntimeException e) {
+            LOGGER.warn("Error scheduling the event messages for retry. [count={}] [errorMessage={}]",
+                    deferred.size(),
+                    e.getMessage());
+        }
+    }
+}
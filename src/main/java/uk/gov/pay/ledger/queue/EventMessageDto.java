@@ -2,10 +2,10 @@ package uk.gov.pay.ledger.queue;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import uk.gov.pay.ledger.event.model.ResourceType;
 import uk.gov.pay.ledger.event.model.serializer.MicrosecondPrecisionDateTimeDeserializer;
+import uk.gov.pay.ledger.event.model.serializer.RawJsonDeserializer;
 
 import java.time.ZonedDateTime;
 
@@ -28,8 +28,9 @@ public class EventMessageDto {
     @JsonProperty("resource_type")
     public ResourceType resourceType;
 
+    @JsonDeserialize(using = RawJsonDeserializer.class)
     @JsonProperty("event_details")
-    private JsonNode eventData;
+    private String eventData;
 
     public ResourceType getResourceType() {
         return resourceType;
@@ -44,7 +45,7 @@ public class EventMessageDto {
     }
 
     public String getEventData() {
-        return eventData.toString();
+        return eventData;
     }
 
     public String getExternalId() {
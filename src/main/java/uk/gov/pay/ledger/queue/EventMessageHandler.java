@@ -1,15 +1,29 @@
 package uk.gov.pay.ledger.queue;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.app.LedgerConfig;
 import uk.gov.pay.ledger.event.model.Event;
 import uk.gov.pay.ledger.event.model.EventDigest;
 import uk.gov.pay.ledger.event.model.response.CreateEventResponse;
 import uk.gov.pay.ledger.event.service.EventService;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 import uk.gov.pay.ledger.transaction.service.TransactionService;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
 
 public class EventMessageHandler {
 
@@ -17,47 +31,159 @@ public class EventMessageHandler {
     private EventQueue eventQueue;
     private EventService eventService;
     private TransactionService transactionService;
+    private final boolean batchProcessingEnabled;
+    private final boolean incrementalDigestEnabled;
+    private final Timer processMessageTimer;
+    private final Timer insertEventTimer;
+    private final Timer upsertTransactionTimer;
+    private final Timer processBatchTimer;
+    private final Histogram batchSize;
+    private final Meter incrementalDigests;
+    private final Meter fullDigests;
+    private final Counter duplicateEvents;
+    private final Counter retriedMessages;
+    private final Counter failedMessages;
 
     @Inject
-    public EventMessageHandler(EventQueue eventQueue, EventService eventService, TransactionService transactionService) {
+    public EventMessageHandler(EventQueue eventQueue, EventService eventService, TransactionService transactionService,
+                               LedgerConfig configuration, MetricRegistry metricRegistry) {
         this.eventQueue = eventQueue;
         this.eventService = eventService;
         this.transactionService = transactionService;
+        this.batchProcessingEnabled = configuration.getQueueMessageReceiverConfig().isBatchProcessingEnabled();
+        this.incrementalDigestEnabled = configuration.getQueueMessageReceiverConfig().isIncrementalDigestEnabled();
+
+        this.processMessageTimer = metricRegistry.timer(name(EventMessageHandler.class, "process-message"));
+        this.insertEventTimer = metricRegistry.timer(name(EventMessageHandler.class, "insert-event"));
+        this.upsertTransactionTimer = metricRegistry.timer(name(EventMessageHandler.class, "upsert-transaction"));
+        this.processBatchTimer = metricRegistry.timer(name(EventMessageHandler.class, "process-batch"));
+        this.batchSize = metricRegistry.histogram(name(EventMessageHandler.class, "batch-size"));
+        this.incrementalDigests = metricRegistry.meter(name(EventMessageHandler.class, "incremental-digests"));
+        this.fullDigests = metricRegistry.meter(name(EventMessageHandler.class, "full-digests"));
+        this.duplicateEvents = metricRegistry.counter(name(EventMessageHandler.class, "duplicate-events"));
+        this.retriedMessages = metricRegistry.counter(name(EventMessageHandler.class, "retried-messages"));
+        this.failedMessages = metricRegistry.counter(name(EventMessageHandler.class, "failed-messages"));
     }
 
     public void handle() throws QueueException {
-        List<EventMessage> eventMessages = eventQueue.retrieveEvents();
-
-        for (EventMessage message : eventMessages) {
-            try {
-                processSingleMessage(message);
-            } catch (Exception e) {
-                LOGGER.warn("Error during handling the event message. [id={}] [queueMessageId={}] [errorMessage={}]",
-                        message.getId(),
-                        message.getQueueMessageId(),
-                        e.getMessage()
-                );
-            }
+        handle(eventQueue.retrieveEvents());
+    }
+
+    public void handle(List<EventMessage> eventMessages) {
+        if (batchProcessingEnabled && eventMessages.size() > 1) {
+            processBatch(eventMessages);
+        } else {
+            processIndividually(eventMessages);
+        }
+    }
+
+    void processBatch(List<EventMessage> messages) {
+        batchSize.update(messages.size());
+        try (Timer.Context ignored = processBatchTimer.time()) {
+            insertAndProjectBatch(messages);
         }
     }
 
-    void processSingleMessage(EventMessage message) throws QueueException {
+    private void insertAndProjectBatch(List<EventMessage> messages) {
+        List<Event> events = messages.stream()
+                .map(EventMessage::getEvent)
+                .collect(toList());
+        CreateEventResponse response = eventService.createIfDoesNotExist(events);
+
+        if (!response.isSuccessful()) {
+            LOGGER.warn("Error inserting the event message batch, processing messages individually. [size={}] [error={}]",
+                    messages.size(),
+                    response.getErrorMessage());
+            processIndividually(messages);
+            return;
+        }
+
+        try {
+            Set<String> resourceExternalIds = events.stream()
+                    .map(Event::getResourceExternalId)
+                    .collect(toCollection(LinkedHashSet::new));
+            List<EventDigest> eventDigests = eventService.getEventDigestsForResources(resourceExternalIds);
+            transactionService.upsertTransactionsFor(eventDigests);
+        } catch (Exception e) {
+            LOGGER.warn("Error projecting the event message batch, processing messages individually. [size={}] [errorMessage={}]",
+                    messages.size(),
+                    e.getMessage());
+            processIndividually(messages);
+            return;
+        }
+        duplicateEvents.inc(events.size() - response.getInsertedEventCount());
+
+        try {
+            eventQueue.markMessagesAsProcessed(messages);
+        } catch (QueueException e) {
+            LOGGER.warn("Error marking the event message batch as processed. [size={}] [errorMessage={}]",
+                    messages.size(),
+                    e.getMessage()
+            );
+        }
+        LOGGER.info("The event message batch has been processed. [size={}] [state={}]",
+                messages.size(),
+                response.getState());
+    }
+
+    private void processIndividually(List<EventMessage> eventMessages) {
+        EventMessageAcknowledgements acknowledgements = new EventMessageAcknowledgements(eventQueue, eventMessages.size());
+        eventMessages.forEach(message -> processMessage(message, acknowledgements));
+    }
+
+    public void processMessage(EventMessage message, EventMessageAcknowledgements acknowledgements) {
+        try (Timer.Context ignored = processMessageTimer.time()) {
+            processSingleMessage(message, acknowledgements);
+        } catch (Exception e) {
+            failedMessages.inc();
+            LOGGER.warn("Error during handling the event message. [id={}] [queueMessageId={}] [errorMessage={}]",
+                    message.getId(),
+                    message.getQueueMessageId(),
+                    e.getMessage()
+            );
+            acknowledgements.leaveMessageOnQueue(message);
+        }
+    }
+
+    void processSingleMessage(EventMessage message, EventMessageAcknowledgements acknowledgements) {
         Event event = message.getEvent();
-        CreateEventResponse response = eventService.createIfDoesNotExist(event);
+        CreateEventResponse response;
+        try (Timer.Context ignored = insertEventTimer.time()) {
+            response = eventService.createIfDoesNotExist(event);
+        }
 
         if(response.isSuccessful()) {
-            EventDigest eventDigest = eventService.getEventDigestForResource(event.getResourceExternalId());
-            transactionService.upsertTransactionFor(eventDigest);
-            eventQueue.markMessageAsProcessed(message);
+            duplicateEvents.inc(1 - response.getInsertedEventCount());
+            try (Timer.Context ignored = upsertTransactionTimer.time()) {
+                upsertTransactionFor(event, response);
+            }
+            acknowledgements.markMessageAsProcessed(message);
             LOGGER.info("The event message has been processed. [id={}] [state={}]",
                     message.getId(),
                     response.getState());
         } else {
-            eventQueue.scheduleMessageForRetry(message);
+            retriedMessages.inc();
+            acknowledgements.scheduleMessageForRetry(message);
             LOGGER.warn("The event message has been scheduled for retry. [id={}] [state={}] [error={}]",
                     message.getId(),
                     response.getState(),
                     response.getErrorMessage());
         }
     }
+
+    private void upsertTransactionFor(Event event, CreateEventResponse response) {
+        if (incrementalDigestEnabled && response.getState() == CreateEventResponse.CreateEventState.INSERTED) {
+            Optional<TransactionEntity> transaction = transactionService.getTransactionEntity(event.getResourceExternalId())
+                    .filter(t -> eventService.isMostRecentEventForResource(event, t.getEventCount() + 1, t.getCreatedDate()));
+            if (transaction.isPresent()) {
+                incrementalDigests.mark();
+                transactionService.upsertTransactionFor(transaction.get(), event);
+                return;
+            }
+        }
+
+        fullDigests.mark();
+        EventDigest eventDigest = eventService.getEventDigestForResource(event.getResourceExternalId());
+        transactionService.upsertTransactionFor(eventDigest);
+    }
 }
@@ -1,5 +1,9 @@
 package uk.gov.pay.ledger.queue;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import org.slf4j.Logger;
@@ -12,6 +16,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 public class EventQueue {
 
     private static final String EVENT_MESSAGE_ATTRIBUTE_NAME = "All";
@@ -21,32 +27,68 @@ public class EventQueue {
     private final String eventQueueUrl;
     private ObjectMapper objectMapper;
     private int retryDelayInSeconds;
+    private final Histogram receivedMessages;
+    private final Timer parseTimer;
+    private final Counter parseFailures;
 
     @Inject
-    public EventQueue(SqsQueueService sqsQueueService, LedgerConfig configuration, ObjectMapper objectMapper) {
+    public EventQueue(SqsQueueService sqsQueueService, LedgerConfig configuration, ObjectMapper objectMapper,
+                      MetricRegistry metricRegistry) {
         this.sqsQueueService = sqsQueueService;
         this.eventQueueUrl = configuration.getSqsConfig().getEventQueueUrl();
         this.objectMapper = objectMapper;
         this.retryDelayInSeconds = configuration.getQueueMessageReceiverConfig().getMessageRetryDelayInSeconds();
+        this.receivedMessages = metricRegistry.histogram(name(EventQueue.class, "received-messages"));
+        this.parseTimer = metricRegistry.timer(name(EventQueue.class, "parse-messages"));
+        this.parseFailures = metricRegistry.counter(name(EventQueue.class, "parse-failures"));
     }
 
     public List<EventMessage> retrieveEvents() throws QueueException {
-        List<QueueMessage> queueMessages = sqsQueueService
-                .receiveMessages(this.eventQueueUrl, EVENT_MESSAGE_ATTRIBUTE_NAME);
+        return parseMessages(receiveMessages());
+    }
 
-        return queueMessages
-                .stream()
-                .map(this::getMessage)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    public List<QueueMessage> receiveMessages() throws QueueException {
+        List<QueueMessage> queueMessages = sqsQueueService.receiveMessages(this.eventQueueUrl, EVENT_MESSAGE_ATTRIBUTE_NAME);
+        receivedMessages.update(queueMessages.size());
+        return queueMessages;
+    }
+
+    public List<EventMessage> parseMessages(List<QueueMessage> queueMessages) {
+        try (Timer.Context ignored = parseTimer.time()) {
+            return queueMessages
+                    .stream()
+                    .map(this::getMessage)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public void markMessagesAsProcessed(List<EventMessage> messages) throws QueueException {
+        if (!messages.isEmpty()) {
+            List<String> failed = sqsQueueService.deleteMessages(this.eventQueueUrl, receiptHandlesOf(messages));
+            logFailures(failed, "marked as processed");
+        }
     }
 
-    public void markMessageAsProcessed(EventMessage message) throws QueueException {
-        sqsQueueService.deleteMessage(this.eventQueueUrl, message.getQueueMessageReceiptHandle());
+    public void scheduleMessagesForRetry(List<EventMessage> messages) throws QueueException {
+        if (!messages.isEmpty()) {
+            List<String> failed = sqsQueueService.deferMessages(this.eventQueueUrl, receiptHandlesOf(messages), retryDelayInSeconds);
+            logFailures(failed, "scheduled for retry");
+        }
     }
 
-    public void scheduleMessageForRetry(EventMessage message) throws QueueException {
-        sqsQueueService.deferMessage(this.eventQueueUrl, message.getQueueMessageReceiptHandle(), retryDelayInSeconds);
+    private List<String> receiptHandlesOf(List<EventMessage> messages) {
+        return messages.stream()
+                .map(EventMessage::getQueueMessageReceiptHandle)
+                .collect(Collectors.toList());
+    }
+
+    private void logFailures(List<String> failedReceiptHandles, String action) {
+        if (!failedReceiptHandles.isEmpty()) {
+            LOGGER.warn("Some event messages could not be {} and will be received again. [count={}]",
+                    action,
+                    failedReceiptHandles.size());
+        }
     }
 
     private EventMessage getMessage(QueueMessage queueMessage) {
@@ -55,6 +97,7 @@ public class EventQueue {
 
             return EventMessage.of(eventDto, queueMessage);
         } catch (IOException e) {
+            parseFailures.inc();
             LOGGER.warn(
                     "There was an exception parsing message [messageId={}] into an [{}]",
                     queueMessage.getMessageId(),
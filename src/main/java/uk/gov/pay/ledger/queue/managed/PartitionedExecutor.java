@@ -0,0 +1,30 @@
+package uk.gov.pay.ledger.queue.managed;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs tasks sharing a partition key on the same single-threaded executor, so they
+ * are executed in submission order while tasks for other keys run in parallel.
+ */
+class PartitionedExecutor {
+
+    private final List<ExecutorService> partitions;
+
+    PartitionedExecutor(List<ExecutorService> partitions) {
+        this.partitions = List.copyOf(partitions);
+    }
+
+    void execute(String partitionKey, Runnable task) {
+        partitions.get(partitionFor(partitionKey)).execute(task);
+    }
+
+    int partitionFor(String partitionKey) {
+        return Math.floorMod(Objects.hashCode(partitionKey), partitions.size());
+    }
+
+    void shutdown() {
+        partitions.forEach(ExecutorService::shutdown);
+    }
+}
@@ -0,0 +1,99 @@
+package uk.gov.pay.ledger.queue.managed;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.queue.EventQueue;
+import uk.gov.pay.ledger.queue.QueueMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Keeps receive requests in flight ahead of the consumers. Each receive reserves room in the buffer
+ * for a full batch before it is sent, so the buffer never holds more than its capacity. After a failed
+ * receive the prefetcher pauses, doubling the pause for each consecutive failure.
+ */
+class QueueMessagePrefetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueMessagePrefetcher.class);
+    private static final long SATURATED_PAUSE_IN_MILLISECONDS = 50;
+    private static final long MAXIMUM_FAILURE_PAUSE_IN_MILLISECONDS = 5000;
+
+    private final EventQueue eventQueue;
+    private final int messageBatchSize;
+    private final BooleanSupplier downstreamSaturated;
+    private final BlockingQueue<QueueMessage> buffer = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final AtomicInteger inFlightReceives = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final Timer blockedTimer;
+
+    QueueMessagePrefetcher(EventQueue eventQueue, int bufferSize, int messageBatchSize,
+                           BooleanSupplier downstreamSaturated, MetricRegistry metricRegistry) {
+        this.eventQueue = eventQueue;
+        this.messageBatchSize = messageBatchSize;
+        this.downstreamSaturated = downstreamSaturated;
+        this.capacity = new Semaphore(Math.max(bufferSize, messageBatchSize));
+
+        metricRegistry.register(name(QueueMessagePrefetcher.class, "buffer-depth"), (Gauge<Integer>) buffer::size);
+        metricRegistry.register(name(QueueMessagePrefetcher.class, "in-flight-receives"), (Gauge<Integer>) inFlightReceives::get);
+        this.blockedTimer = metricRegistry.timer(name(QueueMessagePrefetcher.class, "back-pressure-blocked"));
+    }
+
+    void prefetch() throws InterruptedException {
+        try (Timer.Context ignored = blockedTimer.time()) {
+            while (downstreamSaturated.getAsBoolean()) {
+                Thread.sleep(SATURATED_PAUSE_IN_MILLISECONDS);
+            }
+            capacity.acquire(messageBatchSize);
+        }
+
+        List<QueueMessage> queueMessages = List.of();
+        long failurePause = 0;
+        inFlightReceives.incrementAndGet();
+        try {
+            queueMessages = eventQueue.receiveMessages();
+            consecutiveFailures.set(0);
+        } catch (Exception e) {
+            failurePause = failurePause(consecutiveFailures.incrementAndGet());
+            LOGGER.error("Queue message prefetcher exception, pausing for {} ms [{}]", failurePause, e.getMessage());
+        } finally {
+            inFlightReceives.decrementAndGet();
+            capacity.release(messageBatchSize - queueMessages.size());
+        }
+        buffer.addAll(queueMessages);
+
+        if (failurePause > 0) {
+            Thread.sleep(failurePause);
+        }
+    }
+
+    private static long failurePause(int failures) {
+        return Math.min(SATURATED_PAUSE_IN_MILLISECONDS << Math.min(failures - 1, 16), MAXIMUM_FAILURE_PAUSE_IN_MILLISECONDS);
+    }
+
+    List<QueueMessage> take(int maximumNumberOfMessages, long timeout, TimeUnit unit) throws InterruptedException {
+        QueueMessage first = buffer.poll(timeout, unit);
+        if (first == null) {
+            return List.of();
+        }
+
+        List<QueueMessage> queueMessages = new ArrayList<>(maximumNumberOfMessages);
+        queueMessages.add(first);
+        buffer.drainTo(queueMessages, maximumNumberOfMessages - 1);
+        capacity.release(queueMessages.size());
+
+        return queueMessages;
+    }
+}
@@ -1,33 +1,63 @@
 package uk.gov.pay.ledger.queue.managed;
 
 import com.google.inject.Inject;
+import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.db.ManagedPooledDataSource;
 import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.ledger.app.LedgerConfig;
 import uk.gov.pay.ledger.app.config.QueueMessageReceiverConfig;
+import uk.gov.pay.ledger.queue.EventMessage;
+import uk.gov.pay.ledger.queue.EventMessageAcknowledgements;
 import uk.gov.pay.ledger.queue.EventMessageHandler;
+import uk.gov.pay.ledger.queue.EventQueue;
+import uk.gov.pay.ledger.queue.QueueMessage;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class QueueMessageReceiver implements Managed {
 
     private static final String QUEUE_MESSAGE_RECEIVER_THREAD_NAME = "queue-message-receiver-%d";
+    private static final String QUEUE_MESSAGE_PARSER_THREAD_NAME = "queue-message-parser-%d";
+    private static final String QUEUE_MESSAGE_WORKER_THREAD_NAME = "queue-message-worker-%d-%%d";
+    private static final String QUEUE_MESSAGE_PREFETCHER_THREAD_NAME = "queue-message-prefetcher-%d";
+    private static final long PREFETCH_BUFFER_POLL_TIMEOUT_IN_SECONDS = 1;
     private static final Logger LOGGER = LoggerFactory.getLogger(QueueMessageReceiver.class);
     private final QueueMessageReceiverConfig config;
 
     private ScheduledExecutorService scheduledExecutorService;
     private EventMessageHandler eventMessageHandler;
+    private EventQueue eventQueue;
+    private ExecutorService parserExecutorService;
+    private PartitionedExecutor workerExecutor;
+    private ExecutorService prefetcherExecutorService;
+    private QueueMessagePrefetcher prefetcher;
+    private final int messageBatchSize;
+    private volatile boolean running;
 
     @Inject
     public QueueMessageReceiver(
             Environment environment,
             LedgerConfig configuration,
-            EventMessageHandler eventMessageHandler) {
+            EventMessageHandler eventMessageHandler,
+            EventQueue eventQueue,
+            ManagedDataSource dataSource) {
         this.eventMessageHandler = eventMessageHandler;
+        this.eventQueue = eventQueue;
         this.config = configuration.getQueueMessageReceiverConfig();
+        this.messageBatchSize = configuration.getSqsConfig().getMessageMaximumBatchSize();
 
         int queueReadScheduleNumberOfThreads = config.getNumberOfThreads();
 
@@ -36,15 +66,60 @@ public class QueueMessageReceiver implements Managed {
                 .scheduledExecutorService(QUEUE_MESSAGE_RECEIVER_THREAD_NAME)
                 .threads(queueReadScheduleNumberOfThreads)
                 .build();
+
+        if (config.isPipelineProcessingEnabled()) {
+            parserExecutorService = environment
+                    .lifecycle()
+                    .executorService(QUEUE_MESSAGE_PARSER_THREAD_NAME)
+                    .minThreads(1)
+                    .maxThreads(1)
+                    .workQueue(new ArrayBlockingQueue<>(queueReadScheduleNumberOfThreads))
+                    .rejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy())
+                    .build();
+
+            List<ExecutorService> workers = IntStream.range(0, config.getNumberOfPersistenceWorkers())
+                    .mapToObj(partition -> environment
+                            .lifecycle()
+                            .executorService(String.format(QUEUE_MESSAGE_WORKER_THREAD_NAME, partition))
+                            .minThreads(1)
+                            .maxThreads(1)
+                            .workQueue(new ArrayBlockingQueue<>(config.getPersistenceWorkerQueueSize()))
+                            .rejectedExecutionHandler(blockUntilQueued())
+                            .build())
+                    .collect(Collectors.toList());
+            workerExecutor = new PartitionedExecutor(workers);
+        }
+
+        if (config.isPrefetchingEnabled()) {
+            prefetcherExecutorService = environment
+                    .lifecycle()
+                    .executorService(QUEUE_MESSAGE_PREFETCHER_THREAD_NAME)
+                    .minThreads(config.getNumberOfPrefetchingReceivers())
+                    .maxThreads(config.getNumberOfPrefetchingReceivers())
+                    .build();
+            prefetcher = new QueueMessagePrefetcher(
+                    eventQueue,
+                    config.getPrefetchBufferSize(),
+                    messageBatchSize,
+                    connectionPoolSaturated(dataSource),
+                    environment.metrics());
+        }
     }
 
     @Override
     public void start() {
+        running = true;
+        if (config.isPrefetchingEnabled()) {
+            for (int i = 0; i < config.getNumberOfPrefetchingReceivers(); i++) {
+                prefetcherExecutorService.execute(this::prefetch);
+            }
+        }
+
         long initialDelay = config.getThreadDelayInMilliseconds();
         long delay = config.getThreadDelayInMilliseconds();
 
         scheduledExecutorService.scheduleWithFixedDelay(
-                this::receive,
+                config.isPipelineProcessingEnabled() ? this::poll : this::receive,
                 initialDelay,
                 delay,
                 TimeUnit.MILLISECONDS
@@ -54,14 +129,86 @@ public class QueueMessageReceiver implements Managed {
     private void receive() {
         LOGGER.info("Queue message receiver thread polling queue");
         try {
-            eventMessageHandler.handle();
+            if (config.isPrefetchingEnabled()) {
+                eventMessageHandler.handle(eventQueue.parseMessages(receiveMessages()));
+            } else {
+                eventMessageHandler.handle();
+            }
         } catch (Exception e) {
             LOGGER.error("Queue message receiver thread exception [{}]", e);
         }
     }
 
+    private void poll() {
+        LOGGER.info("Queue message receiver thread polling queue");
+        try {
+            List<QueueMessage> queueMessages = receiveMessages();
+            if (!queueMessages.isEmpty()) {
+                parserExecutorService.execute(() -> dispatch(queueMessages));
+            }
+        } catch (Exception e) {
+            LOGGER.error("Queue message receiver thread exception [{}]", e);
+        }
+    }
+
+    private List<QueueMessage> receiveMessages() throws Exception {
+        if (config.isPrefetchingEnabled()) {
+            return prefetcher.take(messageBatchSize, PREFETCH_BUFFER_POLL_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        }
+        return eventQueue.receiveMessages();
+    }
+
+    private void prefetch() {
+        while (running) {
+            try {
+                prefetcher.prefetch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static BooleanSupplier connectionPoolSaturated(ManagedDataSource dataSource) {
+        if (dataSource instanceof ManagedPooledDataSource) {
+            ManagedPooledDataSource pool = (ManagedPooledDataSource) dataSource;
+            return () -> pool.getNumActive() >= pool.getMaxActive();
+        }
+        return () -> false;
+    }
+
+    private void dispatch(List<QueueMessage> queueMessages) {
+        List<EventMessage> messages = eventQueue.parseMessages(queueMessages);
+        EventMessageAcknowledgements acknowledgements = new EventMessageAcknowledgements(eventQueue, messages.size());
+        for (EventMessage message : messages) {
+            workerExecutor.execute(message.getId(), () -> eventMessageHandler.processMessage(message, acknowledgements));
+        }
+    }
+
+    private static RejectedExecutionHandler blockUntilQueued() {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Queue message worker has been shut down");
+            }
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for a queue message worker", e);
+            }
+        };
+    }
+
     @Override
     public void stop() {
+        running = false;
+        if (config.isPrefetchingEnabled()) {
+            prefetcherExecutorService.shutdownNow();
+        }
         scheduledExecutorService.shutdown();
+        if (config.isPipelineProcessingEnabled()) {
+            parserExecutorService.shutdown();
+            workerExecutor.shutdown();
+        }
     }
 }
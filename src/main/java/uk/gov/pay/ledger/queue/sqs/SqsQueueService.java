@@ -1,12 +1,16 @@
 package uk.gov.pay.ledger.queue.sqs;
 
-import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
 import com.amazonaws.services.sqs.AmazonSQS;
-import com.amazonaws.services.sqs.model.AmazonSQSException;
-import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
-import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.ledger.app.LedgerConfig;
@@ -14,25 +18,41 @@ import uk.gov.pay.ledger.queue.QueueException;
 import uk.gov.pay.ledger.queue.QueueMessage;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.codahale.metrics.MetricRegistry.name;
 
 public class SqsQueueService {
+    private static final int MAXIMUM_BATCH_ENTRIES = 10;
+    private static final int MAXIMUM_BATCH_ATTEMPTS = 3;
+    private static final long BATCH_RETRY_PAUSE_IN_MILLISECONDS = 100;
+
     private final Logger logger = LoggerFactory.getLogger(SqsQueueService.class);
 
     private AmazonSQS sqsClient;
 
     private final int messageMaximumWaitTimeInSeconds;
     private final int messageMaximumBatchSize;
+    private final Timer receiveTimer;
+    private final Timer deleteBatchTimer;
+    private final Timer deferBatchTimer;
 
     @Inject
-    public SqsQueueService(AmazonSQS sqsClient, LedgerConfig ledgerConfig) {
+    public SqsQueueService(AmazonSQS sqsClient, LedgerConfig ledgerConfig, MetricRegistry metricRegistry) {
         this.sqsClient = sqsClient;
         this.messageMaximumBatchSize = ledgerConfig.getSqsConfig().getMessageMaximumBatchSize();
         this.messageMaximumWaitTimeInSeconds = ledgerConfig.getSqsConfig().getMessageMaximumWaitTimeInSeconds();
+        this.receiveTimer = metricRegistry.timer(name(SqsQueueService.class, "receive-messages"));
+        this.deleteBatchTimer = metricRegistry.timer(name(SqsQueueService.class, "delete-message-batch"));
+        this.deferBatchTimer = metricRegistry.timer(name(SqsQueueService.class, "defer-message-batch"));
     }
 
     public List<QueueMessage> receiveMessages(String queueUrl, String messageAttributeName) throws QueueException {
-        try {
+        try (Timer.Context ignored = receiveTimer.time()) {
             ReceiveMessageRequest receiveMessageRequest = new ReceiveMessageRequest(queueUrl);
             receiveMessageRequest
                     .withMessageAttributeNames(messageAttributeName)
@@ -48,30 +68,92 @@ public class SqsQueueService {
         }
     }
 
-    public void deleteMessage(String queueUrl, String messageReceiptHandle) throws QueueException {
-        try {
-            sqsClient.deleteMessage(new DeleteMessageRequest(queueUrl, messageReceiptHandle));
-        } catch (AmazonSQSException | UnsupportedOperationException e) {
-            logger.error("Failed to delete message from SQS queue - {}", e.getMessage());
-            throw new QueueException("Failed to delete message from SQS queue", e);
-        } catch (AmazonServiceException e) {
-            logger.error("Failed to delete message from SQS queue - [errorMessage={}] [awsErrorCode={}]", e.getMessage(), e.getErrorCode());
-            throw new QueueException("Failed to delete message from SQS queue", e);
+    /**
+     * Deletes the messages using DeleteMessageBatch, retrying only the entries that failed
+     * because of a server side error.
+     *
+     * @return the receipt handles of the messages that could not be deleted
+     */
+    public List<String> deleteMessages(String queueUrl, List<String> messageReceiptHandles) throws QueueException {
+        return executeInBatches(messageReceiptHandles, "delete", deleteBatchTimer, receiptHandles -> {
+            List<DeleteMessageBatchRequestEntry> entries = IntStream.range(0, receiptHandles.size())
+                    .mapToObj(i -> new DeleteMessageBatchRequestEntry(String.valueOf(i), receiptHandles.get(i)))
+                    .collect(Collectors.toList());
+
+            return sqsClient.deleteMessageBatch(new DeleteMessageBatchRequest(queueUrl, entries)).getFailed();
+        });
+    }
+
+    /**
+     * Defers the messages using ChangeMessageVisibilityBatch, retrying only the entries that failed
+     * because of a server side error.
+     *
+     * @return the receipt handles of the messages that could not be deferred
+     */
+    public List<String> deferMessages(String queueUrl, List<String> messageReceiptHandles, int retryDelayInSeconds) throws QueueException {
+        return executeInBatches(messageReceiptHandles, "defer", deferBatchTimer, receiptHandles -> {
+            List<ChangeMessageVisibilityBatchRequestEntry> entries = IntStream.range(0, receiptHandles.size())
+                    .mapToObj(i -> new ChangeMessageVisibilityBatchRequestEntry(String.valueOf(i), receiptHandles.get(i))
+                            .withVisibilityTimeout(retryDelayInSeconds))
+                    .collect(Collectors.toList());
+
+            return sqsClient.changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest(queueUrl, entries)).getFailed();
+        });
+    }
+
+    private List<String> executeInBatches(List<String> messageReceiptHandles, String action, Timer batchTimer,
+                                          Function<List<String>, List<BatchResultErrorEntry>> batchRequest) throws QueueException {
+        List<String> failedReceiptHandles = new ArrayList<>();
+
+        for (int from = 0; from < messageReceiptHandles.size(); from += MAXIMUM_BATCH_ENTRIES) {
+            List<String> pending = messageReceiptHandles.subList(from, Math.min(from + MAXIMUM_BATCH_ENTRIES, messageReceiptHandles.size()));
+
+            for (int attempt = 1; attempt <= MAXIMUM_BATCH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+                if (attempt > 1 && !pauseBeforeRetry(attempt)) {
+                    break;
+                }
+                List<BatchResultErrorEntry> failedEntries;
+                try (Timer.Context ignored = batchTimer.time()) {
+                    failedEntries = batchRequest.apply(pending);
+                } catch (SdkClientException | UnsupportedOperationException e) {
+                    logger.error("Failed to {} messages from SQS queue - {}", action, e.getMessage());
+                    throw new QueueException(String.format("Failed to %s messages from SQS queue", action), e);
+                }
+
+                List<String> retryable = new ArrayList<>();
+                for (BatchResultErrorEntry failedEntry : failedEntries) {
+                    String receiptHandle = pending.get(Integer.parseInt(failedEntry.getId()));
+                    if (failedEntry.isSenderFault()) {
+                        logger.error("Failed to {} message from SQS queue - [awsErrorCode={}] [errorMessage={}]",
+                                action, failedEntry.getCode(), failedEntry.getMessage());
+                        failedReceiptHandles.add(receiptHandle);
+                    } else {
+                        retryable.add(receiptHandle);
+                    }
+                }
+                pending = retryable;
+            }
+
+            if (!pending.isEmpty()) {
+                logger.error("Failed to {} messages from SQS queue after {} attempts - [count={}]",
+                        action, MAXIMUM_BATCH_ATTEMPTS, pending.size());
+                failedReceiptHandles.addAll(pending);
+            }
         }
+
+        return failedReceiptHandles;
     }
 
-    public void deferMessage(String queueUrl, String messageReceiptHandle, int retryDelayInSeconds) throws QueueException {
+    /**
+     * Server side errors are often throttling, so each retry waits twice as long as the one before.
+     */
+    private boolean pauseBeforeRetry(int attempt) {
         try {
-            ChangeMessageVisibilityRequest changeMessageVisibilityRequest = new ChangeMessageVisibilityRequest(
-                    queueUrl,
-                    messageReceiptHandle,
-                    retryDelayInSeconds
-            );
-
-            sqsClient.changeMessageVisibility(changeMessageVisibilityRequest);
-        } catch (AmazonSQSException | UnsupportedOperationException e) {
-            logger.error("Failed to defer message from SQS queue - {}", e.getMessage());
-            throw new QueueException("Failed to defer message from SQS queue", e);
+            Thread.sleep(BATCH_RETRY_PAUSE_IN_MILLISECONDS << (attempt - 2));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 }
@@ -1,19 +1,29 @@
 package uk.gov.pay.ledger.transaction.dao;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.result.ResultIterator;
+import org.jdbi.v3.core.statement.PreparedBatch;
 import org.jdbi.v3.core.statement.Query;
+import uk.gov.pay.ledger.app.ReadReplicaRouter;
 import uk.gov.pay.ledger.transaction.dao.mapper.TransactionMapper;
 import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class TransactionDao {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private static final String FIND_TRANSACTION_BY_EXTERNAL_ID = "SELECT * FROM transaction " +
             "WHERE external_id = :externalId";
 
@@ -24,24 +34,44 @@ public class TransactionDao {
     private static final String SEARCH_QUERY_STRING = "SELECT * FROM transaction t " +
             "WHERE t.gateway_account_id = :account_id " +
             ":searchExtraFields " +
-            "ORDER BY t.created_date DESC OFFSET :offset LIMIT :limit";
+            "ORDER BY t.created_date DESC, t.id DESC OFFSET :offset LIMIT :limit";
+
+    private static final String SEARCH_BY_CURSOR_QUERY_STRING = "SELECT * FROM transaction t " +
+            "WHERE t.gateway_account_id = :account_id " +
+            ":searchExtraFields " +
+            ":seekCondition " +
+            "ORDER BY t.created_date DESC, t.id DESC LIMIT :limit";
+
+    private static final String EXPORT_QUERY_STRING = "SELECT * FROM transaction t " +
+            "WHERE t.gateway_account_id = :account_id " +
+            ":searchExtraFields " +
+            "ORDER BY t.created_date DESC, t.id DESC";
 
     private static final String SEARCH_COUNT_QUERY_STRING = "SELECT count(t.id) " +
             "FROM transaction t " +
             "WHERE t.gateway_account_id = :account_id " +
             ":searchExtraFields ";
 
-    private static final String UPSERT_STRING =
+    private static final String SEARCH_ESTIMATE_QUERY_STRING = "EXPLAIN (FORMAT JSON) SELECT t.id " +
+            "FROM transaction t " +
+            "WHERE t.gateway_account_id = :account_id " +
+            ":searchExtraFields ";
+
+    private static final String INSERT_OR_UPDATE_STRING =
             "INSERT INTO transaction(" +
                 "external_id,parent_external_id,gateway_account_id,amount,description,reference,state,email,cardholder_name," +
                 "external_metadata,created_date,transaction_details,event_count,card_brand, " +
-                "last_digits_card_number,first_digits_card_number,net_amount,total_amount,fee,type" +
+                "last_digits_card_number,first_digits_card_number,net_amount,total_amount,fee,type," +
+                "language,return_url,payment_provider,delayed_capture,gateway_transaction_id,corporate_surcharge," +
+                "address_line1,address_line2,address_postcode,address_city,address_county,address_country,card_expiry_date" +
             ") " +
             "VALUES (" +
                 ":externalId,:parentExternalId,:gatewayAccountId,:amount,:description,:reference,:state,:email,:cardholderName," +
                 "CAST(:externalMetadata as jsonb),:createdDate,CAST(:transactionDetails as jsonb), :eventCount," +
                 ":cardBrand,:lastDigitsCardNumber,:firstDigitsCardNumber,:netAmount,:totalAmount,:fee," +
-                ":transactionType::transaction_type" +
+                ":transactionType::transaction_type," +
+                ":language,:returnUrl,:paymentProvider,:delayedCapture,:gatewayTransactionId,:corporateSurcharge," +
+                ":addressLine1,:addressLine2,:addressPostcode,:addressCity,:addressCounty,:addressCountry,:cardExpiryDate" +
             ")" +
             "ON CONFLICT (external_id) " +
             "DO UPDATE SET " +
@@ -64,17 +94,84 @@ public class TransactionDao {
                 "net_amount = EXCLUDED.net_amount," +
                 "total_amount = EXCLUDED.total_amount," +
                 "fee = EXCLUDED.fee," +
-                "type = EXCLUDED.type " +
+                "type = EXCLUDED.type," +
+                "language = EXCLUDED.language," +
+                "return_url = EXCLUDED.return_url," +
+                "payment_provider = EXCLUDED.payment_provider," +
+                "delayed_capture = EXCLUDED.delayed_capture," +
+                "gateway_transaction_id = EXCLUDED.gateway_transaction_id," +
+                "corporate_surcharge = EXCLUDED.corporate_surcharge," +
+                "address_line1 = EXCLUDED.address_line1," +
+                "address_line2 = EXCLUDED.address_line2," +
+                "address_postcode = EXCLUDED.address_postcode," +
+                "address_city = EXCLUDED.address_city," +
+                "address_county = EXCLUDED.address_county," +
+                "address_country = EXCLUDED.address_country," +
+                "card_expiry_date = EXCLUDED.card_expiry_date ";
+
+    private static final String UPSERT_STRING = INSERT_OR_UPDATE_STRING +
             "WHERE EXCLUDED.event_count > transaction.event_count;";
 
+    private static final String OVERWRITE_STRING = INSERT_OR_UPDATE_STRING +
+            "WHERE EXCLUDED.event_count >= transaction.event_count;";
+
+    private static final String FIND_MAX_TRANSACTION_ID = "SELECT COALESCE(max(id), 0) FROM transaction";
+
+    private static final String BACKFILL_DETAILS_COLUMNS_STRING =
+            "UPDATE transaction SET " +
+                "language = COALESCE(language, transaction_details->>'language')," +
+                "return_url = COALESCE(return_url, transaction_details->>'return_url')," +
+                "payment_provider = COALESCE(payment_provider, transaction_details->>'payment_provider')," +
+                "delayed_capture = COALESCE(delayed_capture, (transaction_details->>'delayed_capture')::boolean)," +
+                "gateway_transaction_id = COALESCE(gateway_transaction_id, transaction_details->>'gateway_transaction_id')," +
+                "corporate_surcharge = COALESCE(corporate_surcharge, (transaction_details->>'corporate_surcharge')::bigint)," +
+                "address_line1 = COALESCE(address_line1, transaction_details->>'address_line1')," +
+                "address_line2 = COALESCE(address_line2, transaction_details->>'address_line2')," +
+                "address_postcode = COALESCE(address_postcode, transaction_details->>'address_postcode')," +
+                "address_city = COALESCE(address_city, transaction_details->>'address_city')," +
+                "address_county = COALESCE(address_county, transaction_details->>'address_county')," +
+                "address_country = COALESCE(address_country, transaction_details->>'address_country')," +
+                "card_expiry_date = COALESCE(card_expiry_date, transaction_details->>'expiry_date') " +
+            "WHERE id > :fromId AND id <= :toId " +
+            "AND transaction_details IS NOT NULL";
+
     private final Jdbi jdbi;
+    private final ReadReplicaRouter readReplicaRouter;
 
     @Inject
     public TransactionDao(Jdbi jdbi) {
-        this.jdbi = jdbi;
+        this(new ReadReplicaRouter(jdbi));
+    }
+
+    public TransactionDao(ReadReplicaRouter readReplicaRouter) {
+        this.jdbi = readReplicaRouter.primary();
+        this.readReplicaRouter = readReplicaRouter;
     }
 
+    /**
+     * Reads from the read replica when it is in use, falling back to the primary database when the transaction
+     * has not been replicated yet.
+     */
     public Optional<TransactionEntity> findTransactionByExternalIdAndGatewayAccountId(String externalId, String gatewayAccountId) {
+        Jdbi readJdbi = readReplicaRouter.forReads();
+        Optional<TransactionEntity> transaction = findTransactionByExternalIdAndGatewayAccountId(readJdbi, externalId, gatewayAccountId);
+        if (transaction.isEmpty() && readJdbi != jdbi) {
+            return findTransactionByExternalIdAndGatewayAccountId(jdbi, externalId, gatewayAccountId);
+        }
+        return transaction;
+    }
+
+    /**
+     * Reads from the primary database only. Results that are cached must be used with this, because a lagging replica
+     * could return an older row than the one just written and it would be cached for another TTL.
+     */
+    public Optional<TransactionEntity> findTransactionByExternalIdAndGatewayAccountIdFromPrimary(String externalId,
+                                                                                               String gatewayAccountId) {
+        return findTransactionByExternalIdAndGatewayAccountId(jdbi, externalId, gatewayAccountId);
+    }
+
+    private static Optional<TransactionEntity> findTransactionByExternalIdAndGatewayAccountId(Jdbi jdbi, String externalId,
+                                                                                            String gatewayAccountId) {
         return jdbi.withHandle(handle ->
                 handle.createQuery(FIND_TRANSACTION_BY_EXTERNAL_ID_AND_GATEWAY_ACCOUNT_ID)
                         .bind("externalId", externalId)
@@ -92,16 +189,36 @@ public class TransactionDao {
     }
 
     public List<TransactionEntity> searchTransactions(TransactionSearchParams searchParams) {
-        return jdbi.withHandle(handle -> {
-            Query query = getQuery(searchParams, handle, SEARCH_QUERY_STRING);
+        return readReplicaRouter.forReads().withHandle(handle -> {
+            Query query = getQuery(searchParams, handle, searchQueryString(searchParams));
             return query
                     .map(new TransactionMapper())
                     .list();
         });
     }
 
+    /**
+     * Streams the transactions through a server side cursor, fetchSize rows at a time. Each fetch may run for at most
+     * timeoutInSeconds, and the transaction is ended by the database if the consumer takes longer than that between
+     * fetches, so a slow client cannot hold the connection indefinitely.
+     */
+    public void streamTransactions(TransactionSearchParams searchParams, int fetchSize, int timeoutInSeconds,
+                                   Consumer<TransactionEntity> consumer) {
+        readReplicaRouter.forReads().useTransaction(handle -> {
+            long timeoutInMilliseconds = TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+            handle.execute("SET LOCAL statement_timeout = " + timeoutInMilliseconds);
+            handle.execute("SET LOCAL idle_in_transaction_session_timeout = " + timeoutInMilliseconds);
+            Query query = getQuery(searchParams, handle, EXPORT_QUERY_STRING)
+                    .setFetchSize(fetchSize);
+
+            try (ResultIterator<TransactionEntity> transactions = query.map(new TransactionMapper()).iterator()) {
+                transactions.forEachRemaining(consumer);
+            }
+        });
+    }
+
     public Long getTotalForSearch(TransactionSearchParams searchParams) {
-        return jdbi.withHandle(handle -> {
+        return readReplicaRouter.forReads().withHandle(handle -> {
             Query query = getQuery(searchParams, handle, SEARCH_COUNT_QUERY_STRING);
             return query
                     .mapTo(Long.class)
@@ -109,6 +226,23 @@ public class TransactionDao {
         });
     }
 
+    public Long getEstimatedTotalForSearch(TransactionSearchParams searchParams) {
+        String plan = readReplicaRouter.forReads().withHandle(handle -> getQuery(searchParams, handle, SEARCH_ESTIMATE_QUERY_STRING)
+                .mapTo(String.class)
+                .findOnly());
+        try {
+            return OBJECT_MAPPER.readTree(plan).get(0).get("Plan").get("Plan Rows").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read query plan for transaction search estimate", e);
+        }
+    }
+
+    private String searchQueryString(TransactionSearchParams searchParams) {
+        return searchParams.isCursorPagination() ?
+                SEARCH_BY_CURSOR_QUERY_STRING.replace(":seekCondition", searchParams.generateSeekCondition()) :
+                SEARCH_QUERY_STRING;
+    }
+
     private Query getQuery(TransactionSearchParams searchParams, Handle handle, String searchCountQueryString) {
         String searchExtraFields = searchParams.generateQuery();
         Query query = handle.createQuery(searchCountQueryString.replace(":searchExtraFields", searchExtraFields));
@@ -132,4 +266,43 @@ public class TransactionDao {
                 .bindBean(transaction)
                 .execute());
     }
+
+    public void upsert(List<TransactionEntity> transactions) {
+        executeBatch(UPSERT_STRING, transactions);
+    }
+
+    /**
+     * Like upsert, but also replaces transactions built from the same number of events,
+     * so a projection rebuilt from the event table overwrites the existing one.
+     */
+    public void overwrite(List<TransactionEntity> transactions) {
+        executeBatch(OVERWRITE_STRING, transactions);
+    }
+
+    public Long findMaxTransactionId() {
+        return jdbi.withHandle(handle ->
+                handle.createQuery(FIND_MAX_TRANSACTION_ID)
+                        .mapTo(Long.class)
+                        .findOnly());
+    }
+
+    /**
+     * Copies the fields promoted out of transaction_details into their own columns
+     * for transactions with an id in (fromId, toId], without replacing values already set.
+     */
+    public int backfillDetailsColumns(long fromId, long toId) {
+        return jdbi.withHandle(handle ->
+                handle.createUpdate(BACKFILL_DETAILS_COLUMNS_STRING)
+                        .bind("fromId", fromId)
+                        .bind("toId", toId)
+                        .execute());
+    }
+
+    private void executeBatch(String sql, List<TransactionEntity> transactions) {
+        jdbi.useTransaction(handle -> {
+            PreparedBatch batch = handle.prepareBatch(sql);
+            transactions.forEach(transaction -> batch.bindBean(transaction).add());
+            batch.execute();
+        });
+    }
 }
@@ -9,46 +9,161 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.Optional;
 
+/**
+ * Maps transaction rows by column index. Jdbi calls {@link #specialize} once per result set,
+ * so the column labels are only resolved once rather than for every row.
+ */
 public class TransactionMapper implements RowMapper<TransactionEntity> {
 
+    private final Columns columns;
+
+    public TransactionMapper() {
+        this(null);
+    }
+
+    private TransactionMapper(Columns columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public RowMapper<TransactionEntity> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        return new TransactionMapper(new Columns(rs));
+    }
+
     @Override
     public TransactionEntity map(ResultSet rs, StatementContext ctx) throws SQLException {
+        Columns c = columns != null ? columns : new Columns(rs);
+
         return new TransactionEntity.Builder()
-                .withId(rs.getLong("id"))
-                .withGatewayAccountId(rs.getString("gateway_account_id"))
-                .withExternalId(rs.getString("external_id"))
-                .withParentExternalId(rs.getString("parent_external_id"))
-                .withAmount(rs.getLong("amount"))
-                .withReference(rs.getString("reference"))
-                .withDescription(rs.getString("description"))
-                .withState(rs.getString("state"))
-                .withEmail(rs.getString("email"))
-                .withCardholderName(rs.getString("cardholder_name"))
-                .withExternalMetadata(rs.getString("external_metadata"))
-                .withCreatedDate(getZonedDateTime(rs, "created_date").orElse(null))
-                .withTransactionDetails(rs.getString("transaction_details"))
-                .withEventCount(rs.getInt("event_count"))
-                .withCardBrand(rs.getString("card_brand"))
-                .withLastDigitsCardNumber(rs.getString("last_digits_card_number"))
-                .withFirstDigitsCardNumber(rs.getString("first_digits_card_number"))
-                .withNetAmount(rs.getLong("net_amount"))
-                .withTotalAmount(rs.getLong("total_amount"))
-                .withSettlementSubmittedTime(getZonedDateTime(rs, "settlement_submitted_time").orElse(null))
-                .withSettledTime(getZonedDateTime(rs, "settled_time").orElse(null))
-                .withRefundStatus(rs.getString("refund_status"))
-                .withRefundAmountSubmitted(rs.getLong("refund_amount_submitted"))
-                .withRefundAmountAvailable(rs.getLong("refund_amount_available"))
-                .withFee(rs.getLong("fee"))
-                .withTransactionType(rs.getString("type"))
+                .withId(rs.getLong(c.id))
+                .withGatewayAccountId(rs.getString(c.gatewayAccountId))
+                .withExternalId(rs.getString(c.externalId))
+                .withParentExternalId(rs.getString(c.parentExternalId))
+                .withAmount(rs.getLong(c.amount))
+                .withReference(rs.getString(c.reference))
+                .withDescription(rs.getString(c.description))
+                .withState(rs.getString(c.state))
+                .withEmail(rs.getString(c.email))
+                .withCardholderName(rs.getString(c.cardholderName))
+                .withExternalMetadata(rs.getString(c.externalMetadata))
+                .withCreatedDate(getZonedDateTime(rs, c.createdDate))
+                .withTransactionDetails(rs.getString(c.transactionDetails))
+                .withEventCount(rs.getInt(c.eventCount))
+                .withCardBrand(rs.getString(c.cardBrand))
+                .withLastDigitsCardNumber(rs.getString(c.lastDigitsCardNumber))
+                .withFirstDigitsCardNumber(rs.getString(c.firstDigitsCardNumber))
+                .withNetAmount(rs.getLong(c.netAmount))
+                .withTotalAmount(rs.getLong(c.totalAmount))
+                .withSettlementSubmittedTime(getZonedDateTime(rs, c.settlementSubmittedTime))
+                .withSettledTime(getZonedDateTime(rs, c.settledTime))
+                .withRefundStatus(rs.getString(c.refundStatus))
+                .withRefundAmountSubmitted(rs.getLong(c.refundAmountSubmitted))
+                .withRefundAmountAvailable(rs.getLong(c.refundAmountAvailable))
+                .withFee(rs.getLong(c.fee))
+                .withTransactionType(rs.getString(c.type))
+                .withLanguage(rs.getString(c.language))
+                .withReturnUrl(rs.getString(c.returnUrl))
+                .withPaymentProvider(rs.getString(c.paymentProvider))
+                .withDelayedCapture(rs.getObject(c.delayedCapture, Boolean.class))
+                .withGatewayTransactionId(rs.getString(c.gatewayTransactionId))
+                .withCorporateSurcharge(rs.getObject(c.corporateSurcharge, Long.class))
+                .withAddressLine1(rs.getString(c.addressLine1))
+                .withAddressLine2(rs.getString(c.addressLine2))
+                .withAddressPostcode(rs.getString(c.addressPostcode))
+                .withAddressCity(rs.getString(c.addressCity))
+                .withAddressCounty(rs.getString(c.addressCounty))
+                .withAddressCountry(rs.getString(c.addressCountry))
+                .withCardExpiryDate(rs.getString(c.cardExpiryDate))
                 .build();
     }
 
-    private Optional<ZonedDateTime> getZonedDateTime(ResultSet rs, String columnLabel) throws SQLException {
-        Timestamp timestamp = rs.getTimestamp(columnLabel);
+    private static ZonedDateTime getZonedDateTime(ResultSet rs, int columnIndex) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(columnIndex);
+        return timestamp == null ? null : ZonedDateTime.ofInstant(timestamp.toInstant(), ZoneOffset.UTC);
+    }
+
+    private static class Columns {
+        private final int id;
+        private final int gatewayAccountId;
+        private final int externalId;
+        private final int parentExternalId;
+        private final int amount;
+        private final int reference;
+        private final int description;
+        private final int state;
+        private final int email;
+        private final int cardholderName;
+        private final int externalMetadata;
+        private final int createdDate;
+        private final int transactionDetails;
+        private final int eventCount;
+        private final int cardBrand;
+        private final int lastDigitsCardNumber;
+        private final int firstDigitsCardNumber;
+        private final int netAmount;
+        private final int totalAmount;
+        private final int settlementSubmittedTime;
+        private final int settledTime;
+        private final int refundStatus;
+        private final int refundAmountSubmitted;
+        private final int refundAmountAvailable;
+        private final int fee;
+        private final int type;
+        private final int language;
+        private final int returnUrl;
+        private final int paymentProvider;
+        private final int delayedCapture;
+        private final int gatewayTransactionId;
+        private final int corporateSurcharge;
+        private final int addressLine1;
+        private final int addressLine2;
+        private final int addressPostcode;
+        private final int addressCity;
+        private final int addressCounty;
+        private final int addressCountry;
+        private final int cardExpiryDate;
 
-        return Optional.ofNullable(timestamp)
-                .map(t -> ZonedDateTime.ofInstant(t.toInstant(), ZoneOffset.UTC));
+        private Columns(ResultSet rs) throws SQLException {
+            id = rs.findColumn("id");
+            gatewayAccountId = rs.findColumn("gateway_account_id");
+            externalId = rs.findColumn("external_id");
+            parentExternalId = rs.findColumn("parent_external_id");
+            amount = rs.findColumn("amount");
+            reference = rs.findColumn("reference");
+            description = rs.findColumn("description");
+            state = rs.findColumn("state");
+            email = rs.findColumn("email");
+            cardholderName = rs.findColumn("cardholder_name");
+            externalMetadata = rs.findColumn("external_metadata");
+            createdDate = rs.findColumn("created_date");
+            transactionDetails = rs.findColumn("transaction_details");
+            eventCount = rs.findColumn("event_count");
+            cardBrand = rs.findColumn("card_brand");
+            lastDigitsCardNumber = rs.findColumn("last_digits_card_number");
+            firstDigitsCardNumber = rs.findColumn("first_digits_card_number");
+            netAmount = rs.findColumn("net_amount");
+            totalAmount = rs.findColumn("total_amount");
+            settlementSubmittedTime = rs.findColumn("settlement_submitted_time");
+            settledTime = rs.findColumn("settled_time");
+            refundStatus = rs.findColumn("refund_status");
+            refundAmountSubmitted = rs.findColumn("refund_amount_submitted");
+            refundAmountAvailable = rs.findColumn("refund_amount_available");
+            fee = rs.findColumn("fee");
+            type = rs.findColumn("type");
+            language = rs.findColumn("language");
+            returnUrl = rs.findColumn("return_url");
+            paymentProvider = rs.findColumn("payment_provider");
+            delayedCapture = rs.findColumn("delayed_capture");
+            gatewayTransactionId = rs.findColumn("gateway_transaction_id");
+            corporateSurcharge = rs.findColumn("corporate_surcharge");
+            addressLine1 = rs.findColumn("address_line1");
+            addressLine2 = rs.findColumn("address_line2");
+            addressPostcode = rs.findColumn("address_postcode");
+            addressCity = rs.findColumn("address_city");
+            addressCounty = rs.findColumn("address_county");
+            addressCountry = rs.findColumn("address_country");
+            cardExpiryDate = rs.findColumn("card_expiry_date");
+        }
     }
 }
@@ -52,6 +52,32 @@ public class TransactionEntity {
     private String refundStatus;
     private Long refundAmountSubmitted;
     private Long refundAmountAvailable;
+    @JsonProperty("language")
+    private String language;
+    @JsonProperty("return_url")
+    private String returnUrl;
+    @JsonProperty("payment_provider")
+    private String paymentProvider;
+    @JsonProperty("delayed_capture")
+    private Boolean delayedCapture;
+    @JsonProperty("gateway_transaction_id")
+    private String gatewayTransactionId;
+    @JsonProperty("corporate_surcharge")
+    private Long corporateSurcharge;
+    @JsonProperty("address_line1")
+    private String addressLine1;
+    @JsonProperty("address_line2")
+    private String addressLine2;
+    @JsonProperty("address_postcode")
+    private String addressPostcode;
+    @JsonProperty("address_city")
+    private String addressCity;
+    @JsonProperty("address_county")
+    private String addressCounty;
+    @JsonProperty("address_country")
+    private String addressCountry;
+    @JsonProperty("expiry_date")
+    private String cardExpiryDate;
 
     public TransactionEntity() {
     }
@@ -83,6 +109,19 @@ public class TransactionEntity {
         this.refundAmountAvailable = builder.refundAmountAvailable;
         this.fee = builder.fee;
         this.transactionType = builder.transactionType;
+        this.language = builder.language;
+        this.returnUrl = builder.returnUrl;
+        this.paymentProvider = builder.paymentProvider;
+        this.delayedCapture = builder.delayedCapture;
+        this.gatewayTransactionId = builder.gatewayTransactionId;
+        this.corporateSurcharge = builder.corporateSurcharge;
+        this.addressLine1 = builder.addressLine1;
+        this.addressLine2 = builder.addressLine2;
+        this.addressPostcode = builder.addressPostcode;
+        this.addressCity = builder.addressCity;
+        this.addressCounty = builder.addressCounty;
+        this.addressCountry = builder.addressCountry;
+        this.cardExpiryDate = builder.cardExpiryDate;
     }
 
     public Long getId() {
@@ -217,6 +256,58 @@ public class TransactionEntity {
         return transactionType;
     }
 
+    public String getLanguage() {
+        return language;
+    }
+
+    public String getReturnUrl() {
+        return returnUrl;
+    }
+
+    public String getPaymentProvider() {
+        return paymentProvider;
+    }
+
+    public Boolean getDelayedCapture() {
+        return delayedCapture;
+    }
+
+    public String getGatewayTransactionId() {
+        return gatewayTransactionId;
+    }
+
+    public Long getCorporateSurcharge() {
+        return corporateSurcharge;
+    }
+
+    public String getAddressLine1() {
+        return addressLine1;
+    }
+
+    public String getAddressLine2() {
+        return addressLine2;
+    }
+
+    public String getAddressPostcode() {
+        return addressPostcode;
+    }
+
+    public String getAddressCity() {
+        return addressCity;
+    }
+
+    public String getAddressCounty() {
+        return addressCounty;
+    }
+
+    public String getAddressCountry() {
+        return addressCountry;
+    }
+
+    public String getCardExpiryDate() {
+        return cardExpiryDate;
+    }
+
     public static class Builder {
         public Long fee;
         private Long id;
@@ -244,6 +335,19 @@ public class TransactionEntity {
         private Long refundAmountSubmitted;
         private Long refundAmountAvailable;
         private String transactionType;
+        private String language;
+        private String returnUrl;
+        private String paymentProvider;
+        private Boolean delayedCapture;
+        private String gatewayTransactionId;
+        private Long corporateSurcharge;
+        private String addressLine1;
+        private String addressLine2;
+        private String addressPostcode;
+        private String addressCity;
+        private String addressCounty;
+        private String addressCountry;
+        private String cardExpiryDate;
 
         public Builder() {
         }
@@ -381,5 +485,70 @@ public class TransactionEntity {
             this.transactionType = transactionType;
             return this;
         }
+
+        public Builder withLanguage(String language) {
+            this.language = language;
+            return this;
+        }
+
+        public Builder withReturnUrl(String returnUrl) {
+            this.returnUrl = returnUrl;
+            return this;
+        }
+
+        public Builder withPaymentProvider(String paymentProvider) {
+            this.paymentProvider = paymentProvider;
+            return this;
+        }
+
+        public Builder withDelayedCapture(Boolean delayedCapture) {
+            this.delayedCapture = delayedCapture;
+            return this;
+        }
+
+        public Builder withGatewayTransactionId(String gatewayTransactionId) {
+            this.gatewayTransactionId = gatewayTransactionId;
+            return this;
+        }
+
+        public Builder withCorporateSurcharge(Long corporateSurcharge) {
+            this.corporateSurcharge = corporateSurcharge;
+            return this;
+        }
+
+        public Builder withAddressLine1(String addressLine1) {
+            this.addressLine1 = addressLine1;
+            return this;
+        }
+
+        public Builder withAddressLine2(String addressLine2) {
+            this.addressLine2 = addressLine2;
+            return this;
+        }
+
+        public Builder withAddressPostcode(String addressPostcode) {
+            this.addressPostcode = addressPostcode;
+            return this;
+        }
+
+        public Builder withAddressCity(String addressCity) {
+            this.addressCity = addressCity;
+            return this;
+        }
+
+        public Builder withAddressCounty(String addressCounty) {
+            this.addressCounty = addressCounty;
+            return this;
+        }
+
+        public Builder withAddressCountry(String addressCountry) {
+            this.addressCountry = addressCountry;
+            return this;
+        }
+
+        public Builder withCardExpiryDate(String cardExpiryDate) {
+            this.cardExpiryDate = cardExpiryDate;
+            return this;
+        }
     }
 }
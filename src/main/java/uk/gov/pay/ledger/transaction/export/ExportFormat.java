@@ -0,0 +1,31 @@
+package uk.gov.pay.ledger.transaction.export;
+
+import uk.gov.pay.ledger.exception.ValidationException;
+
+import static java.util.Arrays.stream;
+
+public enum ExportFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String value;
+    private final String mediaType;
+
+    ExportFormat(String value, String mediaType) {
+        this.value = value;
+        this.mediaType = mediaType;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat from(String format) {
+        return stream(values()).filter(v -> v.value.equalsIgnoreCase(format)).findFirst()
+                .orElseThrow(() -> new ValidationException(String.format("Unsupported export format [%s]", format)));
+    }
+}
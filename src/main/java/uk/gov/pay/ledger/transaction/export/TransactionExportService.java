@@ -0,0 +1,169 @@
+package uk.gov.pay.ledger.transaction.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.dropwizard.setup.Environment;
+import uk.gov.pay.ledger.app.LedgerConfig;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.model.CardDetails;
+import uk.gov.pay.ledger.transaction.model.PaymentFactory;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
+import uk.gov.pay.ledger.transaction.search.model.TransactionView;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import static uk.gov.pay.commons.model.ApiResponseDateTimeFormatter.ISO_INSTANT_MILLISECOND_PRECISION;
+
+/**
+ * Writes every transaction matching a search to a stream, one row at a time, as rows are fetched from a
+ * database cursor. Pagination parameters of the search are ignored. Each export holds a database connection
+ * while it runs, so only a limited number of exports may run at once.
+ */
+@Singleton
+public class TransactionExportService {
+
+    private static final List<String> CSV_HEADERS = List.of("transaction_id", "gateway_account_id", "reference",
+            "description", "state", "amount", "fee", "net_amount", "total_amount", "email", "cardholder_name",
+            "card_brand", "first_digits_card_number", "last_digits_card_number", "created_date");
+
+    private final TransactionDao transactionDao;
+    private final PaymentFactory paymentFactory;
+    private final ObjectWriter objectWriter;
+    private final int fetchSize;
+    private final int timeoutInSeconds;
+    private final Semaphore exports;
+
+    @Inject
+    public TransactionExportService(TransactionDao transactionDao, PaymentFactory paymentFactory,
+                                    Environment environment, LedgerConfig configuration) {
+        this.transactionDao = transactionDao;
+        this.paymentFactory = paymentFactory;
+        this.objectWriter = environment.getObjectMapper()
+                .writerFor(TransactionView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = configuration.getTransactionSearchConfig().getExportFetchSize();
+        this.timeoutInSeconds = configuration.getTransactionSearchConfig().getExportTimeoutInSeconds();
+        this.exports = new Semaphore(configuration.getTransactionSearchConfig().getMaximumConcurrentExports());
+    }
+
+    /**
+     * Reserves an export, returning the output that writes it and then frees the reservation. Empty when the
+     * maximum number of exports is already running.
+     */
+    public Optional<StreamingOutput> reserveExport(TransactionSearchParams searchParams, ExportFormat format) {
+        if (!exports.tryAcquire()) {
+            return Optional.empty();
+        }
+        return Optional.of(output -> {
+            try {
+                export(searchParams, format, output);
+            } finally {
+                exports.release();
+            }
+        });
+    }
+
+    public void export(TransactionSearchParams searchParams, ExportFormat format, OutputStream output) throws IOException {
+        try {
+            if (format == ExportFormat.CSV) {
+                exportCsv(searchParams, output);
+            } else {
+                exportNdjson(searchParams, output);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportNdjson(TransactionSearchParams searchParams, OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectWriter.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            transactionDao.streamTransactions(searchParams, fetchSize, timeoutInSeconds, entity -> {
+                try {
+                    objectWriter.writeValue(generator, toView(entity));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void exportCsv(TransactionSearchParams searchParams, OutputStream output) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            writeCsvRow(writer, CSV_HEADERS);
+            transactionDao.streamTransactions(searchParams, fetchSize, timeoutInSeconds, entity -> {
+                try {
+                    writeCsvRow(writer, toCsvRow(toView(entity)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private TransactionView toView(TransactionEntity entity) {
+        return TransactionView.from(paymentFactory.createTransactionEntity(entity));
+    }
+
+    private static List<String> toCsvRow(TransactionView view) {
+        Optional<CardDetails> cardDetails = Optional.ofNullable(view.getCardDetails());
+        return List.of(
+                value(view.getExternalId()),
+                value(view.getGatewayAccountId()),
+                value(view.getReference()),
+                value(view.getDescription()),
+                view.getState() == null ? "" : view.getState().getState(),
+                value(view.getAmount()),
+                value(view.getFee()),
+                value(view.getNetAmount()),
+                value(view.getTotalAmount()),
+                value(view.getEmail()),
+                cardDetailsValue(cardDetails, CardDetails::getCardHolderName),
+                cardDetailsValue(cardDetails, CardDetails::getCardBrand),
+                cardDetailsValue(cardDetails, CardDetails::getFirstDigitsCardNumber),
+                cardDetailsValue(cardDetails, CardDetails::getLastDigitsCardNumber),
+                view.getCreatedDate() == null ? "" : ISO_INSTANT_MILLISECOND_PRECISION.format(view.getCreatedDate())
+        );
+    }
+
+    private static String cardDetailsValue(Optional<CardDetails> cardDetails, Function<CardDetails, String> getter) {
+        return cardDetails.map(getter).orElse("");
+    }
+
+    private static String value(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
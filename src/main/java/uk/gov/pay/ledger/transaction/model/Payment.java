@@ -2,21 +2,29 @@ package uk.gov.pay.ledger.transaction.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.gov.pay.commons.api.json.ApiResponseDateTimeSerializer;
 import uk.gov.pay.ledger.transaction.search.model.RefundSummary;
 import uk.gov.pay.ledger.transaction.search.model.SettlementSummary;
 import uk.gov.pay.ledger.transaction.state.TransactionState;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.Map;
 
 @JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
 public class Payment extends Transaction{
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Payment.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private String reference;
     private String description;
     @JsonSerialize(using = ToStringSerializer.class)
@@ -29,7 +37,8 @@ public class Payment extends Transaction{
     private ZonedDateTime createdDate;
     private CardDetails cardDetails;
     private Boolean delayedCapture;
-    private Map<String, Object> externalMetaData;
+    private String externalMetadata;
+    private Map<String, Object> parsedExternalMetadata;
     @JsonIgnore
     private Integer eventCount;
     private String gatewayTransactionId;
@@ -48,7 +57,7 @@ public class Payment extends Transaction{
                    String reference, String description, TransactionState state,
                    String language, String externalId, String returnUrl,
                    String email, String paymentProvider, ZonedDateTime createdDate,
-                   CardDetails cardDetails, Boolean delayedCapture, Map<String, Object> externalMetaData,
+                   CardDetails cardDetails, Boolean delayedCapture, String externalMetadata,
                    Integer eventCount, String gatewayTransactionId, Long corporateCardSurcharge, Long fee,
                    Long netAmount, Long totalAmount, RefundSummary refundSummary, SettlementSummary settlementSummary) {
         super(id, gatewayAccountId, amount, externalId);
@@ -72,7 +81,7 @@ public class Payment extends Transaction{
         this.createdDate = createdDate;
         this.cardDetails = cardDetails;
         this.delayedCapture = delayedCapture;
-        this.externalMetaData = externalMetaData;
+        this.externalMetadata = externalMetadata;
         this.eventCount = eventCount;
         this.gatewayTransactionId = gatewayTransactionId;
     }
@@ -81,12 +90,12 @@ public class Payment extends Transaction{
                    String reference, String description, TransactionState state,
                    String language, String externalId, String returnUrl,
                    String email, String paymentProvider, ZonedDateTime createdDate,
-                   CardDetails cardDetails, Boolean delayedCapture, Map<String, Object> externalMetaData,
+                   CardDetails cardDetails, Boolean delayedCapture, String externalMetadata,
                    Integer eventCount, String gatewayTransactionId, Long corporateCardSurcharge, Long fee,
                    Long netAmount, RefundSummary refundSummary, Long totalAmount, SettlementSummary settlementSummary) {
 
         this(null, gatewayAccountId, amount, reference, description, state, language, externalId, returnUrl, email,
-                paymentProvider, createdDate, cardDetails, delayedCapture, externalMetaData, eventCount,
+                paymentProvider, createdDate, cardDetails, delayedCapture, externalMetadata, eventCount,
                 gatewayTransactionId, corporateCardSurcharge, fee, netAmount, totalAmount, refundSummary, settlementSummary);
     }
 
@@ -137,7 +146,19 @@ public class Payment extends Transaction{
     }
 
     public Map<String, Object> getExternalMetadata() {
-        return externalMetaData;
+        if (parsedExternalMetadata == null && externalMetadata != null) {
+            try {
+                parsedExternalMetadata = OBJECT_MAPPER.readValue(externalMetadata, new TypeReference<Map<String, Object>>() {});
+            } catch (IOException e) {
+                LOGGER.error("Error during the parsing external metadata [{}] [errorMessage={}]", externalId, e.getMessage());
+            }
+        }
+        return parsedExternalMetadata;
+    }
+
+    @JsonIgnore
+    public String getRawExternalMetadata() {
+        return externalMetadata;
     }
 
     public Integer getEventCount() {
@@ -171,4 +192,4 @@ public class Payment extends Transaction{
     public SettlementSummary getSettlementSummary() {
         return settlementSummary;
     }
-}
\ No newline at end of file
+}
@@ -1,89 +1,39 @@
 package uk.gov.pay.ledger.transaction.model;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.inject.Inject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 import uk.gov.pay.ledger.transaction.search.model.RefundSummary;
 import uk.gov.pay.ledger.transaction.search.model.SettlementSummary;
 import uk.gov.pay.ledger.transaction.state.TransactionState;
 
-import java.io.IOException;
-import java.util.Map;
-import java.util.Optional;
-
 public class PaymentFactory {
 
-    private static Logger LOGGER = LoggerFactory.getLogger(PaymentFactory.class);
-    private ObjectMapper objectMapper;
-
-    @Inject
-    public PaymentFactory(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
-
     public Payment createTransactionEntity(TransactionEntity entity) {
-        try {
-            JsonNode transactionDetails = objectMapper.readTree(Optional.ofNullable(entity.getTransactionDetails()).orElse("{}"));
-            Address billingAddress = Address.from(
-                    safeGetAsString(transactionDetails, "address_line1"),
-                    safeGetAsString(transactionDetails, "address_line2"),
-                    safeGetAsString(transactionDetails, "address_postcode"),
-                    safeGetAsString(transactionDetails, "address_city"),
-                    safeGetAsString(transactionDetails, "address_county"),
-                    safeGetAsString(transactionDetails, "address_country")
-            );
-
-            CardDetails cardDetails = CardDetails.from(entity.getCardholderName(), billingAddress, entity.getCardBrand(),
-                    entity.getLastDigitsCardNumber(), entity.getFirstDigitsCardNumber(),
-                    safeGetAsString(transactionDetails, "card_expiry_date"));
-
-            Map<String, Object> metadata = null;
-            if(entity.getExternalMetadata() != null) {
-                metadata = objectMapper.readValue(entity.getExternalMetadata(), new TypeReference<Map<String, Object>>() {});
-            }
-
-            RefundSummary refundSummary = RefundSummary.from(entity);
-            SettlementSummary settlementSummary = new SettlementSummary(entity.getSettlementSubmittedTime(), entity.getSettledTime());
-
-            return new Payment(entity.getGatewayAccountId(), entity.getAmount(), entity.getReference(), entity.getDescription(),
-                    TransactionState.from(entity.getState()), safeGetAsString(transactionDetails, "language"),
-                    entity.getExternalId(), safeGetAsString(transactionDetails, "return_url"), entity.getEmail(),
-                    safeGetAsString(transactionDetails, "payment_provider"), entity.getCreatedDate(),
-                    cardDetails, safeGetAsBoolean(transactionDetails, "delayed_capture", false), metadata,
-                    entity.getEventCount(), safeGetAsString(transactionDetails, "gateway_transaction_id"),
-                    safeGetAsLong(transactionDetails, "corporate_surcharge"), entity.getFee(),
-                    entity.getNetAmount(), refundSummary, entity.getTotalAmount(), settlementSummary);
-        } catch (IOException e) {
-            LOGGER.error("Error during the parsing transaction entity data [{}] [errorMessage={}]", entity.getExternalId(), e.getMessage());
-        }
-
-        return null;
-    }
-
-    private static Long safeGetAsLong(JsonNode object, String propertyName) {
-        return safeGetJsonElement(object, propertyName)
-                .map(JsonNode::longValue)
-                .orElse(null);
-    }
-
-    private static Boolean safeGetAsBoolean(JsonNode object, String propertyName, Boolean defaultValue) {
-        return safeGetJsonElement(object, propertyName)
-                .map(JsonNode::booleanValue)
-                .orElse(defaultValue);
-    }
-
-    private static String safeGetAsString(JsonNode object, String propertyName) {
-        return safeGetJsonElement(object, propertyName)
-                .map(JsonNode::textValue)
-                .orElse(null);
-    }
-
-    private static Optional<JsonNode> safeGetJsonElement(JsonNode object, String propertyName) {
-        return Optional.ofNullable(object.get(propertyName))
-                .filter(p -> p != null);
+        TransactionDetailsFallback details = new TransactionDetailsFallback(entity);
+
+        Address billingAddress = Address.from(
+                details.getString(entity.getAddressLine1(), "address_line1"),
+                details.getString(entity.getAddressLine2(), "address_line2"),
+                details.getString(entity.getAddressPostcode(), "address_postcode"),
+                details.getString(entity.getAddressCity(), "address_city"),
+                details.getString(entity.getAddressCounty(), "address_county"),
+                details.getString(entity.getAddressCountry(), "address_country")
+        );
+
+        CardDetails cardDetails = CardDetails.from(entity.getCardholderName(), billingAddress, entity.getCardBrand(),
+                entity.getLastDigitsCardNumber(), entity.getFirstDigitsCardNumber(),
+                details.getString(entity.getCardExpiryDate(), "expiry_date"));
+
+        RefundSummary refundSummary = RefundSummary.from(entity);
+        SettlementSummary settlementSummary = new SettlementSummary(entity.getSettlementSubmittedTime(), entity.getSettledTime());
+        Boolean delayedCapture = details.getBoolean(entity.getDelayedCapture(), "delayed_capture");
+
+        return new Payment(entity.getGatewayAccountId(), entity.getAmount(), entity.getReference(), entity.getDescription(),
+                TransactionState.from(entity.getState()), details.getString(entity.getLanguage(), "language"),
+                entity.getExternalId(), details.getString(entity.getReturnUrl(), "return_url"), entity.getEmail(),
+                details.getString(entity.getPaymentProvider(), "payment_provider"), entity.getCreatedDate(),
+                cardDetails, delayedCapture != null && delayedCapture, entity.getExternalMetadata(),
+                entity.getEventCount(), details.getString(entity.getGatewayTransactionId(), "gateway_transaction_id"),
+                details.getLong(entity.getCorporateSurcharge(), "corporate_surcharge"), entity.getFee(),
+                entity.getNetAmount(), refundSummary, entity.getTotalAmount(), settlementSummary);
     }
 }
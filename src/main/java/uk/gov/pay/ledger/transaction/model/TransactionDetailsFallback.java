@@ -0,0 +1,63 @@
+package uk.gov.pay.ledger.transaction.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Reads a promoted column, or the field in transaction_details when the column is null. Transactions written before
+ * the promoted columns existed only have these fields in transaction_details until backfill-transaction-details has
+ * been run. The json is only parsed when a column is null.
+ */
+public class TransactionDetailsFallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionDetailsFallback.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final TransactionEntity entity;
+    private JsonNode transactionDetails;
+
+    public TransactionDetailsFallback(TransactionEntity entity) {
+        this.entity = entity;
+    }
+
+    public String getString(String value, String fieldName) {
+        return value != null ? value : getField(fieldName).map(JsonNode::asText).orElse(null);
+    }
+
+    public Long getLong(Long value, String fieldName) {
+        return value != null ? value : getField(fieldName).map(JsonNode::asLong).orElse(null);
+    }
+
+    public Boolean getBoolean(Boolean value, String fieldName) {
+        return value != null ? value : getField(fieldName).map(JsonNode::asBoolean).orElse(null);
+    }
+
+    private Optional<JsonNode> getField(String fieldName) {
+        if (transactionDetails == null) {
+            transactionDetails = parse(entity);
+        }
+        return Optional.ofNullable(transactionDetails.get(fieldName))
+                .filter(node -> !node.isNull());
+    }
+
+    private static JsonNode parse(TransactionEntity entity) {
+        if (entity.getTransactionDetails() == null) {
+            return MissingNode.getInstance();
+        }
+        try {
+            JsonNode transactionDetails = OBJECT_MAPPER.readTree(entity.getTransactionDetails());
+            return transactionDetails == null ? MissingNode.getInstance() : transactionDetails;
+        } catch (IOException e) {
+            LOGGER.error("Error during the parsing transaction entity data [{}] [errorMessage={}]",
+                    entity.getExternalId(), e.getMessage());
+            return MissingNode.getInstance();
+        }
+    }
+}
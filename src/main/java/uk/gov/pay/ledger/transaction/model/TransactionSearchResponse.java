@@ -1,34 +1,38 @@
 package uk.gov.pay.ledger.transaction.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
 import uk.gov.pay.ledger.transaction.search.model.PaginationBuilder;
-import uk.gov.pay.ledger.transaction.search.model.TransactionView;
+import uk.gov.pay.ledger.transaction.search.model.TransactionViewWriter;
 
 import java.util.List;
 
+@JsonSerialize(using = TransactionSearchResponseSerializer.class)
 public class TransactionSearchResponse {
 
-    @JsonIgnore
     private String gatewayExternalId;
-    @JsonProperty("total")
     private Long total;
-    @JsonProperty("count")
+    private SearchCountStrategy countStrategy = SearchCountStrategy.EXACT;
     private long count;
-    @JsonProperty("page")
     private long page;
-    @JsonProperty("results")
-    List<TransactionView> transactionViewList;
-    @JsonProperty("_links")
+    private List<TransactionEntity> transactionEntityList;
+    private TransactionViewWriter transactionViewWriter;
     private PaginationBuilder paginationBuilder;
 
     public TransactionSearchResponse(String gatewayExternalId, Long total, Long count, Long page,
-                                     List<TransactionView> transactionViewList) {
+                                     List<TransactionEntity> transactionEntityList, TransactionViewWriter transactionViewWriter) {
         this.gatewayExternalId = gatewayExternalId;
         this.total = total;
         this.count = count;
         this.page = page;
-        this.transactionViewList = transactionViewList;
+        this.transactionEntityList = transactionEntityList;
+        this.transactionViewWriter = transactionViewWriter;
+    }
+
+    public TransactionSearchResponse withCountStrategy(SearchCountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+        return this;
     }
 
     public TransactionSearchResponse withPaginationBuilder(PaginationBuilder paginationBuilder) {
@@ -44,6 +48,10 @@ public class TransactionSearchResponse {
         return total;
     }
 
+    public SearchCountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
     public Long getCount() {
         return count;
     }
@@ -52,8 +60,12 @@ public class TransactionSearchResponse {
         return page;
     }
 
-    public List<TransactionView> getTransactionViewList() {
-        return transactionViewList;
+    public List<TransactionEntity> getTransactionEntityList() {
+        return transactionEntityList;
+    }
+
+    public TransactionViewWriter getTransactionViewWriter() {
+        return transactionViewWriter;
     }
 
     public PaginationBuilder getPaginationBuilder() {
@@ -0,0 +1,38 @@
+package uk.gov.pay.ledger.transaction.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+
+import java.io.IOException;
+
+/**
+ * Writes search results straight from the transaction entities, see {@link uk.gov.pay.ledger.transaction.search.model.TransactionViewWriter}.
+ */
+public class TransactionSearchResponseSerializer extends StdSerializer<TransactionSearchResponse> {
+
+    public TransactionSearchResponseSerializer() {
+        super(TransactionSearchResponse.class);
+    }
+
+    @Override
+    public void serialize(TransactionSearchResponse response, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        if (response.getTotal() == null) {
+            gen.writeNullField("total");
+        } else {
+            gen.writeNumberField("total", response.getTotal());
+        }
+        provider.defaultSerializeField("count_strategy", response.getCountStrategy(), gen);
+        gen.writeNumberField("count", response.getCount());
+        gen.writeNumberField("page", response.getPage());
+        gen.writeArrayFieldStart("results");
+        for (TransactionEntity entity : response.getTransactionEntityList()) {
+            response.getTransactionViewWriter().write(entity, gen, provider);
+        }
+        gen.writeEndArray();
+        provider.defaultSerializeField("_links", response.getPaginationBuilder(), gen);
+        gen.writeEndObject();
+    }
+}
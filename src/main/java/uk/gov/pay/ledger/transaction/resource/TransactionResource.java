@@ -5,6 +5,8 @@ import com.google.inject.Inject;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.transaction.export.ExportFormat;
+import uk.gov.pay.ledger.transaction.export.TransactionExportService;
 import uk.gov.pay.ledger.transaction.model.TransactionSearchResponse;
 import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 import uk.gov.pay.ledger.transaction.search.model.TransactionView;
@@ -12,6 +14,7 @@ import uk.gov.pay.ledger.transaction.service.TransactionService;
 
 import javax.validation.Valid;
 import javax.ws.rs.BeanParam;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -20,6 +23,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -31,10 +35,31 @@ public class TransactionResource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TransactionResource.class);
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     @Inject
-    public TransactionResource(TransactionService transactionService) {
+    public TransactionResource(TransactionService transactionService, TransactionExportService transactionExportService) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+    }
+
+    @Path("/export")
+    @GET
+    @Timed
+    @Produces({"application/x-ndjson", "text/csv", APPLICATION_JSON})
+    public Response export(@Valid @BeanParam TransactionSearchParams searchParams,
+                           @QueryParam("format") @DefaultValue("ndjson") String format) {
+        if (searchParams == null) {
+            searchParams = new TransactionSearchParams();
+        }
+        validateSearchParams(searchParams);
+        ExportFormat exportFormat = ExportFormat.from(format);
+
+        StreamingOutput output = transactionExportService.reserveExport(searchParams, exportFormat)
+                .orElseThrow(() -> new WebApplicationException(Response.Status.SERVICE_UNAVAILABLE));
+        return Response.ok(output, exportFormat.getMediaType())
+                .header("Content-Disposition", "attachment; filename=\"transactions." + exportFormat.getValue() + "\"")
+                .build();
     }
 
     @Path("/{transactionExternalId}")
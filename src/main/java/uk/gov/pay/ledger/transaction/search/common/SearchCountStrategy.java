@@ -0,0 +1,21 @@
+package uk.gov.pay.ledger.transaction.search.common;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum SearchCountStrategy {
+    EXACT("exact"),
+    ESTIMATE("estimate"),
+    CACHED("cached"),
+    NONE("none");
+
+    private final String value;
+
+    SearchCountStrategy(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+}
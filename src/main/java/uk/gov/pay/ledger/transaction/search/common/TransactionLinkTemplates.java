@@ -0,0 +1,56 @@
+package uk.gov.pay.ledger.transaction.search.common;
+
+import uk.gov.pay.ledger.transaction.search.model.Link;
+
+import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the self and refunds links of transactions for one base URI. The transaction path is built
+ * once and external ids are appended to it when they do not need encoding. Any other id goes through
+ * {@link UriBuilder}.
+ */
+public class TransactionLinkTemplates {
+
+    private static final String TRANSACTION_PATH = "/v1/transaction/{externalId}";
+    private static final String REFUNDS_PATH = "/v1/transaction/{externalId}/refunds";
+    private static final Pattern UNRESERVED = Pattern.compile("[A-Za-z0-9._~-]+");
+
+    private final URI baseUri;
+    private final String transactionPrefix;
+
+    public TransactionLinkTemplates(URI baseUri) {
+        this.baseUri = baseUri;
+        this.transactionPrefix = UriBuilder.fromUri(baseUri)
+                .path(TRANSACTION_PATH)
+                .build("")
+                .toString();
+    }
+
+    public String selfHref(String externalId) {
+        if (needsEncoding(externalId)) {
+            return UriBuilder.fromUri(baseUri).path(TRANSACTION_PATH).build(externalId).toString();
+        }
+        return transactionPrefix + externalId;
+    }
+
+    public String refundsHref(String externalId) {
+        if (needsEncoding(externalId)) {
+            return UriBuilder.fromUri(baseUri).path(REFUNDS_PATH).build(externalId).toString();
+        }
+        return transactionPrefix + externalId + "/refunds";
+    }
+
+    public Link selfLink(String externalId) {
+        return Link.ofValue(selfHref(externalId), "GET", "self");
+    }
+
+    public Link refundsLink(String externalId) {
+        return Link.ofValue(refundsHref(externalId), "GET", "refunds");
+    }
+
+    private static boolean needsEncoding(String externalId) {
+        return externalId == null || externalId.isEmpty() || !UNRESERVED.matcher(externalId).matches();
+    }
+}
@@ -0,0 +1,49 @@
+package uk.gov.pay.ledger.transaction.search.common;
+
+import uk.gov.pay.ledger.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/**
+ * Position of the last transaction on a page, in (created_date, id) order, as an opaque token.
+ */
+public class TransactionSearchCursor {
+
+    private static final String SEPARATOR = ",";
+
+    private final ZonedDateTime createdDate;
+    private final Long id;
+
+    public TransactionSearchCursor(ZonedDateTime createdDate, Long id) {
+        this.createdDate = createdDate;
+        this.id = id;
+    }
+
+    public static TransactionSearchCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR);
+            return new TransactionSearchCursor(
+                    ZonedDateTime.ofInstant(Instant.parse(parts[0]), ZoneOffset.UTC),
+                    Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ValidationException(String.format("Invalid cursor [%s]", token));
+        }
+    }
+
+    public String encode() {
+        String value = createdDate.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ZonedDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -2,13 +2,17 @@ package uk.gov.pay.ledger.transaction.search.common;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.event.model.ResourceType;
+import uk.gov.pay.ledger.transaction.state.TransactionState;
 
 import javax.ws.rs.QueryParam;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
-import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public class TransactionSearchParams {
@@ -29,6 +33,12 @@ public class TransactionSearchParams {
     private static final String REFUND_STATES_FIELD = "refund_states";
     private static final String CARD_BRAND_FIELD = "card_brand";
     private static final String STATE_FIELD = "state";
+    private static final String TEXT_MATCH_FIELD = "text_match";
+    public static final String CONTAINS_TEXT_MATCH = "contains";
+    public static final String PREFIX_TEXT_MATCH = "prefix";
+    private static final String CURSOR_FIELD = "cursor";
+    private static final String CURSOR_CREATED_DATE_FIELD = "cursor_created_date";
+    private static final String CURSOR_ID_FIELD = "cursor_id";
     private static final long MAX_DISPLAY_SIZE = 500;
     private static final long DEFAULT_PAGE_NUMBER = 1L;
 
@@ -56,9 +66,13 @@ public class TransactionSearchParams {
     private String fromDate;
     @QueryParam("to_date")
     private String toDate;
+    @QueryParam("text_match")
+    private String textMatch;
+    @QueryParam("cursor")
+    private String cursor;
     private Long pageNumber = 1L;
     private Long displaySize = MAX_DISPLAY_SIZE;
-    private Map<String, Object> queryMap;
+    private volatile Map<String, Object> queryMap;
 
     public void setAccountId(String accountId) {
         this.accountId = accountId;
@@ -108,6 +122,14 @@ public class TransactionSearchParams {
         this.state = state;
     }
 
+    public void setTextMatch(String textMatch) {
+        this.textMatch = textMatch;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
     @QueryParam("page")
     public void setPageNumber(Long pageNumber) {
         if (pageNumber == null) {
@@ -132,13 +154,13 @@ public class TransactionSearchParams {
         StringBuilder sb = new StringBuilder();
 
         if (isNotBlank(email)) {
-            sb.append(" AND t.email ILIKE :" + EMAIL_FIELD);
+            sb.append(" AND lower(t.email) LIKE lower(:" + EMAIL_FIELD + ")");
         }
         if (isNotBlank(reference)) {
-            sb.append(" AND t.reference ILIKE :" + REFERENCE_FIELD);
+            sb.append(" AND lower(t.reference) LIKE lower(:" + REFERENCE_FIELD + ")");
         }
         if (isNotBlank(cardHolderName)) {
-            sb.append(" AND t.cardholder_name ILIKE :" + CARDHOLDER_NAME_FIELD);
+            sb.append(" AND lower(t.cardholder_name) LIKE lower(:" + CARDHOLDER_NAME_FIELD + ")");
         }
         if (fromDate != null) {
             sb.append(" AND t.created_date > :" + FROM_DATE_FIELD);
@@ -146,15 +168,19 @@ public class TransactionSearchParams {
         if (toDate != null) {
             sb.append(" AND t.created_date < :" + TO_DATE_FIELD);
         }
+        List<String> stateConditions = new ArrayList<>();
         if (paymentStates != null && !paymentStates.isEmpty()) {
-            //TODO implement
+            stateConditions.add("(t.type = '" + ResourceType.PAYMENT + "' AND t.state IN(<" + PAYMENT_STATES_FIELD + ">))");
+        }
+        if (refundStates != null && !refundStates.isEmpty()) {
+            stateConditions.add("(t.type = '" + ResourceType.REFUND + "' AND t.state IN(<" + REFUND_STATES_FIELD + ">))");
+        }
+        if (!stateConditions.isEmpty()) {
+            sb.append(" AND (" + String.join(" OR ", stateConditions) + ")");
         }
         if (isNotBlank(state)) {
             sb.append(" AND t.state = :" + STATE_FIELD);
         }
-        if (refundStates != null) {
-            //TODO implement
-        }
         if (cardBrands != null && !cardBrands.isEmpty()) {
             sb.append(" AND t.card_brand IN(<" + CARD_BRAND_FIELD + ">)");
         }
@@ -168,9 +194,16 @@ public class TransactionSearchParams {
         return sb.toString();
     }
 
+    public String generateSeekCondition() {
+        if (isNotBlank(cursor)) {
+            return " AND (t.created_date, t.id) < (:" + CURSOR_CREATED_DATE_FIELD + ", :" + CURSOR_ID_FIELD + ")";
+        }
+        return "";
+    }
+
     public Map<String, Object> getQueryMap() {
         if (queryMap == null) {
-            queryMap = new HashMap<>();
+            Map<String, Object> queryMap = new HashMap<>();
             queryMap.put(GATEWAY_ACCOUNT_EXTERNAL_FIELD, accountId);
             queryMap.put(OFFSET_FIELD, getOffset());
             queryMap.put(PAGE_SIZE_FIELD, displaySize);
@@ -193,6 +226,12 @@ public class TransactionSearchParams {
             if (isNotBlank(state)) {
                 queryMap.put(STATE_FIELD, state);
             }
+            if (paymentStates != null && !paymentStates.isEmpty()) {
+                queryMap.put(PAYMENT_STATES_FIELD, storedStates(paymentStates));
+            }
+            if (refundStates != null && !refundStates.isEmpty()) {
+                queryMap.put(REFUND_STATES_FIELD, storedStates(refundStates));
+            }
             if (cardBrands != null && !cardBrands.isEmpty()) {
                 queryMap.put(CARD_BRAND_FIELD, cardBrands.getParameters());
             }
@@ -202,6 +241,12 @@ public class TransactionSearchParams {
             if (isNotBlank(firstDigitsCardNumber)) {
                 queryMap.put(FIRST_DIGITS_CARD_NUMBER_FIELD, firstDigitsCardNumber);
             }
+            if (isNotBlank(cursor)) {
+                TransactionSearchCursor searchCursor = TransactionSearchCursor.decode(cursor);
+                queryMap.put(CURSOR_CREATED_DATE_FIELD, searchCursor.getCreatedDate());
+                queryMap.put(CURSOR_ID_FIELD, searchCursor.getId());
+            }
+            this.queryMap = queryMap;
         }
         return queryMap;
     }
@@ -226,7 +271,38 @@ public class TransactionSearchParams {
         return toDate;
     }
 
+    public CommaDelimitedSetParameter getPaymentStates() {
+        return paymentStates;
+    }
+
+    public CommaDelimitedSetParameter getRefundStates() {
+        return refundStates;
+    }
+
+    public String getTextMatch() {
+        return textMatch;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Cursor pagination is used when a cursor is given, including an empty one for the first page.
+     */
+    public boolean isCursorPagination() {
+        return cursor != null;
+    }
+
     public String buildQueryParamString(Long forPage) {
+        return buildFilterQueryParamString() + buildPageQueryParamString(forPage);
+    }
+
+    public String buildQueryParamStringForCursor(String forCursor) {
+        return buildFilterQueryParamString() + buildCursorQueryParamString(forCursor);
+    }
+
+    public String buildFilterQueryParamString() {
         String query = GATEWAY_ACCOUNT_EXTERNAL_FIELD + "=" + accountId;
 
         if (fromDate != null) {
@@ -263,8 +339,10 @@ public class TransactionSearchParams {
         if (isNotBlank(state)) {
             query += "&" + STATE_FIELD + "=" + state;
         }
+        if (isNotBlank(textMatch)) {
+            query += "&" + TEXT_MATCH_FIELD + "=" + textMatch;
+        }
 
-        query += addPaginationParams(forPage);
         return query;
     }
 
@@ -278,13 +356,26 @@ public class TransactionSearchParams {
         return offset;
     }
 
+    private List<String> storedStates(CommaDelimitedSetParameter states) {
+        return states.getParameters().stream()
+                .flatMap(status -> TransactionState.fromStatusFilter(status).stream())
+                .map(TransactionState::getState)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     private String likeClause(String rawUserInputText) {
+        if (PREFIX_TEXT_MATCH.equals(textMatch)) {
+            return rawUserInputText + "%";
+        }
         return "%" + rawUserInputText + "%";
     }
 
-    private String addPaginationParams(Long forPage) {
-        String queryParams = format("&page=%s", forPage);
-        queryParams += format("&display_size=%s", displaySize.intValue());
-        return queryParams;
+    public String buildPageQueryParamString(Long forPage) {
+        return "&page=" + forPage + "&display_size=" + displaySize.intValue();
+    }
+
+    public String buildCursorQueryParamString(String forCursor) {
+        return "&" + CURSOR_FIELD + "=" + forCursor + "&display_size=" + displaySize.intValue();
     }
 }
@@ -2,10 +2,12 @@ package uk.gov.pay.ledger.transaction.search.common;
 
 import uk.gov.pay.ledger.exception.UnparsableDateException;
 import uk.gov.pay.ledger.exception.ValidationException;
+import uk.gov.pay.ledger.transaction.state.TransactionState;
 
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.Collections;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -16,6 +18,11 @@ public class TransactionSearchParamsValidator {
     private static final String GATEWAY_ACCOUNT_ID = "account_id";
     private static final String FROM_DATE_FIELD = "from_date";
     private static final String TO_DATE_FIELD = "to_date";
+    private static final String TEXT_MATCH_FIELD = "text_match";
+    private static final String PAYMENT_STATES_FIELD = "payment_states";
+    private static final String REFUND_STATES_FIELD = "refund_states";
+    private static final Set<String> TEXT_MATCHES = Set.of(
+            TransactionSearchParams.CONTAINS_TEXT_MATCH, TransactionSearchParams.PREFIX_TEXT_MATCH);
 
     public static void validateSearchParams(TransactionSearchParams searchParams) {
 
@@ -27,6 +34,26 @@ public class TransactionSearchParamsValidator {
         if (isNotBlank(searchParams.getToDate())) {
             validateDate(TO_DATE_FIELD, searchParams.getToDate());
         }
+        if (isNotBlank(searchParams.getTextMatch()) && !TEXT_MATCHES.contains(searchParams.getTextMatch())) {
+            throw new ValidationException(format("Field [%s] must be one of [%s, %s]", TEXT_MATCH_FIELD,
+                    TransactionSearchParams.CONTAINS_TEXT_MATCH, TransactionSearchParams.PREFIX_TEXT_MATCH));
+        }
+        if (isNotBlank(searchParams.getCursor())) {
+            TransactionSearchCursor.decode(searchParams.getCursor());
+        }
+        validateStates(PAYMENT_STATES_FIELD, searchParams.getPaymentStates());
+        validateStates(REFUND_STATES_FIELD, searchParams.getRefundStates());
+    }
+
+    private static void validateStates(String fieldName, CommaDelimitedSetParameter states) {
+        if (states == null) {
+            return;
+        }
+        for (String state : states.getParameters()) {
+            if (TransactionState.fromStatusFilter(state).isEmpty()) {
+                throw new ValidationException(format("Field [%s] contains an unknown state [%s]", fieldName, state));
+            }
+        }
     }
 
     private static void validateDate(String fieldName, String dateToParse) {
@@ -3,6 +3,7 @@ package uk.gov.pay.ledger.transaction.search.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
 import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 
 import javax.ws.rs.core.UriInfo;
@@ -20,11 +21,19 @@ public class PaginationBuilder {
     private static final String NEXT_LINK = "next_page";
     private TransactionSearchParams searchParams;
     private UriInfo uriInfo;
+    @JsonIgnore
+    private String filterUri;
 
     @JsonIgnore
     private Long totalCount;
     @JsonIgnore
     private Long selfPageNum;
+    @JsonIgnore
+    private String nextCursor;
+    @JsonIgnore
+    private SearchCountStrategy countStrategy = SearchCountStrategy.EXACT;
+    @JsonIgnore
+    private long resultCount;
     @JsonProperty(SELF_LINK)
     private PaginationLink selfLink;
     @JsonProperty(FIRST_LINK)
@@ -47,10 +56,36 @@ public class PaginationBuilder {
         return this;
     }
 
+    public PaginationBuilder withCountStrategy(SearchCountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+        return this;
+    }
+
+    public PaginationBuilder withResultCount(long resultCount) {
+        this.resultCount = resultCount;
+        return this;
+    }
+
+    public PaginationBuilder withNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+        return this;
+    }
+
     public PaginationBuilder buildResponse() {
+        if (searchParams.isCursorPagination()) {
+            buildCursorLinks();
+            return this;
+        }
         Long pageSize = searchParams.getDisplaySize();
+        if (totalCount == null) {
+            buildLinksWithoutTotal(pageSize);
+            return this;
+        }
         long lastPage = totalCount > 0 ? (totalCount + pageSize - 1) / pageSize : 1;
         buildLinks(lastPage);
+        if (nextLink == null && countStrategy == SearchCountStrategy.ESTIMATE && resultCount >= pageSize) {
+            nextLink = PaginationLink.ofValue(pageUri(selfPageNum + 1));
+        }
 
         return this;
     }
@@ -76,29 +111,57 @@ public class PaginationBuilder {
     }
 
     private void buildLinks(long lastPage) {
-        selfLink = PaginationLink.ofValue(uriWithParams(searchParams.buildQueryParamString(searchParams.getPageNumber())));
-        firstLink = PaginationLink.ofValue(uriWithParams(searchParams.buildQueryParamString(1L)));
-        lastLink = PaginationLink.ofValue(uriWithParams(searchParams.buildQueryParamString(lastPage)));
+        selfLink = PaginationLink.ofValue(pageUri(searchParams.getPageNumber()));
+        firstLink = PaginationLink.ofValue(pageUri(1L));
+        lastLink = PaginationLink.ofValue(pageUri(lastPage));
         nextLink = (selfPageNum >= lastPage) ? null : PaginationLink.ofValue(
-                uriWithParams(searchParams.buildQueryParamString(selfPageNum + 1)));
+                pageUri(selfPageNum + 1));
 
         if (selfPageNum == 1L) {
             prevLink = null;
         } else {
             if (selfPageNum > lastPage) {
-                prevLink = PaginationLink.ofValue(uriWithParams(searchParams.buildQueryParamString(lastPage)));
+                prevLink = PaginationLink.ofValue(pageUri(lastPage));
             } else {
-                prevLink = PaginationLink.ofValue(uriWithParams(searchParams.buildQueryParamString(selfPageNum - 1)));
+                prevLink = PaginationLink.ofValue(pageUri(selfPageNum - 1));
             }
         }
     }
 
-    private String uriWithParams(String queryParams) {
-        URI uri = uriInfo.getBaseUriBuilder()
-                .replacePath(uriInfo.getPath())
-                .replaceQuery(queryParams)
-                .build(searchParams.getAccountId());
+    private void buildLinksWithoutTotal(Long pageSize) {
+        selfLink = PaginationLink.ofValue(pageUri(selfPageNum));
+        firstLink = PaginationLink.ofValue(pageUri(1L));
+        prevLink = selfPageNum > 1L ? PaginationLink.ofValue(pageUri(selfPageNum - 1)) : null;
+        nextLink = resultCount >= pageSize ? PaginationLink.ofValue(pageUri(selfPageNum + 1)) : null;
+    }
+
+    private void buildCursorLinks() {
+        selfLink = PaginationLink.ofValue(cursorUri(searchParams.getCursor()));
+        firstLink = PaginationLink.ofValue(cursorUri(""));
+        nextLink = nextCursor == null ? null : PaginationLink.ofValue(
+                cursorUri(nextCursor));
+    }
+
+    private String pageUri(Long page) {
+        return filterUri() + searchParams.buildPageQueryParamString(page);
+    }
 
-        return uri.toString();
+    private String cursorUri(String cursor) {
+        return filterUri() + searchParams.buildCursorQueryParamString(cursor);
+    }
+
+    /**
+     * The search URI with the filters, which is the same for every link. Only the page or cursor
+     * parameters, which never need encoding, are appended per link.
+     */
+    private String filterUri() {
+        if (filterUri == null) {
+            URI uri = uriInfo.getBaseUriBuilder()
+                    .replacePath(uriInfo.getPath())
+                    .replaceQuery(searchParams.buildFilterQueryParamString())
+                    .build(searchParams.getAccountId());
+            filterUri = uri.toString();
+        }
+        return filterUri;
     }
 }
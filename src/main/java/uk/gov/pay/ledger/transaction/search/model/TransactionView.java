@@ -3,6 +3,7 @@ package uk.gov.pay.ledger.transaction.search.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -14,7 +15,6 @@ import uk.gov.pay.ledger.transaction.state.TransactionState;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -44,7 +44,7 @@ public class TransactionView {
     private String gatewayTransactionId;
     private RefundSummary refundSummary;
     private SettlementSummary settlementSummary;
-    private Map<String, Object> metadata;
+    private String metadata;
     private List<Link> links = new ArrayList<>();
 
     //todo: replace with builder
@@ -52,7 +52,7 @@ public class TransactionView {
                             String description, String reference, String language, String externalId,
                             String returnUrl, String email, String paymentProvider, ZonedDateTime createdDate,
                             CardDetails cardDetails, Boolean delayedCapture, String gatewayTransactionId,
-                            RefundSummary refundSummary, SettlementSummary settlementSummary, Map<String, Object> metadata) {
+                            RefundSummary refundSummary, SettlementSummary settlementSummary, String metadata) {
         this.id = id;
         this.gatewayAccountId = gatewayAccountId;
         this.amount = amount;
@@ -88,7 +88,7 @@ public class TransactionView {
                 transaction.getExternalId(), transaction.getReturnUrl(), transaction.getEmail(),
                 transaction.getPaymentProvider(), transaction.getCreatedDate(), transaction.getCardDetails(),
                 transaction.getDelayedCapture(), transaction.getGatewayTransactionId(), transaction.getRefundSummary(),
-                transaction.getSettlementSummary(), transaction.getExternalMetadata());
+                transaction.getSettlementSummary(), transaction.getRawExternalMetadata());
     }
 
     public TransactionView addLink(Link link) {
@@ -187,7 +187,8 @@ public class TransactionView {
         return settlementSummary;
     }
 
-    public Map<String, Object> getMetadata() {
+    @JsonRawValue
+    public String getMetadata() {
         return metadata;
     }
 
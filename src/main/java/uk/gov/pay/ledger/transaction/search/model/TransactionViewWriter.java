@@ -0,0 +1,183 @@
+package uk.gov.pay.ledger.transaction.search.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import uk.gov.pay.commons.api.json.ApiResponseDateTimeSerializer;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.model.TransactionDetailsFallback;
+import uk.gov.pay.ledger.transaction.search.common.TransactionLinkTemplates;
+import uk.gov.pay.ledger.transaction.state.TransactionState;
+
+import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static uk.gov.pay.commons.model.ApiResponseDateTimeFormatter.ISO_INSTANT_MILLISECOND_PRECISION;
+
+/**
+ * Writes a transaction entity as the JSON of its {@link TransactionView}, without building the
+ * intermediate Payment and TransactionView objects. external_metadata is copied in as stored.
+ * Promoted fields fall back to transaction_details in the same way as {@link uk.gov.pay.ledger.transaction.model.PaymentFactory}.
+ * The fields and their order must match what Jackson writes for TransactionView.
+ */
+public class TransactionViewWriter {
+
+    private static final ApiResponseDateTimeSerializer DATE_TIME_SERIALIZER = new ApiResponseDateTimeSerializer();
+
+    private final TransactionLinkTemplates linkTemplates;
+
+    public TransactionViewWriter(UriInfo uriInfo) {
+        this.linkTemplates = new TransactionLinkTemplates(uriInfo.getBaseUri());
+    }
+
+    public void write(TransactionEntity entity, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        TransactionDetailsFallback details = new TransactionDetailsFallback(entity);
+        gen.writeStartObject();
+        writeString(gen, "gateway_account_id", entity.getGatewayAccountId());
+        writeNumber(gen, "amount", entity.getAmount());
+        writeNumber(gen, "total_amount", entity.getTotalAmount());
+        writeNumber(gen, "corporate_card_surcharge", details.getLong(entity.getCorporateSurcharge(), "corporate_surcharge"));
+        writeNumber(gen, "fee", entity.getFee());
+        writeNumber(gen, "net_amount", entity.getNetAmount());
+        writeState(gen, TransactionState.from(entity.getState()));
+        writeString(gen, "description", entity.getDescription());
+        writeString(gen, "reference", entity.getReference());
+        writeString(gen, "language", details.getString(entity.getLanguage(), "language"));
+        writeString(gen, "return_url", details.getString(entity.getReturnUrl(), "return_url"));
+        writeString(gen, "email", entity.getEmail());
+        writeString(gen, "payment_provider", details.getString(entity.getPaymentProvider(), "payment_provider"));
+        if (entity.getCreatedDate() != null) {
+            gen.writeFieldName("created_date");
+            DATE_TIME_SERIALIZER.serialize(entity.getCreatedDate(), gen, provider);
+        }
+        writeCardDetails(gen, entity, details);
+        Boolean delayedCapture = details.getBoolean(entity.getDelayedCapture(), "delayed_capture");
+        gen.writeBooleanField("delayed_capture", delayedCapture != null && delayedCapture);
+        writeString(gen, "gateway_transaction_id", details.getString(entity.getGatewayTransactionId(), "gateway_transaction_id"));
+        writeRefundSummary(gen, entity);
+        writeSettlementSummary(gen, entity.getSettlementSubmittedTime(), entity.getSettledTime());
+        if (entity.getExternalMetadata() != null) {
+            gen.writeFieldName("metadata");
+            gen.writeRawValue(entity.getExternalMetadata());
+        }
+        writeLinks(gen, entity.getExternalId());
+        writeString(gen, "charge_id", entity.getExternalId());
+        writeString(gen, "transaction_id", entity.getExternalId());
+        gen.writeEndObject();
+    }
+
+    private static void writeState(JsonGenerator gen, TransactionState state) throws IOException {
+        if (state == null) {
+            return;
+        }
+        gen.writeObjectFieldStart("state");
+        gen.writeBooleanField("finished", state.isFinished());
+        writeString(gen, "status", state.getState());
+        writeString(gen, "code", state.getCode());
+        writeString(gen, "message", state.getMessage());
+        gen.writeEndObject();
+    }
+
+    private static void writeCardDetails(JsonGenerator gen, TransactionEntity entity,
+                                         TransactionDetailsFallback details) throws IOException {
+        String line1 = details.getString(entity.getAddressLine1(), "address_line1");
+        String line2 = details.getString(entity.getAddressLine2(), "address_line2");
+        String postcode = details.getString(entity.getAddressPostcode(), "address_postcode");
+        String city = details.getString(entity.getAddressCity(), "address_city");
+        String county = details.getString(entity.getAddressCounty(), "address_county");
+        String country = details.getString(entity.getAddressCountry(), "address_country");
+        String expiryDate = details.getString(entity.getCardExpiryDate(), "expiry_date");
+        boolean hasBillingAddress = line1 != null || line2 != null || postcode != null || city != null ||
+                county != null || country != null;
+        if (!hasBillingAddress && entity.getCardholderName() == null && entity.getCardBrand() == null &&
+                entity.getLastDigitsCardNumber() == null && entity.getFirstDigitsCardNumber() == null &&
+                expiryDate == null) {
+            return;
+        }
+
+        gen.writeObjectFieldStart("card_details");
+        writeString(gen, "cardholder_name", entity.getCardholderName());
+        if (hasBillingAddress) {
+            gen.writeObjectFieldStart("billing_address");
+            writeString(gen, "line1", line1);
+            writeString(gen, "line2", line2);
+            writeString(gen, "postcode", postcode);
+            writeString(gen, "city", city);
+            writeString(gen, "county", county);
+            writeString(gen, "country", country);
+            gen.writeEndObject();
+        }
+        gen.writeStringField("card_brand", entity.getCardBrand() == null ? "" : entity.getCardBrand());
+        writeString(gen, "last_digits_card_number", entity.getLastDigitsCardNumber());
+        writeString(gen, "first_digits_card_number", entity.getFirstDigitsCardNumber());
+        writeString(gen, "expiry_date", expiryDate);
+        gen.writeEndObject();
+    }
+
+    private static void writeRefundSummary(JsonGenerator gen, TransactionEntity entity) throws IOException {
+        if (entity.getRefundStatus() == null && entity.getRefundAmountAvailable() == null &&
+                entity.getRefundAmountSubmitted() == null) {
+            return;
+        }
+        gen.writeObjectFieldStart("refund_summary");
+        writeNullableString(gen, "status", entity.getRefundStatus());
+        gen.writeNullField("user_external_id");
+        writeNullableNumber(gen, "amount_available", entity.getRefundAmountAvailable());
+        writeNullableNumber(gen, "amount_submitted", entity.getRefundAmountSubmitted());
+        gen.writeEndObject();
+    }
+
+    private static void writeSettlementSummary(JsonGenerator gen, ZonedDateTime settlementSubmittedTime,
+                                               ZonedDateTime settledTime) throws IOException {
+        gen.writeObjectFieldStart("settlement_summary");
+        writeNullableString(gen, "capture_submit_time",
+                settlementSubmittedTime == null ? null : ISO_INSTANT_MILLISECOND_PRECISION.format(settlementSubmittedTime));
+        writeNullableString(gen, "captured_date",
+                settledTime == null ? null : settledTime.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        gen.writeEndObject();
+    }
+
+    private void writeLinks(JsonGenerator gen, String externalId) throws IOException {
+        gen.writeArrayFieldStart("links");
+        writeLink(gen, linkTemplates.selfHref(externalId), "self");
+        writeLink(gen, linkTemplates.refundsHref(externalId), "refunds");
+        gen.writeEndArray();
+    }
+
+    private static void writeLink(JsonGenerator gen, String href, String rel) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("href", href);
+        gen.writeStringField("method", "GET");
+        gen.writeStringField("rel", rel);
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, String fieldName, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(fieldName, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, String fieldName, Long value) throws IOException {
+        if (value != null) {
+            gen.writeNumberField(fieldName, value);
+        }
+    }
+
+    private static void writeNullableString(JsonGenerator gen, String fieldName, String value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(fieldName);
+        } else {
+            gen.writeStringField(fieldName, value);
+        }
+    }
+
+    private static void writeNullableNumber(JsonGenerator gen, String fieldName, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(fieldName);
+        } else {
+            gen.writeNumberField(fieldName, value);
+        }
+    }
+}
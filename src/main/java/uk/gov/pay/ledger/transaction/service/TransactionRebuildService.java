@@ -0,0 +1,124 @@
+package uk.gov.pay.ledger.transaction.service;
+
+import com.google.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.ledger.event.dao.EventReplayDao;
+import uk.gov.pay.ledger.event.model.Event;
+import uk.gov.pay.ledger.event.model.EventDigest;
+import uk.gov.pay.ledger.event.model.TransactionEntityFactory;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TransactionRebuildService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionRebuildService.class);
+    private static final int RANGES_PER_THREAD = 4;
+    private static final double BOUNDARY_SAMPLE_PERCENTAGE = 1;
+
+    private final EventReplayDao eventReplayDao;
+    private final TransactionDao transactionDao;
+    private final TransactionEntityFactory transactionEntityFactory;
+
+    @Inject
+    public TransactionRebuildService(EventReplayDao eventReplayDao, TransactionDao transactionDao,
+                                     TransactionEntityFactory transactionEntityFactory) {
+        this.eventReplayDao = eventReplayDao;
+        this.transactionDao = transactionDao;
+        this.transactionEntityFactory = transactionEntityFactory;
+    }
+
+    public RebuildResult rebuild(int numberOfThreads, int batchSize, int fetchSize) throws InterruptedException, ExecutionException {
+        List<String> boundaries = eventReplayDao.getResourceExternalIdBoundaries(numberOfThreads * RANGES_PER_THREAD, BOUNDARY_SAMPLE_PERCENTAGE);
+        RebuildResult result = new RebuildResult();
+        ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+
+        try {
+            List<Future<?>> ranges = new ArrayList<>();
+            for (int i = 0; i <= boundaries.size(); i++) {
+                String from = i == 0 ? null : boundaries.get(i - 1);
+                String to = i == boundaries.size() ? null : boundaries.get(i);
+                ranges.add(executorService.submit(() -> rebuildRange(from, to, batchSize, fetchSize, result)));
+            }
+            for (Future<?> range : ranges) {
+                range.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        LOGGER.info("Rebuilt transactions from events. [transactions={}] [skippedResources={}] [events={}]",
+                result.getTransactions(), result.getSkippedResources(), result.getEvents());
+        return result;
+    }
+
+    void rebuildRange(String from, String to, int batchSize, int fetchSize, RebuildResult result) {
+        List<Event> resourceEvents = new ArrayList<>();
+        List<TransactionEntity> transactions = new ArrayList<>(batchSize);
+
+        eventReplayDao.streamEvents(from, to, fetchSize, event -> {
+            if (!resourceEvents.isEmpty() &&
+                    !resourceEvents.get(0).getResourceExternalId().equals(event.getResourceExternalId())) {
+                project(resourceEvents, transactions, result);
+                if (transactions.size() >= batchSize) {
+                    write(transactions, result);
+                }
+            }
+            resourceEvents.add(event);
+            result.events.incrementAndGet();
+        });
+        project(resourceEvents, transactions, result);
+        write(transactions, result);
+
+        LOGGER.info("Rebuilt transactions for resource range. [from={}] [to={}]", from, to);
+    }
+
+    private void project(List<Event> resourceEvents, List<TransactionEntity> transactions, RebuildResult result) {
+        if (resourceEvents.isEmpty()) {
+            return;
+        }
+        try {
+            transactions.add(transactionEntityFactory.create(EventDigest.fromEventList(List.copyOf(resourceEvents))));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not rebuild transaction for resource. [resourceExternalId={}] [errorMessage={}]",
+                    resourceEvents.get(0).getResourceExternalId(),
+                    e.getMessage());
+            result.skippedResources.incrementAndGet();
+        }
+        resourceEvents.clear();
+    }
+
+    private void write(List<TransactionEntity> transactions, RebuildResult result) {
+        if (!transactions.isEmpty()) {
+            transactionDao.overwrite(transactions);
+            result.transactions.addAndGet(transactions.size());
+            transactions.clear();
+        }
+    }
+
+    public static class RebuildResult {
+        private final AtomicLong events = new AtomicLong();
+        private final AtomicLong transactions = new AtomicLong();
+        private final AtomicLong skippedResources = new AtomicLong();
+
+        public long getEvents() {
+            return events.get();
+        }
+
+        public long getTransactions() {
+            return transactions.get();
+        }
+
+        public long getSkippedResources() {
+            return skippedResources.get();
+        }
+    }
+}
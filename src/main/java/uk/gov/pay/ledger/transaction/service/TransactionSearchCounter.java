@@ -0,0 +1,126 @@
+package uk.gov.pay.ledger.transaction.service;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.dropwizard.setup.Environment;
+import uk.gov.pay.ledger.app.LedgerConfig;
+import uk.gov.pay.ledger.app.config.TransactionSearchConfig;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Counts the transactions matching a search using the configured {@link SearchCountStrategy}.
+ * Cached counts are keyed by the filters of the search, which always include the gateway account.
+ */
+@Singleton
+public class TransactionSearchCounter {
+
+    private static final String TRANSACTION_SEARCH_COUNT_THREAD_NAME = "transaction-search-count-%d";
+
+    private final TransactionDao transactionDao;
+    private final SearchCountStrategy countStrategy;
+    private final Duration cacheTtl;
+    private final int cacheMaximumSize;
+    private final Clock clock;
+    private final Executor executor;
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+    @Inject
+    public TransactionSearchCounter(TransactionDao transactionDao, LedgerConfig configuration, Environment environment) {
+        this(transactionDao, configuration.getTransactionSearchConfig(), Clock.systemUTC(),
+                countExecutor(configuration.getTransactionSearchConfig(), environment));
+    }
+
+    TransactionSearchCounter(TransactionDao transactionDao, TransactionSearchConfig config, Clock clock) {
+        this(transactionDao, config, clock, Runnable::run);
+    }
+
+    TransactionSearchCounter(TransactionDao transactionDao, TransactionSearchConfig config, Clock clock, Executor executor) {
+        this.transactionDao = transactionDao;
+        this.executor = executor;
+        this.countStrategy = config.getCountStrategy();
+        this.cacheTtl = Duration.ofSeconds(config.getCountCacheTtlInSeconds());
+        this.cacheMaximumSize = config.getCountCacheMaximumSize();
+        this.clock = clock;
+    }
+
+    public SearchCountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    /**
+     * Starts counting on a separate pooled connection, so the count can run while the page is fetched.
+     * The count runs on the calling thread when parallel counting is disabled or all count threads are busy.
+     */
+    public CompletableFuture<Long> countAsync(TransactionSearchParams searchParams) {
+        return CompletableFuture.supplyAsync(() -> count(searchParams), executor);
+    }
+
+    public Long count(TransactionSearchParams searchParams) {
+        switch (countStrategy) {
+            case NONE:
+                return null;
+            case ESTIMATE:
+                return transactionDao.getEstimatedTotalForSearch(searchParams);
+            case CACHED:
+                return cachedCount(searchParams);
+            default:
+                return transactionDao.getTotalForSearch(searchParams);
+        }
+    }
+
+    private Long cachedCount(TransactionSearchParams searchParams) {
+        String key = searchParams.buildFilterQueryParamString();
+        Instant now = clock.instant();
+
+        CachedCount cachedCount = cache.get(key);
+        if (cachedCount != null && now.isBefore(cachedCount.expiresAt)) {
+            return cachedCount.total;
+        }
+
+        Long total = transactionDao.getTotalForSearch(searchParams);
+        if (cache.size() >= cacheMaximumSize) {
+            cache.values().removeIf(entry -> !now.isBefore(entry.expiresAt));
+            if (cache.size() >= cacheMaximumSize) {
+                cache.clear();
+            }
+        }
+        cache.put(key, new CachedCount(total, now.plus(cacheTtl)));
+        return total;
+    }
+
+    private static Executor countExecutor(TransactionSearchConfig config, Environment environment) {
+        if (!config.isParallelCountEnabled()) {
+            return Runnable::run;
+        }
+        return environment
+                .lifecycle()
+                .executorService(TRANSACTION_SEARCH_COUNT_THREAD_NAME)
+                .minThreads(config.getNumberOfCountThreads())
+                .maxThreads(config.getNumberOfCountThreads())
+                .workQueue(new ArrayBlockingQueue<>(config.getCountQueueSize()))
+                .rejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy())
+                .build();
+    }
+
+    private static class CachedCount {
+        private final Long total;
+        private final Instant expiresAt;
+
+        private CachedCount(Long total, Instant expiresAt) {
+            this.total = total;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
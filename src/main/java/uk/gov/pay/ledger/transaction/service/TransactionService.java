@@ -1,41 +1,66 @@
 package uk.gov.pay.ledger.transaction.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
+import uk.gov.pay.ledger.event.model.Event;
 import uk.gov.pay.ledger.event.model.EventDigest;
 import uk.gov.pay.ledger.event.model.TransactionEntityFactory;
 import uk.gov.pay.ledger.transaction.dao.TransactionDao;
 import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
-import uk.gov.pay.ledger.transaction.search.model.Link;
-import uk.gov.pay.ledger.transaction.model.Payment;
 import uk.gov.pay.ledger.transaction.model.PaymentFactory;
 import uk.gov.pay.ledger.transaction.model.TransactionSearchResponse;
-import uk.gov.pay.ledger.transaction.search.common.HalLinkBuilder;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
+import uk.gov.pay.ledger.transaction.search.common.TransactionLinkTemplates;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchCursor;
 import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 import uk.gov.pay.ledger.transaction.search.model.PaginationBuilder;
 import uk.gov.pay.ledger.transaction.search.model.TransactionView;
+import uk.gov.pay.ledger.transaction.search.model.TransactionViewWriter;
 
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 public class TransactionService {
 
     private final TransactionDao transactionDao;
     private TransactionEntityFactory transactionEntityFactory;
     private PaymentFactory paymentFactory;
+    private TransactionSearchCounter transactionSearchCounter;
+    private TransactionViewCache transactionViewCache;
+    private final Timer createEntityTimer;
+    private final Timer upsertTimer;
+    private final Timer createEntitiesBatchTimer;
+    private final Timer upsertBatchTimer;
 
     @Inject
     public TransactionService(TransactionDao transactionDao, TransactionEntityFactory transactionEntityFactory,
-                              PaymentFactory paymentFactory) {
+                              PaymentFactory paymentFactory, TransactionSearchCounter transactionSearchCounter,
+                              TransactionViewCache transactionViewCache, MetricRegistry metricRegistry) {
         this.transactionDao = transactionDao;
         this.transactionEntityFactory = transactionEntityFactory;
         this.paymentFactory = paymentFactory;
+        this.transactionSearchCounter = transactionSearchCounter;
+        this.transactionViewCache = transactionViewCache;
+        this.createEntityTimer = metricRegistry.timer(name(TransactionService.class, "create-transaction-entity"));
+        this.upsertTimer = metricRegistry.timer(name(TransactionService.class, "upsert-transaction"));
+        this.createEntitiesBatchTimer = metricRegistry.timer(name(TransactionService.class, "create-transaction-entities-batch"));
+        this.upsertBatchTimer = metricRegistry.timer(name(TransactionService.class, "upsert-transactions-batch"));
     }
 
     public Optional<TransactionView> getTransactionForGatewayAccount(String gatewayAccountId, String transactionExternalId, UriInfo uriInfo) {
-        return transactionDao.findTransactionByExternalIdAndGatewayAccountId(transactionExternalId, gatewayAccountId)
-                .map(entity -> decorateWithLinks(TransactionView.from(paymentFactory.createTransactionEntity(entity)), uriInfo));
+        Supplier<Optional<TransactionEntity>> loader = transactionViewCache.isEnabled() ?
+                () -> transactionDao.findTransactionByExternalIdAndGatewayAccountIdFromPrimary(transactionExternalId, gatewayAccountId) :
+                () -> transactionDao.findTransactionByExternalIdAndGatewayAccountId(transactionExternalId, gatewayAccountId);
+        return transactionViewCache.get(gatewayAccountId, transactionExternalId, uriInfo.getBaseUri(), loader,
+                entity -> decorateWithLinks(TransactionView.from(paymentFactory.createTransactionEntity(entity)), uriInfo));
     }
 
     public Optional<TransactionView> getTransaction(String transactionExternalId, UriInfo uriInfo) {
@@ -44,48 +69,95 @@ public class TransactionService {
     }
 
     public TransactionSearchResponse searchTransactions(TransactionSearchParams searchParams, UriInfo uriInfo) {
-        List<Payment> transactionList = transactionDao.searchTransactions(searchParams)
-                .stream()
-                .map(paymentFactory::createTransactionEntity)
-                .collect(Collectors.toList());
-        Long total = transactionDao.getTotalForSearch(searchParams);
+        // Cursor pages only link forwards, so they are not counted
+        boolean counted = !searchParams.isCursorPagination();
+        CompletableFuture<Long> totalFuture = counted ? transactionSearchCounter.countAsync(searchParams) : null;
+        List<TransactionEntity> transactionEntityList = transactionDao.searchTransactions(searchParams);
+        Long total = counted ? join(totalFuture) : null;
+        SearchCountStrategy countStrategy = counted ? transactionSearchCounter.getCountStrategy() : SearchCountStrategy.NONE;
         PaginationBuilder paginationBuilder = new PaginationBuilder(searchParams, uriInfo);
-        paginationBuilder = paginationBuilder.withTotalCount(total).buildResponse();
-
-        List<TransactionView> transactionViewList = mapToTransactionViewList(transactionList, searchParams, uriInfo);
+        paginationBuilder = paginationBuilder.withTotalCount(total)
+                .withCountStrategy(countStrategy)
+                .withResultCount(transactionEntityList.size())
+                .withNextCursor(nextCursor(transactionEntityList, searchParams))
+                .buildResponse();
 
         return new TransactionSearchResponse(searchParams.getAccountId(),
                 total,
-                (long) transactionList.size(),
+                (long) transactionEntityList.size(),
                 searchParams.getPageNumber(),
-                transactionViewList
-        ).withPaginationBuilder(paginationBuilder);
+                transactionEntityList,
+                new TransactionViewWriter(uriInfo)
+        ).withCountStrategy(countStrategy)
+                .withPaginationBuilder(paginationBuilder);
+    }
+
+    private static Long join(CompletableFuture<Long> totalFuture) {
+        try {
+            return totalFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
-    private List<TransactionView> mapToTransactionViewList(List<Payment> transactionList, TransactionSearchParams searchParams,
-                                                           UriInfo uriInfo) {
-        return transactionList.stream()
-                .map(transaction -> decorateWithLinks(TransactionView.from(transaction),
-                        uriInfo))
-                .collect(Collectors.toList());
+    private String nextCursor(List<TransactionEntity> transactionEntityList, TransactionSearchParams searchParams) {
+        if (!searchParams.isCursorPagination() || transactionEntityList.size() < searchParams.getDisplaySize()) {
+            return null;
+        }
+        TransactionEntity last = transactionEntityList.get(transactionEntityList.size() - 1);
+        return new TransactionSearchCursor(last.getCreatedDate(), last.getId()).encode();
     }
 
     private TransactionView decorateWithLinks(TransactionView transactionView,
                                               UriInfo uriInfo) {
-        Link selfLink = HalLinkBuilder.createSelfLink(uriInfo, "/v1/transaction/{externalId}",
-                transactionView.getExternalId());
-        transactionView.addLink(selfLink);
-
-        Link refundsLink = HalLinkBuilder.createRefundsLink(uriInfo, "/v1/transaction/{externalId}/refunds",
-                transactionView.getExternalId());
-        transactionView.addLink(refundsLink);
+        TransactionLinkTemplates linkTemplates = new TransactionLinkTemplates(uriInfo.getBaseUri());
+        transactionView.addLink(linkTemplates.selfLink(transactionView.getExternalId()));
+        transactionView.addLink(linkTemplates.refundsLink(transactionView.getExternalId()));
 
         return transactionView;
     }
 
     // @TODO(sfount) handling writing invalid transaction should be tested at `EventMessageHandler` integration level
     public void upsertTransactionFor(EventDigest eventDigest) {
-        TransactionEntity transaction = transactionEntityFactory.create(eventDigest);
-        transactionDao.upsert(transaction);
+        TransactionEntity transaction;
+        try (Timer.Context ignored = createEntityTimer.time()) {
+            transaction = transactionEntityFactory.create(eventDigest);
+        }
+        upsert(transaction);
+    }
+
+    public Optional<TransactionEntity> getTransactionEntity(String transactionExternalId) {
+        return transactionDao.findTransactionByExternalId(transactionExternalId);
+    }
+
+    public void upsertTransactionFor(TransactionEntity transaction, Event event) {
+        TransactionEntity foldedTransaction;
+        try (Timer.Context ignored = createEntityTimer.time()) {
+            foldedTransaction = transactionEntityFactory.fold(transaction, event);
+        }
+        upsert(foldedTransaction);
+    }
+
+    public void upsertTransactionsFor(List<EventDigest> eventDigests) {
+        List<TransactionEntity> transactions;
+        try (Timer.Context ignored = createEntitiesBatchTimer.time()) {
+            transactions = eventDigests.stream()
+                    .map(transactionEntityFactory::create)
+                    .collect(Collectors.toList());
+        }
+        try (Timer.Context ignored = upsertBatchTimer.time()) {
+            transactionDao.upsert(transactions);
+        }
+        transactions.forEach(transactionViewCache::invalidate);
+    }
+
+    private void upsert(TransactionEntity transaction) {
+        try (Timer.Context ignored = upsertTimer.time()) {
+            transactionDao.upsert(transaction);
+        }
+        transactionViewCache.invalidate(transaction);
     }
 }
@@ -0,0 +1,149 @@
+package uk.gov.pay.ledger.transaction.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.dropwizard.setup.Environment;
+import uk.gov.pay.ledger.app.LedgerConfig;
+import uk.gov.pay.ledger.app.config.TransactionCacheConfig;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.search.model.TransactionView;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Caches the transaction views returned for a gateway account, so that repeatedly polled transactions are not read
+ * from the database on every request. Entries are keyed by external id and only returned for the same gateway account
+ * and base URI. They expire after the configured TTL and are removed when a transaction with a higher event count is
+ * written by this instance. Writes made by other instances are only picked up when the entry expires. Entries must be
+ * loaded from the primary database, otherwise a lagging read replica can put back the row an invalidation removed.
+ */
+@Singleton
+public class TransactionViewCache {
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int maximumSize;
+    private final Clock clock;
+    private final Map<String, CachedView> cache = new ConcurrentHashMap<>();
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+    private final Meter invalidations;
+
+    @Inject
+    public TransactionViewCache(LedgerConfig configuration, Environment environment) {
+        this(configuration.getTransactionCacheConfig(), Clock.systemUTC(), environment.metrics());
+    }
+
+    TransactionViewCache(TransactionCacheConfig config, Clock clock, MetricRegistry metricRegistry) {
+        this.enabled = config.isEnabled();
+        this.ttl = Duration.ofSeconds(config.getTtlInSeconds());
+        this.maximumSize = config.getMaximumSize();
+        this.clock = clock;
+
+        this.hits = metricRegistry.meter(name(TransactionViewCache.class, "hits"));
+        this.misses = metricRegistry.meter(name(TransactionViewCache.class, "misses"));
+        this.evictions = metricRegistry.meter(name(TransactionViewCache.class, "evictions"));
+        this.invalidations = metricRegistry.meter(name(TransactionViewCache.class, "invalidations"));
+        metricRegistry.register(name(TransactionViewCache.class, "size"), (Gauge<Integer>) cache::size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<TransactionView> get(String gatewayAccountId, String externalId, URI baseUri,
+                                         Supplier<Optional<TransactionEntity>> loader,
+                                         Function<TransactionEntity, TransactionView> renderer) {
+        if (!enabled) {
+            return loader.get().map(renderer);
+        }
+
+        Instant now = clock.instant();
+        CachedView cachedView = cache.get(externalId);
+        if (cachedView != null && cachedView.matches(gatewayAccountId, baseUri)) {
+            if (now.isBefore(cachedView.expiresAt)) {
+                hits.mark();
+                return Optional.of(cachedView.transactionView);
+            }
+            if (cache.remove(externalId, cachedView)) {
+                evictions.mark();
+            }
+        }
+
+        misses.mark();
+        return loader.get().map(entity -> {
+            TransactionView transactionView = renderer.apply(entity);
+            put(entity, baseUri, transactionView, now);
+            return transactionView;
+        });
+    }
+
+    /**
+     * Removes the cached view of the transaction if it was rendered from fewer events than the written transaction.
+     */
+    public void invalidate(TransactionEntity transaction) {
+        if (!enabled || transaction.getEventCount() == null) {
+            return;
+        }
+        cache.computeIfPresent(transaction.getExternalId(), (externalId, cachedView) -> {
+            if (cachedView.eventCount < transaction.getEventCount()) {
+                invalidations.mark();
+                return null;
+            }
+            return cachedView;
+        });
+    }
+
+    private void put(TransactionEntity entity, URI baseUri, TransactionView transactionView, Instant now) {
+        if (cache.size() >= maximumSize) {
+            int sizeBefore = cache.size();
+            cache.values().removeIf(entry -> !now.isBefore(entry.expiresAt));
+            if (cache.size() >= maximumSize) {
+                cache.clear();
+            }
+            evictions.mark(Math.max(sizeBefore - cache.size(), 0));
+        }
+
+        CachedView cachedView = new CachedView(entity.getGatewayAccountId(), baseUri, entity.getEventCount(),
+                transactionView, now.plus(ttl));
+        cache.merge(entity.getExternalId(), cachedView,
+                (existing, loaded) -> existing.matches(loaded.gatewayAccountId, loaded.baseUri)
+                        && existing.eventCount > loaded.eventCount ? existing : loaded);
+    }
+
+    private static class CachedView {
+        private final String gatewayAccountId;
+        private final URI baseUri;
+        private final int eventCount;
+        private final TransactionView transactionView;
+        private final Instant expiresAt;
+
+        private CachedView(String gatewayAccountId, URI baseUri, Integer eventCount,
+                           TransactionView transactionView, Instant expiresAt) {
+            this.gatewayAccountId = gatewayAccountId;
+            this.baseUri = baseUri;
+            this.eventCount = eventCount == null ? 0 : eventCount;
+            this.transactionView = transactionView;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean matches(String gatewayAccountId, URI baseUri) {
+            return Objects.equals(this.gatewayAccountId, gatewayAccountId) && this.baseUri.equals(baseUri);
+        }
+    }
+}
@@ -7,7 +7,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.ledger.event.model.SalientEventType;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.stream;
 
@@ -96,6 +99,18 @@ public enum TransactionState {
         return EVENT_TYPE_TRANSACTION_STATE_MAP.get(salientEventType);
     }
 
+    /**
+     * Matches a state filter against the stored state values and the state names, so that
+     * for example "failed" matches every FAILED_ state.
+     */
+    public static List<TransactionState> fromStatusFilter(String status) {
+        String statusName = status.toUpperCase(Locale.ENGLISH);
+        return stream(values())
+                .filter(v -> v.getState().equalsIgnoreCase(status) || v.name().equals(statusName)
+                        || v.name().startsWith(statusName + "_"))
+                .collect(Collectors.toList());
+    }
+
     public static TransactionState from(String transactionState) {
         return stream(values()).filter(v -> v.getState().equals(transactionState)).findFirst()
                 .orElseGet(() -> {
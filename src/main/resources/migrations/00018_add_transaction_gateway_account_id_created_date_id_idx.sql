@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:add_transaction_gateway_account_id_created_date_id_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_gateway_account_id_created_date_id_idx ON transaction(gateway_account_id, created_date, id)
+--rollback drop index transaction_gateway_account_id_created_date_id_idx;
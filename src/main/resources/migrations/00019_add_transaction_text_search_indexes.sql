@@ -0,0 +1,29 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_extension_pg_trgm
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+--rollback drop extension pg_trgm;
+
+--changeset uk.gov.pay:add_transaction_email_trgm_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_email_trgm_idx ON transaction USING gin (lower(email) gin_trgm_ops)
+--rollback drop index transaction_email_trgm_idx;
+
+--changeset uk.gov.pay:add_transaction_reference_trgm_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_reference_trgm_idx ON transaction USING gin (lower(reference) gin_trgm_ops)
+--rollback drop index transaction_reference_trgm_idx;
+
+--changeset uk.gov.pay:add_transaction_cardholder_name_trgm_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_cardholder_name_trgm_idx ON transaction USING gin (lower(cardholder_name) gin_trgm_ops)
+--rollback drop index transaction_cardholder_name_trgm_idx;
+
+--changeset uk.gov.pay:add_transaction_lower_email_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_lower_email_idx ON transaction(lower(email) text_pattern_ops)
+--rollback drop index transaction_lower_email_idx;
+
+--changeset uk.gov.pay:add_transaction_lower_reference_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_lower_reference_idx ON transaction(lower(reference) text_pattern_ops)
+--rollback drop index transaction_lower_reference_idx;
+
+--changeset uk.gov.pay:add_transaction_lower_cardholder_name_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_lower_cardholder_name_idx ON transaction(lower(cardholder_name) text_pattern_ops)
+--rollback drop index transaction_lower_cardholder_name_idx;
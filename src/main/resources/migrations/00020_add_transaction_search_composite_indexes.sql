@@ -0,0 +1,38 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:add_transaction_gateway_account_id_state_created_date_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_gateway_account_id_state_created_date_idx ON transaction(gateway_account_id, state, created_date)
+--rollback drop index transaction_gateway_account_id_state_created_date_idx;
+
+--changeset uk.gov.pay:add_transaction_gateway_account_id_card_brand_created_date_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_gateway_account_id_card_brand_created_date_idx ON transaction(gateway_account_id, card_brand, created_date)
+--rollback drop index transaction_gateway_account_id_card_brand_created_date_idx;
+
+--changeset uk.gov.pay:add_transaction_gateway_account_id_last_digits_created_date_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_gateway_account_id_last_digits_created_date_idx ON transaction(gateway_account_id, last_digits_card_number, created_date)
+--rollback drop index transaction_gateway_account_id_last_digits_created_date_idx;
+
+--changeset uk.gov.pay:add_transaction_gateway_account_id_first_digits_created_date_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_gateway_account_id_first_digits_created_date_idx ON transaction(gateway_account_id, first_digits_card_number, created_date)
+--rollback drop index transaction_gateway_account_id_first_digits_created_date_idx;
+
+--changeset uk.gov.pay:drop_index_transaction_gateway_account_id_idx runInTransaction:false
+-- Searches by gateway_account_id use the composite indexes above, and lookups by external_id use its unique constraint.
+DROP INDEX CONCURRENTLY IF EXISTS transaction_gateway_account_id_idx
+--rollback CREATE INDEX transaction_gateway_account_id_idx ON transaction(gateway_account_id);
+
+--changeset uk.gov.pay:drop_index_transaction_card_brand_idx runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS transaction_card_brand_idx
+--rollback CREATE INDEX transaction_card_brand_idx ON transaction(card_brand);
+
+--changeset uk.gov.pay:drop_index_transaction_last_digits_card_number_idx runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS transaction_last_digits_card_number_idx
+--rollback CREATE INDEX transaction_last_digits_card_number_idx ON transaction(last_digits_card_number);
+
+--changeset uk.gov.pay:drop_index_transaction_first_digits_card_number_idx runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS transaction_first_digits_card_number_idx
+--rollback CREATE INDEX transaction_first_digits_card_number_idx ON transaction(first_digits_card_number);
+
+--changeset uk.gov.pay:drop_index_transaction_state_idx runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS transaction_state_idx
+--rollback CREATE INDEX transaction_state_idx ON transaction(state);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:add_transaction_gateway_account_id_type_state_created_date_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transaction_gateway_account_id_type_state_created_date_idx ON transaction(gateway_account_id, type, state, created_date)
+--rollback drop index transaction_gateway_account_id_type_state_created_date_idx;
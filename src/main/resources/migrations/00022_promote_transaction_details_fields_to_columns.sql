@@ -0,0 +1,18 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:promote_transaction_details_fields_to_columns
+
+ALTER TABLE transaction
+    ADD COLUMN language VARCHAR(255),
+    ADD COLUMN return_url TEXT,
+    ADD COLUMN payment_provider TEXT,
+    ADD COLUMN delayed_capture BOOLEAN,
+    ADD COLUMN corporate_surcharge BIGINT,
+    ADD COLUMN address_line1 VARCHAR(255),
+    ADD COLUMN address_line2 VARCHAR(255),
+    ADD COLUMN address_postcode VARCHAR(255),
+    ADD COLUMN address_city VARCHAR(255),
+    ADD COLUMN address_county VARCHAR(255),
+    ADD COLUMN address_country VARCHAR(255),
+    ADD COLUMN card_expiry_date VARCHAR(255);
+--rollback ALTER TABLE transaction DROP COLUMN language, DROP COLUMN return_url, DROP COLUMN payment_provider, DROP COLUMN delayed_capture, DROP COLUMN corporate_surcharge, DROP COLUMN address_line1, DROP COLUMN address_line2, DROP COLUMN address_postcode, DROP COLUMN address_city, DROP COLUMN address_county, DROP COLUMN address_country, DROP COLUMN card_expiry_date;
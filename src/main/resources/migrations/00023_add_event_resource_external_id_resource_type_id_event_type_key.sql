@@ -0,0 +1,39 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:add_event_resource_external_id_resource_type_id_event_type_key runInTransaction:false
+-- Deletes duplicate events, keeping the earliest event for each key, and then builds the unique index concurrently.
+-- They are in one changeset, so if a duplicate inserted in between makes the index build fail, the changeset is not
+-- marked as run and the next run deletes the duplicates again. A failed concurrent build leaves an INVALID index
+-- behind, so any index of that name is dropped before the index is built.
+--
+-- Each statement commits on its own. The DELETE only locks the duplicate rows it removes, but it joins the whole event
+-- table, so run this when ingestion is quiet. Deleted duplicates are not restored by the rollback. Back up the event
+-- table first if they may be needed.
+--
+-- The event_count of a transaction was counted with its duplicates, so it is lowered in the same statement to the
+-- number of events left. Otherwise the next events for the resource would not have a higher count and would be
+-- ignored by the upsert. The UPDATE sees the events from before the DELETE, so the deleted events are subtracted.
+WITH deleted_event AS (
+    DELETE FROM event e
+    USING event earlier
+    WHERE e.resource_external_id = earlier.resource_external_id
+      AND e.resource_type_id = earlier.resource_type_id
+      AND e.event_type = earlier.event_type
+      AND e.id > earlier.id
+    RETURNING e.id, e.resource_external_id
+), deleted_event_count AS (
+    SELECT resource_external_id, count(DISTINCT id) AS deleted_count FROM deleted_event GROUP BY resource_external_id
+)
+UPDATE transaction t
+SET event_count = (SELECT count(*) FROM event e WHERE e.resource_external_id = t.external_id) - d.deleted_count
+FROM deleted_event_count d
+WHERE t.external_id = d.resource_external_id;
+
+DROP INDEX CONCURRENTLY IF EXISTS event_resource_external_id_resource_type_id_event_type_key;
+
+CREATE UNIQUE INDEX CONCURRENTLY event_resource_external_id_resource_type_id_event_type_key ON event(resource_external_id, resource_type_id, event_type);
+--rollback drop index event_resource_external_id_resource_type_id_event_type_key;
+
+--changeset uk.gov.pay:drop_index_resource_external_idx runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS index_resource_external_idx
+--rollback CREATE INDEX index_resource_external_idx ON event(resource_external_id);
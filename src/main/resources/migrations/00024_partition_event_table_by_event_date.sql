@@ -0,0 +1,96 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_table_event_key
+CREATE TABLE event_key
+(
+    resource_external_id VARCHAR(255),
+    resource_type_id INT NOT NULL,
+    event_type VARCHAR(255)
+);
+
+CREATE UNIQUE INDEX event_key_resource_external_id_resource_type_id_event_type_key ON event_key(resource_external_id, resource_type_id, event_type);
+--rollback drop table event_key;
+
+--changeset uk.gov.pay:backfill_event_key
+-- The SHARE lock stops events being inserted while their keys are copied, so no event is left without a key.
+-- Reads of the event table carry on. Ingestion waits for the lock, and messages that time out are retried.
+LOCK TABLE event IN SHARE MODE;
+INSERT INTO event_key(resource_external_id, resource_type_id, event_type)
+SELECT resource_external_id, resource_type_id, event_type FROM event
+ON CONFLICT (resource_external_id, resource_type_id, event_type) DO NOTHING;
+--rollback TRUNCATE TABLE event_key;
+
+--changeset uk.gov.pay:add_event_history_id_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS event_history_id_idx ON event(id)
+--rollback drop index event_history_id_idx;
+
+--changeset uk.gov.pay:add_event_history_resource_external_id_event_date_idx runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS event_history_resource_external_id_event_date_idx ON event(resource_external_id, event_date)
+--rollback drop index event_history_resource_external_id_event_date_idx;
+
+--changeset uk.gov.pay:add_event_history_event_date_check splitStatements:false
+-- The existing events are attached as the partition for everything before the first of next month. This check proves
+-- that range, so attaching the partition does not have to scan the table. It is added NOT VALID here and validated
+-- in the next changeset, which only takes a SHARE UPDATE EXCLUSIVE lock.
+DO $$
+DECLARE
+    cutoff TIMESTAMP WITH TIME ZONE := date_trunc('month', now() AT TIME ZONE 'utc') AT TIME ZONE 'utc' + INTERVAL '1 month';
+BEGIN
+    EXECUTE format('ALTER TABLE event ADD CONSTRAINT event_history_event_date_check CHECK (event_date < %L) NOT VALID', cutoff);
+END $$;
+--rollback ALTER TABLE event DROP CONSTRAINT IF EXISTS event_history_event_date_check;
+
+--changeset uk.gov.pay:validate_event_history_event_date_check
+ALTER TABLE event VALIDATE CONSTRAINT event_history_event_date_check;
+
+--changeset uk.gov.pay:partition_event_table_by_event_date splitStatements:false
+ALTER TABLE event RENAME TO event_history;
+
+CREATE TABLE event
+(
+    id BIGINT DEFAULT nextval('event_id_seq') NOT NULL,
+    sqs_message_id VARCHAR(255) NOT NULL,
+    resource_type_id INT NOT NULL,
+    resource_external_id VARCHAR(255),
+    event_date TIMESTAMP WITH TIME ZONE DEFAULT (now() AT TIME ZONE 'utc') NOT NULL,
+    event_type VARCHAR (255),
+    event_data jsonb NOT NULL,
+    parent_resource_external_id VARCHAR(255),
+    CONSTRAINT event_resource_type_id_fk FOREIGN KEY (resource_type_id) REFERENCES resource_type (id)
+) PARTITION BY RANGE (event_date);
+
+ALTER SEQUENCE event_id_seq OWNED BY event.id;
+
+CREATE INDEX event_id_idx ON event(id);
+CREATE INDEX event_resource_external_id_event_date_idx ON event(resource_external_id, event_date);
+CREATE INDEX event_parent_resource_external_id_idx ON event(parent_resource_external_id);
+
+-- The partition range is read back from the validated check, so it matches even if the month has changed since then.
+DO $$
+DECLARE
+    cutoff TIMESTAMP WITH TIME ZONE;
+    partition_start TIMESTAMP WITH TIME ZONE;
+BEGIN
+    SELECT CAST(substring(pg_get_constraintdef(c.oid) FROM '''([^'']+)''') AS TIMESTAMP WITH TIME ZONE)
+    INTO STRICT cutoff
+    FROM pg_constraint c
+    WHERE c.conname = 'event_history_event_date_check' AND c.conrelid = 'event_history'::regclass AND c.convalidated;
+
+    EXECUTE format('ALTER TABLE event ATTACH PARTITION event_history FOR VALUES FROM (MINVALUE) TO (%L)', cutoff);
+    FOR i IN 0..2 LOOP
+        partition_start := cutoff + i * INTERVAL '1 month';
+        EXECUTE format('CREATE TABLE event_%s PARTITION OF event FOR VALUES FROM (%L) TO (%L)',
+                to_char(partition_start AT TIME ZONE 'utc', 'YYYY_MM'), partition_start, partition_start + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+CREATE TABLE event_default PARTITION OF event DEFAULT;
+
+DROP INDEX event_resource_external_id_resource_type_id_event_type_key;
+--rollback ALTER TABLE event DETACH PARTITION event_history;
+--rollback ALTER TABLE event_history DROP CONSTRAINT event_history_event_date_check;
+--rollback INSERT INTO event_history SELECT * FROM event;
+--rollback ALTER SEQUENCE event_id_seq OWNED BY event_history.id;
+--rollback DROP TABLE event;
+--rollback ALTER TABLE event_history RENAME TO event;
+--rollback CREATE UNIQUE INDEX event_resource_external_id_resource_type_id_event_type_key ON event(resource_external_id, resource_type_id, event_type);
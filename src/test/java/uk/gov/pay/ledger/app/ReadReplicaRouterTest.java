@@ -0,0 +1,75 @@
+package uk.gov.pay.ledger.app;
+
+import org.jdbi.v3.core.Jdbi;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.app.config.ReadDatabaseConfig;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReadReplicaRouterTest {
+
+    @Mock
+    private Jdbi primary;
+    @Mock
+    private Jdbi replica;
+    @Mock
+    private ReadDatabaseConfig config;
+
+    private Clock clock = Clock.fixed(Instant.parse("2019-08-01T10:00:00Z"), ZoneOffset.UTC);
+
+    @Before
+    public void setUp() {
+        when(config.getMaximumReplicationLagInSeconds()).thenReturn(5);
+        when(config.getReplicationLagCheckIntervalInSeconds()).thenReturn(1);
+    }
+
+    @Test
+    public void shouldReadFromPrimary_whenThereIsNoReplica() {
+        ReadReplicaRouter router = new ReadReplicaRouter(primary, null, config, clock);
+
+        assertThat(router.forReads(), is(sameInstance(primary)));
+    }
+
+    @Test
+    public void shouldReadFromReplica_whenReplicationLagIsWithinMaximum() {
+        when(replica.withHandle(any())).thenReturn(2.5);
+        ReadReplicaRouter router = new ReadReplicaRouter(primary, replica, config, clock);
+
+        assertThat(router.forReads(), is(sameInstance(replica)));
+        assertThat(router.forReads(), is(sameInstance(replica)));
+        assertThat(router.isReplicaInUse(), is(true));
+        verify(replica, times(1)).withHandle(any());
+    }
+
+    @Test
+    public void shouldReadFromPrimary_whenReplicationLagIsTooHigh() {
+        when(replica.withHandle(any())).thenReturn(30.0);
+        ReadReplicaRouter router = new ReadReplicaRouter(primary, replica, config, clock);
+
+        assertThat(router.forReads(), is(sameInstance(primary)));
+    }
+
+    @Test
+    public void shouldReadFromPrimary_whenReplicationLagCannotBeChecked() {
+        when(replica.withHandle(any())).thenThrow(new RuntimeException("connection refused"));
+        ReadReplicaRouter router = new ReadReplicaRouter(primary, replica, config, clock);
+
+        assertThat(router.forReads(), is(sameInstance(primary)));
+        assertThat(router.isReplicaInUse(), is(false));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 import uk.gov.pay.ledger.event.model.Event;
+import uk.gov.pay.ledger.event.model.ResourceType;
 import uk.gov.pay.ledger.rule.AppWithPostgresAndSqsRule;
 import uk.gov.pay.ledger.util.DatabaseTestHelper;
 
@@ -35,12 +36,14 @@ public class EventDaoIT {
 
     private EventDao eventDao;
     private ResourceTypeDao resourceTypeDao;
+    private ResourceTypeIdCache resourceTypeIdCache;
     private DatabaseTestHelper dbHelper;
 
     @Before
     public void setUp() {
         eventDao = rule.getJdbi().onDemand(EventDao.class);
         resourceTypeDao = rule.getJdbi().onDemand(ResourceTypeDao.class);
+        resourceTypeIdCache = new ResourceTypeIdCache(resourceTypeDao);
         dbHelper = aDatabaseTestHelper(rule.getJdbi());
     }
 
@@ -51,9 +54,9 @@ public class EventDaoIT {
                 .withParentResourceExternalId("parent-resource-id")
                 .toEntity();
 
-        eventDao.insertEventWithResourceTypeId(event);
+        int resourceTypeId = resourceTypeIdCache.getResourceTypeId(event.getResourceType());
+        eventDao.insert(event, resourceTypeId);
 
-        int resourceTypeId = resourceTypeDao.getResourceTypeIdByName(event.getResourceType().name());
         Map<String, Object> result = dbHelper.getEventByExternalId(event.getResourceExternalId());
         assertThat(result.get("sqs_message_id"), is(event.getSqsMessageId()));
         assertThat(result.get("resource_type_id"), is(resourceTypeId));
@@ -70,11 +73,11 @@ public class EventDaoIT {
                 .withEventDate(CREATED_AT)
                 .toEntity();
 
-        Optional<Long> status = eventDao.insertEventIfDoesNotExistWithResourceTypeId(event);
+        int resourceTypeId = resourceTypeIdCache.getResourceTypeId(event.getResourceType());
+        Optional<Long> status = eventDao.insertIfDoesNotExist(event, resourceTypeId);
 
         assertTrue(status.isPresent());
 
-        int resourceTypeId = resourceTypeDao.getResourceTypeIdByName(event.getResourceType().name());
         Map<String, Object> result = dbHelper.getEventByExternalId(event.getResourceExternalId());
         assertThat(result.get("sqs_message_id"), is(event.getSqsMessageId()));
         assertThat(result.get("resource_type_id"), is(resourceTypeId));
@@ -84,6 +87,24 @@ public class EventDaoIT {
         assertThat(objectMapper.readTree(result.get("event_data").toString()), is(objectMapper.readTree(event.getEventData())));
     }
 
+    @Test
+    public void shouldNotInsertEventOfSameTypeForResource_whenEventDateIsDifferent() {
+        Event event = anEventFixture()
+                .insert(rule.getJdbi())
+                .toEntity();
+        Event laterEvent = anEventFixture()
+                .from(event)
+                .withSQSMessageId(RandomStringUtils.randomAlphanumeric(50))
+                .withEventDate(event.getEventDate().plusMinutes(1))
+                .toEntity();
+
+        Optional<Long> status = eventDao.insertIfDoesNotExist(laterEvent,
+                resourceTypeIdCache.getResourceTypeId(laterEvent.getResourceType()));
+
+        assertFalse(status.isPresent());
+        assertThat(dbHelper.getEventsCountByExternalId(event.getResourceExternalId()), is(1));
+    }
+
     @Test
     public void shouldNotInsertDuplicateEvent() throws IOException {
         Event event = anEventFixture()
@@ -96,11 +117,11 @@ public class EventDaoIT {
                 .withEventData("{\"event_data\": \"duplicate event data\"}")
                 .toEntity();
 
-        Optional<Long> status = eventDao.insertEventIfDoesNotExistWithResourceTypeId(duplicateEvent);
+        int resourceTypeId = resourceTypeIdCache.getResourceTypeId(event.getResourceType());
+        Optional<Long> status = eventDao.insertIfDoesNotExist(duplicateEvent, resourceTypeId);
 
         assertFalse(status.isPresent());
 
-        int resourceTypeId = resourceTypeDao.getResourceTypeIdByName(event.getResourceType().name());
         Map<String, Object> result = dbHelper.getEventByExternalId(event.getResourceExternalId());
         int numberOfEvents = dbHelper.getEventsCountByExternalId(event.getResourceExternalId());
         assertThat(numberOfEvents, is(1));
@@ -112,6 +133,93 @@ public class EventDaoIT {
         assertThat(objectMapper.readTree(result.get("event_data").toString()), is(objectMapper.readTree(event.getEventData())));
     }
 
+    @Test
+    public void shouldInsertBatchOfEventsIgnoringExistingEvents() {
+        Event existingEvent = anEventFixture()
+                .insert(rule.getJdbi())
+                .toEntity();
+        Event duplicateEvent = anEventFixture()
+                .from(existingEvent)
+                .withSQSMessageId(RandomStringUtils.randomAlphanumeric(50))
+                .toEntity();
+        Event newEvent = anEventFixture()
+                .withEventDate(CREATED_AT)
+                .withParentResourceExternalId("parent-resource-id")
+                .toEntity();
+
+        int resourceTypeId = resourceTypeIdCache.getResourceTypeId(newEvent.getResourceType());
+        List<Long> insertedIds = eventDao.insertIfDoNotExist(List.of(
+                new EventWithResourceTypeId(duplicateEvent, resourceTypeId),
+                new EventWithResourceTypeId(newEvent, resourceTypeId)));
+
+        assertThat(insertedIds.size(), is(1));
+        assertThat(dbHelper.getEventsCountByExternalId(existingEvent.getResourceExternalId()), is(1));
+        Map<String, Object> result = dbHelper.getEventByExternalId(newEvent.getResourceExternalId());
+        assertThat(result.get("sqs_message_id"), is(newEvent.getSqsMessageId()));
+        assertThat(result.get("resource_type_id"), is(resourceTypeId));
+        assertThat(result.get("parent_resource_external_id"), is(newEvent.getParentResourceExternalId()));
+        assertThat((Timestamp) result.get("event_date"), isDate(CREATED_AT));
+    }
+
+    @Test
+    public void shouldGetEventsForMultipleResourceExternalIdsGroupedByResource() {
+        Event firstResourceEarlierEvent = anEventFixture()
+                .withResourceExternalId("resource-a")
+                .withEventDate(ZonedDateTime.now().minusHours(2))
+                .insert(rule.getJdbi())
+                .toEntity();
+        Event secondResourceEvent = anEventFixture()
+                .withResourceExternalId("resource-b")
+                .insert(rule.getJdbi())
+                .toEntity();
+        Event firstResourceLaterEvent = anEventFixture()
+                .withResourceExternalId("resource-a")
+                .withEventDate(ZonedDateTime.now().minusHours(1))
+                .withEventType("AUTHORISATION_SUCCEEDED")
+                .insert(rule.getJdbi())
+                .toEntity();
+
+        List<Event> events = eventDao.getEventsByResourceExternalIds(List.of("resource-a", "resource-b"));
+
+        assertThat(events.size(), is(3));
+        assertThat(events.get(0).getId(), is(firstResourceLaterEvent.getId()));
+        assertThat(events.get(1).getId(), is(firstResourceEarlierEvent.getId()));
+        assertThat(events.get(2).getId(), is(secondResourceEvent.getId()));
+    }
+
+    @Test
+    public void shouldDetectWhetherEventIsMostRecentForResource() {
+        Event earlierEvent = anEventFixture()
+                .withResourceExternalId("resource-c")
+                .withEventDate(ZonedDateTime.now().minusHours(2))
+                .insert(rule.getJdbi())
+                .toEntity();
+        Event laterEvent = anEventFixture()
+                .withResourceExternalId("resource-c")
+                .withEventDate(ZonedDateTime.now().minusHours(1))
+                .withEventType("AUTHORISATION_SUCCEEDED")
+                .insert(rule.getJdbi())
+                .toEntity();
+
+        assertThat(eventDao.hasEventCountWithNoLaterEvents("resource-c", 2, laterEvent.getEventDate(), null), is(true));
+        assertThat(eventDao.hasEventCountWithNoLaterEvents("resource-c", 2, earlierEvent.getEventDate(), null), is(false));
+        assertThat(eventDao.hasEventCountWithNoLaterEvents("resource-c", 3, laterEvent.getEventDate(), null), is(false));
+        assertThat(eventDao.hasEventCountWithNoLaterEvents("resource-c", 2, laterEvent.getEventDate(),
+                earlierEvent.getEventDate()), is(true));
+        assertThat(eventDao.hasEventCountWithNoLaterEvents("resource-c", 2, laterEvent.getEventDate(),
+                laterEvent.getEventDate()), is(false));
+    }
+
+    @Test
+    public void shouldCacheResourceTypeIdsFromResourceTypeTable() {
+        Map<String, Integer> resourceTypeIds = resourceTypeDao.getResourceTypeIds();
+
+        for (ResourceType resourceType : ResourceType.values()) {
+            assertThat(resourceTypeIdCache.getResourceTypeId(resourceType),
+                    is(resourceTypeIds.get(resourceType.name().toLowerCase())));
+        }
+    }
+
     @Test
     public void shouldFindEvent() {
         Event event = anEventFixture()
@@ -143,12 +251,14 @@ public class EventDaoIT {
         Event latestEvent = anEventFixture()
                 .withResourceExternalId(resourceExternalId)
                 .withEventDate(ZonedDateTime.now().minusHours(1))
+                .withEventType("CAPTURE_CONFIRMED")
                 .insert(rule.getJdbi())
                 .toEntity();
 
         Event middleEvent = anEventFixture()
                 .withResourceExternalId(resourceExternalId)
                 .withEventDate(ZonedDateTime.now().minusHours(2))
+                .withEventType("AUTHORISATION_SUCCEEDED")
                 .insert(rule.getJdbi())
                 .toEntity();
 
@@ -0,0 +1,110 @@
+package uk.gov.pay.ledger.event.dao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.Liquibase;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import uk.gov.pay.ledger.event.model.EventDigest;
+import uk.gov.pay.ledger.event.model.TransactionEntityFactory;
+import uk.gov.pay.ledger.rule.AppWithPostgresAndSqsRule;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static uk.gov.pay.ledger.rule.PostgresTestDocker.getConnectionUrl;
+import static uk.gov.pay.ledger.rule.PostgresTestDocker.getDbPassword;
+import static uk.gov.pay.ledger.rule.PostgresTestDocker.getDbUsername;
+import static uk.gov.pay.ledger.util.fixture.EventFixture.anEventFixture;
+import static uk.gov.pay.ledger.util.fixture.TransactionFixture.aTransactionFixture;
+
+public class EventDeduplicationMigrationIT {
+
+    private static final String DB_NAME = "ledger_migration_test";
+    private static final String DEDUPLICATION_CHANGESET_ID = "add_event_resource_external_id_resource_type_id_event_type_key";
+    private static final String RESOURCE_EXTERNAL_ID = "duplicated-resource";
+    private static final ZonedDateTime CREATED_AT = ZonedDateTime.parse("2019-06-07T08:46:01.123456Z");
+
+    @ClassRule
+    public static AppWithPostgresAndSqsRule rule = new AppWithPostgresAndSqsRule();
+
+    private static Jdbi jdbi;
+
+    @BeforeClass
+    public static void setUp() {
+        rule.getJdbi().useHandle(handle -> {
+            handle.execute("DROP DATABASE IF EXISTS " + DB_NAME);
+            handle.execute("CREATE DATABASE " + DB_NAME);
+        });
+        jdbi = Jdbi.create(getConnectionUrl() + DB_NAME, getDbUsername(), getDbPassword());
+        jdbi.installPlugin(new SqlObjectPlugin());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        rule.getJdbi().useHandle(handle -> handle.execute("DROP DATABASE IF EXISTS " + DB_NAME));
+    }
+
+    @Test
+    public void shouldApplyNextEvent_afterDuplicateEventsAreDeleted() throws Exception {
+        try (Connection connection = DriverManager.getConnection(getConnectionUrl() + DB_NAME, getDbUsername(), getDbPassword())) {
+            Liquibase liquibase = new Liquibase("migrations.xml", new ClassLoaderResourceAccessor(), new JdbcConnection(connection));
+            liquibase.update(changeSetsBefore(liquibase, DEDUPLICATION_CHANGESET_ID), "");
+
+            aTransactionFixture()
+                    .withExternalId(RESOURCE_EXTERNAL_ID)
+                    .withEventCount(3)
+                    .insert(jdbi);
+            insertEventBeforeDeduplication("PAYMENT_CREATED", CREATED_AT);
+            insertEventBeforeDeduplication("PAYMENT_CREATED", CREATED_AT);
+            insertEventBeforeDeduplication("AUTHORISATION_SUCCEEDED", CREATED_AT.plusMinutes(1));
+
+            liquibase.update("");
+        }
+
+        TransactionDao transactionDao = new TransactionDao(jdbi);
+        assertThat(transactionDao.findTransactionByExternalId(RESOURCE_EXTERNAL_ID).get().getEventCount(), is(2));
+
+        anEventFixture()
+                .withResourceExternalId(RESOURCE_EXTERNAL_ID)
+                .withEventType("CAPTURE_CONFIRMED")
+                .withEventDate(CREATED_AT.plusMinutes(2))
+                .withEventData("{}")
+                .insert(jdbi);
+        EventDigest eventDigest = EventDigest.fromEventList(jdbi.onDemand(EventDao.class).getEventsByResourceExternalId(RESOURCE_EXTERNAL_ID));
+        transactionDao.upsert(new TransactionEntityFactory(new ObjectMapper()).create(eventDigest));
+
+        TransactionEntity transaction = transactionDao.findTransactionByExternalId(RESOURCE_EXTERNAL_ID).get();
+        assertThat(transaction.getEventCount(), is(3));
+        assertThat(transaction.getState(), is("success"));
+    }
+
+    private static int changeSetsBefore(Liquibase liquibase, String changeSetId) throws Exception {
+        List<ChangeSet> changeSets = liquibase.getDatabaseChangeLog().getChangeSets();
+        for (int i = 0; i < changeSets.size(); i++) {
+            if (changeSets.get(i).getId().equals(changeSetId)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No changeset " + changeSetId);
+    }
+
+    private static void insertEventBeforeDeduplication(String eventType, ZonedDateTime eventDate) {
+        jdbi.useHandle(handle -> handle.execute(
+                "INSERT INTO event(sqs_message_id, resource_type_id, resource_external_id, event_date, event_type, event_data) " +
+                        "VALUES(?, (SELECT id FROM resource_type WHERE name = 'payment'), ?, ?, ?, CAST(? as jsonb))",
+                "sqs-message-" + eventType, RESOURCE_EXTERNAL_ID, eventDate, eventType, "{\"amount\": 1000}"));
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.pay.ledger.event.dao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import uk.gov.pay.ledger.rule.AppWithPostgresAndSqsRule;
+import uk.gov.pay.ledger.transaction.state.TransactionState;
+import uk.gov.pay.ledger.util.DatabaseTestHelper;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static uk.gov.pay.ledger.util.DatabaseTestHelper.aDatabaseTestHelper;
+import static uk.gov.pay.ledger.util.fixture.EventFixture.anEventFixture;
+import static uk.gov.pay.ledger.util.fixture.TransactionFixture.aTransactionFixture;
+
+public class EventPartitionDaoIT {
+
+    @ClassRule
+    public static AppWithPostgresAndSqsRule rule = new AppWithPostgresAndSqsRule();
+
+    private static final YearMonth FUTURE_MONTH = YearMonth.of(2100, 1);
+
+    private EventPartitionDao eventPartitionDao;
+    private DatabaseTestHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        dbHelper = aDatabaseTestHelper(rule.getJdbi());
+        dbHelper.truncateAllData();
+        eventPartitionDao = new EventPartitionDao(rule.getJdbi());
+    }
+
+    @After
+    public void tearDown() {
+        rule.getJdbi().useHandle(handle -> handle.execute("DROP TABLE IF EXISTS event_2100_01"));
+    }
+
+    @Test
+    public void shouldHaveHistoryDefaultAndCurrentMonthPartitionsAfterMigration() {
+        assertThat(eventPartitionDao.findPartitionNames(), hasItem("event_history"));
+        assertThat(eventPartitionDao.findPartitionNames(), hasItem("event_default"));
+        assertThat(eventPartitionDao.findMonthlyPartitions(), hasItem(YearMonth.now(ZoneOffset.UTC).plusMonths(1)));
+    }
+
+    @Test
+    public void shouldCreateAndDetachMonthlyPartition() {
+        eventPartitionDao.createMonthlyPartition(FUTURE_MONTH);
+        eventPartitionDao.createMonthlyPartition(FUTURE_MONTH);
+        anEventFixture()
+                .withResourceExternalId("resource-in-2100")
+                .withEventDate(ZonedDateTime.of(2100, 1, 31, 23, 59, 0, 0, ZoneOffset.UTC))
+                .insert(rule.getJdbi());
+
+        assertThat(eventPartitionDao.findMonthlyPartitions(), hasItem(FUTURE_MONTH));
+        assertThat(dbHelper.getEventsCountByExternalId("resource-in-2100"), is(1));
+
+        eventPartitionDao.detachMonthlyPartition(FUTURE_MONTH);
+
+        assertThat(eventPartitionDao.findMonthlyPartitions(), not(hasItem(FUTURE_MONTH)));
+        assertThat(dbHelper.getEventsCountByExternalId("resource-in-2100"), is(0));
+    }
+
+    @Test
+    public void shouldCountResourcesWithUnfinishedTransactionsOrEventsInOtherPartitionsAsOpen() {
+        eventPartitionDao.createMonthlyPartition(FUTURE_MONTH);
+        ZonedDateTime eventDate = ZonedDateTime.of(2100, 1, 15, 10, 0, 0, 0, ZoneOffset.UTC);
+        aTransactionFixture().withExternalId("closed-resource").withState(TransactionState.SUCCESS).insert(rule.getJdbi());
+        anEventFixture().withResourceExternalId("closed-resource").withEventDate(eventDate).insert(rule.getJdbi());
+
+        assertThat(eventPartitionDao.countOpenResources(List.of(FUTURE_MONTH)), is(0L));
+
+        aTransactionFixture().withExternalId("unfinished-resource").withState(TransactionState.SUBMITTED).insert(rule.getJdbi());
+        anEventFixture().withResourceExternalId("unfinished-resource").withEventDate(eventDate).insert(rule.getJdbi());
+        anEventFixture().withResourceExternalId("resource-with-later-events").withEventDate(eventDate).insert(rule.getJdbi());
+        anEventFixture().withResourceExternalId("resource-with-later-events")
+                .withEventType("CAPTURE_CONFIRMED")
+                .withEventDate(eventDate.plusMonths(1))
+                .insert(rule.getJdbi());
+
+        assertThat(eventPartitionDao.countOpenResources(List.of(FUTURE_MONTH)), is(2L));
+    }
+}
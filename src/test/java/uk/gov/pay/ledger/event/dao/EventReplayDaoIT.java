@@ -0,0 +1,84 @@
+package uk.gov.pay.ledger.event.dao;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import uk.gov.pay.ledger.event.model.Event;
+import uk.gov.pay.ledger.rule.AppWithPostgresAndSqsRule;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static uk.gov.pay.ledger.util.DatabaseTestHelper.aDatabaseTestHelper;
+import static uk.gov.pay.ledger.util.fixture.EventFixture.anEventFixture;
+
+public class EventReplayDaoIT {
+
+    @ClassRule
+    public static AppWithPostgresAndSqsRule rule = new AppWithPostgresAndSqsRule();
+
+    private static final ZonedDateTime CREATED_AT = ZonedDateTime.parse("2019-06-07T08:46:01.123456Z");
+
+    private EventReplayDao eventReplayDao;
+
+    @Before
+    public void setUp() {
+        aDatabaseTestHelper(rule.getJdbi()).truncateAllData();
+        eventReplayDao = new EventReplayDao(rule.getJdbi());
+    }
+
+    @Test
+    public void shouldStreamEventsInRangeGroupedByResourceWithMostRecentFirst() {
+        insertEvent("resource-a", CREATED_AT);
+        Event laterEvent = insertEvent("resource-b", CREATED_AT.plusMinutes(1), "AUTHORISATION_SUCCEEDED");
+        Event earlierEvent = insertEvent("resource-b", CREATED_AT);
+        insertEvent("resource-c", CREATED_AT);
+
+        List<Event> events = new ArrayList<>();
+        eventReplayDao.streamEvents("resource-b", "resource-c", 1, events::add);
+
+        assertThat(events.size(), is(2));
+        assertThat(events.get(0).getId(), is(laterEvent.getId()));
+        assertThat(events.get(1).getId(), is(earlierEvent.getId()));
+    }
+
+    @Test
+    public void shouldStreamAllEventsWhenRangeIsUnbounded() {
+        insertEvent("resource-a", CREATED_AT);
+        insertEvent("resource-b", CREATED_AT);
+
+        List<Event> events = new ArrayList<>();
+        eventReplayDao.streamEvents(null, null, 10, events::add);
+
+        assertThat(events.stream().map(Event::getResourceExternalId).collect(Collectors.toList()),
+                is(List.of("resource-a", "resource-b")));
+    }
+
+    @Test
+    public void shouldReturnOrderedDistinctBoundaries() {
+        for (int i = 0; i < 20; i++) {
+            insertEvent(String.format("resource-%02d", i), CREATED_AT);
+        }
+
+        List<String> boundaries = eventReplayDao.getResourceExternalIdBoundaries(4, 100);
+
+        assertThat(boundaries, is(List.of("resource-04", "resource-09", "resource-14")));
+    }
+
+    private Event insertEvent(String resourceExternalId, ZonedDateTime eventDate) {
+        return insertEvent(resourceExternalId, eventDate, "PAYMENT_CREATED");
+    }
+
+    private Event insertEvent(String resourceExternalId, ZonedDateTime eventDate, String eventType) {
+        return anEventFixture()
+                .withResourceExternalId(resourceExternalId)
+                .withEventDate(eventDate)
+                .withEventType(eventType)
+                .insert(rule.getJdbi())
+                .toEntity();
+    }
+}
@@ -0,0 +1,52 @@
+package uk.gov.pay.ledger.event.dao;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.event.model.ResourceType;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceTypeIdCacheTest {
+
+    @Mock
+    private ResourceTypeDao resourceTypeDao;
+
+    @Test
+    public void shouldReturnResourceTypeIdsLoadedOnCreation() {
+        when(resourceTypeDao.getResourceTypeIds()).thenReturn(Map.of("payment", 2, "refund", 3));
+
+        ResourceTypeIdCache cache = new ResourceTypeIdCache(resourceTypeDao);
+
+        assertThat(cache.getResourceTypeId(ResourceType.PAYMENT), is(2));
+        assertThat(cache.getResourceTypeId(ResourceType.REFUND), is(3));
+        verify(resourceTypeDao, times(1)).getResourceTypeIds();
+    }
+
+    @Test
+    public void shouldReloadResourceTypes_whenResourceTypeIsMissing() {
+        when(resourceTypeDao.getResourceTypeIds())
+                .thenReturn(Map.of("payment", 2))
+                .thenReturn(Map.of("payment", 2, "card_payment", 6));
+
+        ResourceTypeIdCache cache = new ResourceTypeIdCache(resourceTypeDao);
+
+        assertThat(cache.getResourceTypeId(ResourceType.CARD_PAYMENT), is(6));
+        verify(resourceTypeDao, times(2)).getResourceTypeIds();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrow_whenResourceTypeDoesNotExist() {
+        when(resourceTypeDao.getResourceTypeIds()).thenReturn(Map.of("payment", 2));
+
+        new ResourceTypeIdCache(resourceTypeDao).getResourceTypeId(ResourceType.AGREEMENT);
+    }
+}
@@ -0,0 +1,83 @@
+package uk.gov.pay.ledger.event.managed;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.event.dao.EventPartitionDao;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventPartitionCreatorTest {
+
+    @Mock
+    private EventPartitionDao eventPartitionDao;
+    @Mock
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private EventPartitionCreator eventPartitionCreator;
+
+    @Before
+    public void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2019-11-15T10:00:00Z"), ZoneOffset.UTC);
+        eventPartitionCreator = new EventPartitionCreator(eventPartitionDao, 3, clock, scheduledExecutorService);
+    }
+
+    @Test
+    public void shouldCreatePartitionsAfterTheLatestPartitionUpToMonthsAhead() {
+        when(eventPartitionDao.findMonthlyPartitions()).thenReturn(List.of(YearMonth.of(2019, 11), YearMonth.of(2019, 12)));
+
+        eventPartitionCreator.createPartitions();
+
+        InOrder inOrder = inOrder(eventPartitionDao);
+        inOrder.verify(eventPartitionDao).createMonthlyPartition(YearMonth.of(2020, 1));
+        inOrder.verify(eventPartitionDao).createMonthlyPartition(YearMonth.of(2020, 2));
+        inOrder.verify(eventPartitionDao, never()).createMonthlyPartition(any());
+    }
+
+    @Test
+    public void shouldCreatePartitionsFromCurrentMonth_whenThereAreNoMonthlyPartitions() {
+        when(eventPartitionDao.findMonthlyPartitions()).thenReturn(List.of());
+
+        eventPartitionCreator.createPartitions();
+
+        verify(eventPartitionDao).createMonthlyPartition(YearMonth.of(2019, 11));
+        verify(eventPartitionDao).createMonthlyPartition(YearMonth.of(2019, 12));
+        verify(eventPartitionDao).createMonthlyPartition(YearMonth.of(2020, 1));
+        verify(eventPartitionDao).createMonthlyPartition(YearMonth.of(2020, 2));
+    }
+
+    @Test
+    public void shouldNotCreatePartitions_whenEnoughMonthsAheadExist() {
+        when(eventPartitionDao.findMonthlyPartitions()).thenReturn(List.of(YearMonth.of(2020, 2)));
+
+        eventPartitionCreator.createPartitions();
+
+        verify(eventPartitionDao, never()).createMonthlyPartition(any());
+    }
+
+    @Test
+    public void shouldCreateLaterPartitions_whenCreatingAPartitionFails() {
+        when(eventPartitionDao.findMonthlyPartitions()).thenReturn(List.of(YearMonth.of(2019, 12)));
+        doThrow(new RuntimeException("lock timeout")).when(eventPartitionDao).createMonthlyPartition(YearMonth.of(2020, 1));
+
+        eventPartitionCreator.createPartitions();
+
+        verify(eventPartitionDao).createMonthlyPartition(YearMonth.of(2020, 2));
+    }
+}
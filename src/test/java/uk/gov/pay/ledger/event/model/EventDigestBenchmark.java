@@ -0,0 +1,70 @@
+package uk.gov.pay.ledger.event.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.pay.ledger.util.fixture.QueuePaymentEventFixture.aQueuePaymentEventFixture;
+
+/**
+ * Builds the digest of one payment from its events, most recent first as they are read from the event table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDigestBenchmark {
+
+    private static final List<String> EVENT_TYPES = List.of("PAYMENT_CREATED", "PAYMENT_DETAILS_ENTERED",
+            "CAPTURE_CONFIRMED", "PAYMENT_NOTIFICATION_CREATED");
+
+    @Param({"5", "50", "500"})
+    private int numberOfEvents;
+
+    private List<Event> events;
+
+    @Setup
+    public void setUp() {
+        ZonedDateTime createdDate = ZonedDateTime.parse("2019-09-01T10:15:30.123456Z");
+        events = new ArrayList<>(numberOfEvents);
+        for (int i = numberOfEvents - 1; i >= 0; i--) {
+            String eventType = EVENT_TYPES.get(Math.min(i, EVENT_TYPES.size() - 1));
+            events.add(aQueuePaymentEventFixture()
+                    .withResourceExternalId("resource-external-id")
+                    .withEventDate(createdDate.plusSeconds(i))
+                    .withEventType(eventType)
+                    .withDefaultEventDataForEventType(eventType)
+                    .toEntity());
+        }
+    }
+
+    @Benchmark
+    public EventDigest fromEventList() {
+        return EventDigest.fromEventList(events);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventDigestBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
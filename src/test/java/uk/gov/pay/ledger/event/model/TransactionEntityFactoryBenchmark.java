@@ -0,0 +1,78 @@
+package uk.gov.pay.ledger.event.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.pay.ledger.util.fixture.QueuePaymentEventFixture.aQueuePaymentEventFixture;
+
+/**
+ * Converts the digest of a captured payment into a transaction, and folds its latest event into the transaction
+ * built from the earlier events as the incremental digest does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionEntityFactoryBenchmark {
+
+    private final TransactionEntityFactory transactionEntityFactory = new TransactionEntityFactory(new ObjectMapper());
+    private EventDigest eventDigest;
+    private TransactionEntity transaction;
+    private Event latestEvent;
+
+    @Setup
+    public void setUp() {
+        ZonedDateTime createdDate = ZonedDateTime.parse("2019-09-01T10:15:30.123456Z");
+        latestEvent = event("CAPTURE_CONFIRMED", createdDate.plusMinutes(2));
+        Event paymentDetailsEvent = event("PAYMENT_DETAILS_ENTERED", createdDate.plusMinutes(1));
+        Event paymentCreatedEvent = event("PAYMENT_CREATED", createdDate);
+
+        eventDigest = EventDigest.fromEventList(List.of(latestEvent, paymentDetailsEvent, paymentCreatedEvent));
+        transaction = transactionEntityFactory.create(EventDigest.fromEventList(List.of(paymentDetailsEvent, paymentCreatedEvent)));
+    }
+
+    @Benchmark
+    public TransactionEntity create() {
+        return transactionEntityFactory.create(eventDigest);
+    }
+
+    @Benchmark
+    public TransactionEntity fold() {
+        return transactionEntityFactory.fold(transaction, latestEvent);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionEntityFactoryBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static Event event(String eventType, ZonedDateTime eventDate) {
+        return aQueuePaymentEventFixture()
+                .withResourceExternalId("resource-external-id")
+                .withEventDate(eventDate)
+                .withEventType(eventType)
+                .withDefaultEventDataForEventType(eventType)
+                .toEntity();
+    }
+}
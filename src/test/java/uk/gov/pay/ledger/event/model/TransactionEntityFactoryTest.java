@@ -8,6 +8,7 @@ import org.junit.rules.ExpectedException;
 import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 
 import java.io.IOException;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -68,6 +69,17 @@ public class TransactionEntityFactoryTest {
         assertThat(transactionEntity.getTotalAmount(), is(((Integer)eventDigest.getEventPayload().get("total_amount")).longValue()));
         assertThat(transactionEntity.getFee(), is(((Integer)eventDigest.getEventPayload().get("fee")).longValue()));
         assertThat(transactionEntity.getTransactionType(), is("PAYMENT"));
+        assertThat(transactionEntity.getLanguage(), is("en"));
+        assertThat(transactionEntity.getReturnUrl(), is("https://example.org"));
+        assertThat(transactionEntity.getPaymentProvider(), is("sandbox"));
+        assertThat(transactionEntity.getDelayedCapture(), is(false));
+        assertThat(transactionEntity.getGatewayTransactionId(), is(eventDigest.getEventPayload().get("gateway_transaction_id")));
+        assertThat(transactionEntity.getCorporateSurcharge(), is(5L));
+        assertThat(transactionEntity.getAddressLine1(), is("12 Rouge Avenue"));
+        assertThat(transactionEntity.getAddressPostcode(), is("N1 3QU"));
+        assertThat(transactionEntity.getAddressCity(), is("London"));
+        assertThat(transactionEntity.getAddressCountry(), is("GB"));
+        assertThat(transactionEntity.getCardExpiryDate(), is("11/21"));
 
         var expectedTransactionDetails = String.format("{" +
                         "\"language\":\"en\"," +
@@ -130,4 +142,56 @@ public class TransactionEntityFactoryTest {
 
         assertThat(transactionEntity.getState(), is("started"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fold_ShouldProduceSameTransactionAsFullReplay() {
+        ZonedDateTime createdDate = ZonedDateTime.parse("2019-09-01T10:00:00Z");
+        Event paymentCreatedEvent = aQueuePaymentEventFixture()
+                .withResourceExternalId("resource-external-id")
+                .withEventDate(createdDate)
+                .withEventType(SalientEventType.PAYMENT_CREATED.name())
+                .withDefaultEventDataForEventType(SalientEventType.PAYMENT_CREATED.name())
+                .toEntity();
+        Event paymentDetailsEvent = aQueuePaymentEventFixture()
+                .withResourceExternalId("resource-external-id")
+                .withEventDate(createdDate.plusMinutes(1))
+                .withEventType("PAYMENT_DETAILS_ENTERED")
+                .withDefaultEventDataForEventType("PAYMENT_DETAILS_ENTERED")
+                .toEntity();
+        Event nonSalientEvent = aQueuePaymentEventFixture()
+                .withResourceExternalId("resource-external-id")
+                .withEventDate(createdDate.plusMinutes(2))
+                .withEventType("NON_STATE_TRANSITION_EVENT")
+                .withEventData("{\"net_amount\": 55, \"corporate_surcharge\": 7}")
+                .toEntity();
+
+        TransactionEntity existingTransaction = transactionEntityFactory.create(
+                EventDigest.fromEventList(List.of(paymentDetailsEvent, paymentCreatedEvent)));
+        TransactionEntity replayed = transactionEntityFactory.create(
+                EventDigest.fromEventList(List.of(nonSalientEvent, paymentDetailsEvent, paymentCreatedEvent)));
+
+        TransactionEntity folded = transactionEntityFactory.fold(existingTransaction, nonSalientEvent);
+
+        assertThat(folded.getExternalId(), is(replayed.getExternalId()));
+        assertThat(folded.getState(), is(replayed.getState()));
+        assertThat(folded.getCreatedDate(), is(replayed.getCreatedDate()));
+        assertThat(folded.getEventCount(), is(replayed.getEventCount()));
+        assertThat(folded.getAmount(), is(replayed.getAmount()));
+        assertThat(folded.getNetAmount(), is(55L));
+        assertThat(folded.getCardholderName(), is(replayed.getCardholderName()));
+        assertThat(folded.getTransactionType(), is(replayed.getTransactionType()));
+        assertThat(folded.getTransactionDetails(), is(replayed.getTransactionDetails()));
+    }
+
+    @Test
+    public void fold_ShouldSetStateForSalientEvent() {
+        Event paymentCreatedEvent = aQueuePaymentEventFixture().withEventType("PAYMENT_CREATED").toEntity();
+        Event paymentStartedEvent = aQueuePaymentEventFixture().withEventType("PAYMENT_STARTED").toEntity();
+        TransactionEntity existingTransaction = transactionEntityFactory.create(EventDigest.fromEventList(List.of(paymentCreatedEvent)));
+
+        TransactionEntity folded = transactionEntityFactory.fold(existingTransaction, paymentStartedEvent);
+
+        assertThat(folded.getState(), is("started"));
+        assertThat(folded.getEventCount(), is(2));
+    }
+}
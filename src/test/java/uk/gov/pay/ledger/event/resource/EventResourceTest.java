@@ -4,24 +4,34 @@ import io.dropwizard.testing.junit.ResourceTestRule;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
+import org.jdbi.v3.core.ConnectionException;
+import org.jdbi.v3.core.Jdbi;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.app.ReadReplicaRouter;
 import uk.gov.pay.ledger.event.dao.EventDao;
 import uk.gov.pay.ledger.event.model.Event;
 import uk.gov.pay.ledger.event.resource.EventResource;
 import uk.gov.pay.ledger.util.fixture.EventFixture;
 
 import javax.ws.rs.core.Response;
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EventResourceTest {
     private static final EventDao dao = mock(EventDao.class);
+    private static final ReadReplicaRouter readReplicaRouter = mock(ReadReplicaRouter.class);
+    private static final Jdbi primaryJdbi = mock(Jdbi.class);
+    private static final Jdbi replicaJdbi = mock(Jdbi.class);
     private static final Long eventId = 1L;
     private static final String nonExistentId = "I'm not really here";
     private final Event event = EventFixture.anEventFixture()
@@ -30,12 +40,15 @@ public class EventResourceTest {
 
     @ClassRule
     public static final ResourceTestRule resources = ResourceTestRule.builder()
-            .addResource(new EventResource(dao))
+            .addResource(new EventResource(dao, readReplicaRouter))
             .build();
 
     @Before
     public void setup() {
+        reset(readReplicaRouter, replicaJdbi);
         when(dao.getById(eventId)).thenReturn(Optional.of(event));
+        when(readReplicaRouter.primary()).thenReturn(primaryJdbi);
+        when(readReplicaRouter.forReads()).thenReturn(primaryJdbi);
     }
 
     @Test
@@ -49,4 +62,14 @@ public class EventResourceTest {
         Response response = resources.target("/v1/event/" + nonExistentId).request().get();
         assertThat(response.getStatus(), is(404));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReadEventFromPrimary_whenReadReplicaCannotBeQueried() {
+        when(readReplicaRouter.forReads()).thenReturn(replicaJdbi);
+        when(replicaJdbi.withExtension(eq(EventDao.class), any())).thenThrow(new ConnectionException(new SQLException("replica down")));
+
+        Event returnedEvent = resources.target("/v1/event/" + eventId).request().get(Event.class);
+
+        assertThat(returnedEvent.getResourceExternalId(), is(event.getResourceExternalId()));
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.pay.ledger.event.service;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dropwizard.jackson.Jackson;
 import org.junit.Before;
@@ -8,6 +9,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.pay.ledger.event.dao.EventDao;
+import uk.gov.pay.ledger.event.dao.ResourceTypeIdCache;
 import uk.gov.pay.ledger.event.model.Event;
 import uk.gov.pay.ledger.event.model.EventDigest;
 import uk.gov.pay.ledger.event.model.SalientEventType;
@@ -15,6 +17,7 @@ import uk.gov.pay.ledger.event.model.response.CreateEventResponse;
 import uk.gov.pay.ledger.util.fixture.EventFixture;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,16 +25,20 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EventServiceTest {
     @Mock
     EventDao mockEventDao;
+    @Mock
+    ResourceTypeIdCache mockResourceTypeIdCache;
 
     private static ObjectMapper objectMapper = Jackson.newObjectMapper();
 
     private EventService eventService;
+    private MetricRegistry metricRegistry = new MetricRegistry();
 
     private Event event;
 
@@ -40,7 +47,7 @@ public class EventServiceTest {
 
     @Before
     public void setUp() {
-        eventService = new EventService(mockEventDao);
+        eventService = new EventService(mockEventDao, mockResourceTypeIdCache, metricRegistry);
 
         latestEventTime = ZonedDateTime.now().minusHours(1L);
         String eventDetails1 = "{ \"amount\": 1000}";
@@ -56,6 +63,7 @@ public class EventServiceTest {
                 .withEventDate(ZonedDateTime.now().minusHours(2L))
                 .toEntity();
         when(mockEventDao.getEventsByResourceExternalId(resourceExternalId)).thenReturn(List.of(event1, event2));
+        event = event1;
     }
 
     @Test
@@ -96,9 +104,60 @@ public class EventServiceTest {
         assertThat(eventDigest.getMostRecentSalientEventType(), is(SalientEventType.PAYMENT_CREATED));
     }
 
+    @Test
+    public void getEventDigestsForResources_shouldBuildOneDigestPerResource() {
+        String otherResourceExternalId = "other_resource_external_id";
+        Event otherEvent = EventFixture.anEventFixture()
+                .withEventData("{ \"amount\": 3000}")
+                .withResourceExternalId(otherResourceExternalId)
+                .toEntity();
+        List<Event> events = new ArrayList<>(mockEventDao.getEventsByResourceExternalId(resourceExternalId));
+        events.add(otherEvent);
+        when(mockEventDao.getEventsByResourceExternalIds(List.of(resourceExternalId, otherResourceExternalId)))
+                .thenReturn(events);
+
+        List<EventDigest> eventDigests = eventService.getEventDigestsForResources(List.of(resourceExternalId, otherResourceExternalId));
+
+        assertThat(eventDigests.size(), is(2));
+        assertThat(eventDigests.get(0).getResourceExternalId(), is(resourceExternalId));
+        assertThat(eventDigests.get(0).getEventCount(), is(2));
+        assertThat(eventDigests.get(0).getEventPayload().get("amount"), is(1000));
+        assertThat(eventDigests.get(1).getResourceExternalId(), is(otherResourceExternalId));
+        assertThat(eventDigests.get(1).getEventCount(), is(1));
+        assertThat(eventDigests.get(1).getEventPayload().get("amount"), is(3000));
+    }
+
+    @Test
+    public void getEventDigestsForResources_shouldRecordEventsPerDigest() {
+        List<Event> events = mockEventDao.getEventsByResourceExternalId(resourceExternalId);
+        when(mockEventDao.getEventsByResourceExternalIds(List.of(resourceExternalId))).thenReturn(events);
+
+        eventService.getEventDigestsForResources(List.of(resourceExternalId));
+
+        assertThat(metricRegistry.histogram("uk.gov.pay.ledger.event.service.EventService.events-per-digest").getSnapshot().getMax(), is(2L));
+        assertThat(metricRegistry.timer("uk.gov.pay.ledger.event.service.EventService.read-events-for-digest").getCount(), is(1L));
+        assertThat(metricRegistry.timer("uk.gov.pay.ledger.event.service.EventService.build-digest").getCount(), is(1L));
+    }
+
+    @Test
+    public void createIfDoesNotExistForEventsReturnsSuccessfulCreatedResponse() {
+        List<Event> events = List.of(EventFixture.anEventFixture().toEntity());
+        when(mockResourceTypeIdCache.getResourceTypeId(events.get(0).getResourceType())).thenReturn(2);
+        when(mockEventDao.insertIfDoNotExist(argThat(eventsWithResourceTypeIds -> eventsWithResourceTypeIds.size() == 1
+                && eventsWithResourceTypeIds.get(0).getResourceTypeId() == 2
+                && eventsWithResourceTypeIds.get(0).getResourceExternalId().equals(events.get(0).getResourceExternalId()))))
+                .thenReturn(List.of(1L));
+
+        CreateEventResponse response = eventService.createIfDoesNotExist(events);
+
+        assertTrue(response.isSuccessful());
+        assertThat(response.getState(), is(CreateEventResponse.CreateEventState.INSERTED));
+    }
+
     @Test
     public void createIfDoesNotExistReturnsSuccessfulCreatedResponse() {
-        when(mockEventDao.insertEventIfDoesNotExistWithResourceTypeId(event)).thenReturn(Optional.of(1L));
+        when(mockResourceTypeIdCache.getResourceTypeId(event.getResourceType())).thenReturn(2);
+        when(mockEventDao.insertIfDoesNotExist(event, 2)).thenReturn(Optional.of(1L));
 
         CreateEventResponse response = eventService.createIfDoesNotExist(event);
 
@@ -108,7 +167,8 @@ public class EventServiceTest {
 
     @Test
     public void createIfDoesNotExistReturnsSuccessfulIgnoredResponse() {
-        when(mockEventDao.insertEventIfDoesNotExistWithResourceTypeId(event)).thenReturn(Optional.empty());
+        when(mockResourceTypeIdCache.getResourceTypeId(event.getResourceType())).thenReturn(2);
+        when(mockEventDao.insertIfDoesNotExist(event, 2)).thenReturn(Optional.empty());
 
         CreateEventResponse response = eventService.createIfDoesNotExist(event);
 
@@ -118,7 +178,8 @@ public class EventServiceTest {
 
     @Test
     public void createIfDoesNotExistReturnsNotSuccessfulResponse() {
-        when(mockEventDao.insertEventIfDoesNotExistWithResourceTypeId(event))
+        when(mockResourceTypeIdCache.getResourceTypeId(event.getResourceType())).thenReturn(2);
+        when(mockEventDao.insertIfDoesNotExist(event, 2))
                 .thenThrow(new RuntimeException("forced failure"));
 
         CreateEventResponse response = eventService.createIfDoesNotExist(event);
@@ -127,4 +188,4 @@ public class EventServiceTest {
         assertThat(response.getState(), is(CreateEventResponse.CreateEventState.ERROR));
         assertThat(response.getErrorMessage(), is("forced failure"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package uk.gov.pay.ledger.queue;
+
+import com.amazonaws.SdkClientException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventMessageAcknowledgementsTest {
+
+    @Mock
+    private EventQueue eventQueue;
+    @Mock
+    private EventMessage firstMessage;
+    @Mock
+    private EventMessage secondMessage;
+
+    @Test
+    public void shouldAcknowledgeAndDeferMessages_onceEveryMessageHasAnOutcome() throws QueueException {
+        EventMessageAcknowledgements acknowledgements = new EventMessageAcknowledgements(eventQueue, 2);
+
+        acknowledgements.markMessageAsProcessed(firstMessage);
+        verify(eventQueue, times(0)).markMessagesAsProcessed(any());
+        acknowledgements.scheduleMessageForRetry(secondMessage);
+
+        verify(eventQueue).markMessagesAsProcessed(List.of(firstMessage));
+        verify(eventQueue).scheduleMessagesForRetry(List.of(secondMessage));
+    }
+
+    @Test
+    public void shouldNotThrow_whenAcknowledgingMessagesFailsWithRuntimeException() throws QueueException {
+        doThrow(new SdkClientException("Unable to execute HTTP request")).when(eventQueue).markMessagesAsProcessed(any());
+        EventMessageAcknowledgements acknowledgements = new EventMessageAcknowledgements(eventQueue, 1);
+
+        acknowledgements.markMessageAsProcessed(firstMessage);
+
+        verify(eventQueue).scheduleMessagesForRetry(List.of());
+    }
+
+    @Test
+    public void shouldIgnoreOutcomesRecorded_afterMessagesWereAcknowledged() throws QueueException {
+        EventMessageAcknowledgements acknowledgements = new EventMessageAcknowledgements(eventQueue, 1);
+
+        acknowledgements.markMessageAsProcessed(firstMessage);
+        acknowledgements.leaveMessageOnQueue(firstMessage);
+
+        verify(eventQueue, times(1)).markMessagesAsProcessed(any());
+        verify(eventQueue, times(1)).scheduleMessagesForRetry(any());
+    }
+}
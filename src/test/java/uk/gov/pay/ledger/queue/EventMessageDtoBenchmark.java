@@ -0,0 +1,59 @@
+package uk.gov.pay.ledger.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialises the body of an SQS event message as EventQueue does for every received message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMessageDtoBenchmark {
+
+    private static final String MESSAGE = "{" +
+            "\"timestamp\": \"2019-09-01T10:15:30.123456Z\"," +
+            "\"resource_external_id\": \"3uwuyr38rry\"," +
+            "\"parent_resource_external_id\": \"parent-external-id\"," +
+            "\"event_type\": \"PAYMENT_DETAILS_ENTERED\"," +
+            "\"resource_type\": \"payment\"," +
+            "\"event_details\": {" +
+            "\"email\": \"j.doe@example.org\", \"last_digits_card_number\": \"4242\", " +
+            "\"first_digits_card_number\": \"424242\", \"cardholder_name\": \"J citizen\", \"expiry_date\": \"11/21\", " +
+            "\"address_line1\": \"12 Rouge Avenue\", \"address_postcode\": \"N1 3QU\", \"address_city\": \"London\", " +
+            "\"address_country\": \"GB\", \"card_brand\": \"visa\", \"gateway_transaction_id\": \"gateway-transaction-id\", " +
+            "\"corporate_surcharge\": 5, \"total_amount\": 1005, \"external_metadata\": {\"ledger_code\": 123}" +
+            "}" +
+            "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public EventMessageDto deserialise() throws IOException {
+        return objectMapper.readValue(MESSAGE, EventMessageDto.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventMessageDtoBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
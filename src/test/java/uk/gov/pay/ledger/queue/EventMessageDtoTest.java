@@ -0,0 +1,39 @@
+package uk.gov.pay.ledger.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class EventMessageDtoTest {
+
+    private static final String EVENT_DETAILS = "{\"amount\": 1000, \"card\": {\"brand\": \"visa\", \"digits\": [4, 2]}, \"description\": \"a \\\"quoted\\\" {value}\"}";
+    private static final String MESSAGE = "{" +
+            "\"timestamp\": \"2018-03-12T16:25:01.123456Z\"," +
+            "\"resource_external_id\": \"3uwuyr38rry\"," +
+            "\"event_type\": \"PAYMENT_CREATED\"," +
+            "\"event_details\": " + EVENT_DETAILS + "," +
+            "\"resource_type\": \"payment\"" +
+            "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldKeepEventDetailsAsTheOriginalText() throws IOException {
+        EventMessageDto eventMessageDto = objectMapper.readValue(MESSAGE, EventMessageDto.class);
+
+        assertThat(eventMessageDto.getEventData(), is(EVENT_DETAILS));
+        assertThat(eventMessageDto.getExternalId(), is("3uwuyr38rry"));
+    }
+
+    @Test
+    public void shouldSerialiseEventDetailsWhenOriginalTextIsNotAvailable() throws IOException {
+        EventMessageDto eventMessageDto = objectMapper.readValue(MESSAGE.getBytes(StandardCharsets.UTF_8), EventMessageDto.class);
+
+        assertThat(objectMapper.readTree(eventMessageDto.getEventData()), is(objectMapper.readTree(EVENT_DETAILS)));
+    }
+}
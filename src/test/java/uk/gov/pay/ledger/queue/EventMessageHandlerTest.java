@@ -1,21 +1,34 @@
 package uk.gov.pay.ledger.queue;
 
+import com.codahale.metrics.MetricRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.app.LedgerConfig;
+import uk.gov.pay.ledger.app.config.QueueMessageReceiverConfig;
 import uk.gov.pay.ledger.event.model.Event;
 import uk.gov.pay.ledger.event.model.EventDigest;
 import uk.gov.pay.ledger.event.service.EventService;
 import uk.gov.pay.ledger.event.model.response.CreateEventResponse;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 import uk.gov.pay.ledger.transaction.service.TransactionService;
 
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.ledger.util.fixture.QueuePaymentEventFixture.aQueuePaymentEventFixture;
@@ -41,17 +54,24 @@ public class EventMessageHandlerTest {
     @Mock
     private Event event;
 
+    @Mock
+    private LedgerConfig ledgerConfig;
+
+    @Mock
+    private QueueMessageReceiverConfig queueMessageReceiverConfig;
 
-    @InjectMocks
     private EventMessageHandler eventMessageHandler;
+    private MetricRegistry metricRegistry = new MetricRegistry();
 
     @Before
     public void setUp() throws QueueException {
         EventMessage message = mock(EventMessage.class);
 
         when(eventQueue.retrieveEvents()).thenReturn(List.of(message));
-        when(eventService.createIfDoesNotExist(any())).thenReturn(createEventResponse);
+        when(eventService.createIfDoesNotExist(nullable(Event.class))).thenReturn(createEventResponse);
+        when(ledgerConfig.getQueueMessageReceiverConfig()).thenReturn(queueMessageReceiverConfig);
 
+        eventMessageHandler = new EventMessageHandler(eventQueue, eventService, transactionService, ledgerConfig, metricRegistry);
     }
 
     @Test
@@ -63,9 +83,9 @@ public class EventMessageHandlerTest {
         when(eventService.getEventDigestForResource(event.getResourceExternalId()))
                 .thenReturn(EventDigest.fromEventList(List.of(event)));
 
-        eventMessageHandler.processSingleMessage(eventMessage);
+        eventMessageHandler.processSingleMessage(eventMessage, new EventMessageAcknowledgements(eventQueue, 1));
 
-        verify(eventQueue).markMessageAsProcessed(any(EventMessage.class));
+        verify(eventQueue).markMessagesAsProcessed(List.of(eventMessage));
     }
 
     @Test
@@ -74,6 +94,154 @@ public class EventMessageHandlerTest {
 
         eventMessageHandler.handle();
 
-        verify(eventQueue).scheduleMessageForRetry(any());
+        verify(eventQueue).scheduleMessagesForRetry(argThat(messages -> messages.size() == 1));
+    }
+
+    @Test
+    public void shouldMarkAllMessagesAsProcessed_WhenBatchIsProcessedSuccessfully() throws QueueException {
+        Event firstEvent = aQueuePaymentEventFixture().toEntity();
+        Event secondEvent = aQueuePaymentEventFixture().toEntity();
+        EventMessage firstMessage = mock(EventMessage.class);
+        EventMessage secondMessage = mock(EventMessage.class);
+        when(firstMessage.getEvent()).thenReturn(firstEvent);
+        when(secondMessage.getEvent()).thenReturn(secondEvent);
+        when(eventQueue.retrieveEvents()).thenReturn(List.of(firstMessage, secondMessage));
+        when(queueMessageReceiverConfig.isBatchProcessingEnabled()).thenReturn(true);
+        when(eventService.createIfDoesNotExist(anyList())).thenReturn(new CreateEventResponse(List.of(1L, 2L)));
+        when(eventService.getEventDigestsForResources(anyCollection()))
+                .thenReturn(List.of(EventDigest.fromEventList(List.of(firstEvent)), EventDigest.fromEventList(List.of(secondEvent))));
+
+        new EventMessageHandler(eventQueue, eventService, transactionService, ledgerConfig, metricRegistry).handle();
+
+        verify(transactionService).upsertTransactionsFor(anyList());
+        verify(eventQueue).markMessagesAsProcessed(List.of(firstMessage, secondMessage));
+    }
+
+    @Test
+    public void shouldProcessMessagesIndividually_WhenBatchInsertFails() throws QueueException {
+        Event firstEvent = aQueuePaymentEventFixture().toEntity();
+        Event secondEvent = aQueuePaymentEventFixture().toEntity();
+        EventMessage firstMessage = mock(EventMessage.class);
+        EventMessage secondMessage = mock(EventMessage.class);
+        when(firstMessage.getEvent()).thenReturn(firstEvent);
+        when(secondMessage.getEvent()).thenReturn(secondEvent);
+        when(eventQueue.retrieveEvents()).thenReturn(List.of(firstMessage, secondMessage));
+        when(queueMessageReceiverConfig.isBatchProcessingEnabled()).thenReturn(true);
+        when(eventService.createIfDoesNotExist(anyList())).thenReturn(new CreateEventResponse(new RuntimeException("forced failure")));
+        when(createEventResponse.isSuccessful()).thenReturn(false);
+
+        new EventMessageHandler(eventQueue, eventService, transactionService, ledgerConfig, metricRegistry).handle();
+
+        verify(eventService, times(2)).createIfDoesNotExist(nullable(Event.class));
+        verify(eventQueue).scheduleMessagesForRetry(List.of(firstMessage, secondMessage));
+    }
+
+    @Test
+    public void shouldFoldEventIntoExistingTransaction_WhenIncrementalDigestIsEnabled() throws QueueException {
+        Event event = aQueuePaymentEventFixture().toEntity();
+        TransactionEntity transaction = new TransactionEntity.Builder()
+                .withEventCount(1)
+                .withCreatedDate(ZonedDateTime.parse("2019-09-01T10:15:30Z"))
+                .build();
+        when(eventMessage.getEvent()).thenReturn(event);
+        when(queueMessageReceiverConfig.isIncrementalDigestEnabled()).thenReturn(true);
+        when(eventService.createIfDoesNotExist(event)).thenReturn(new CreateEventResponse(Optional.of(1L)));
+        when(transactionService.getTransactionEntity(event.getResourceExternalId())).thenReturn(Optional.of(transaction));
+        when(eventService.isMostRecentEventForResource(event, 2, transaction.getCreatedDate())).thenReturn(true);
+
+        new EventMessageHandler(eventQueue, eventService, transactionService, ledgerConfig, metricRegistry).processSingleMessage(eventMessage, new EventMessageAcknowledgements(eventQueue, 1));
+
+        verify(transactionService).upsertTransactionFor(transaction, event);
+        verify(eventService, never()).getEventDigestForResource(any());
+        verify(eventQueue).markMessagesAsProcessed(List.of(eventMessage));
+    }
+
+    @Test
+    public void shouldReplayAllEvents_WhenIncrementalDigestIsEnabledAndEventIsOutOfOrder() throws QueueException {
+        Event event = aQueuePaymentEventFixture().toEntity();
+        TransactionEntity transaction = new TransactionEntity.Builder()
+                .withEventCount(1)
+                .withCreatedDate(ZonedDateTime.parse("2019-09-01T10:15:30Z"))
+                .build();
+        EventDigest eventDigest = EventDigest.fromEventList(List.of(event));
+        when(eventMessage.getEvent()).thenReturn(event);
+        when(queueMessageReceiverConfig.isIncrementalDigestEnabled()).thenReturn(true);
+        when(eventService.createIfDoesNotExist(event)).thenReturn(new CreateEventResponse(Optional.of(1L)));
+        when(transactionService.getTransactionEntity(event.getResourceExternalId())).thenReturn(Optional.of(transaction));
+        when(eventService.isMostRecentEventForResource(event, 2, transaction.getCreatedDate())).thenReturn(false);
+        when(eventService.getEventDigestForResource(event.getResourceExternalId())).thenReturn(eventDigest);
+
+        new EventMessageHandler(eventQueue, eventService, transactionService, ledgerConfig, metricRegistry).processSingleMessage(eventMessage, new EventMessageAcknowledgements(eventQueue, 1));
+
+        verify(transactionService).upsertTransactionFor(eventDigest);
+        verify(transactionService, never()).upsertTransactionFor(any(TransactionEntity.class), any(Event.class));
+        verify(eventQueue).markMessagesAsProcessed(List.of(eventMessage));
+    }
+
+    @Test
+    public void shouldAcknowledgeAndDeferMessagesInBatches_WhenProcessingIndividually() throws QueueException {
+        Event firstEvent = aQueuePaymentEventFixture().toEntity();
+        Event secondEvent = aQueuePaymentEventFixture().toEntity();
+        Event thirdEvent = aQueuePaymentEventFixture().toEntity();
+        EventMessage firstMessage = mock(EventMessage.class);
+        EventMessage secondMessage = mock(EventMessage.class);
+        EventMessage thirdMessage = mock(EventMessage.class);
+        when(firstMessage.getEvent()).thenReturn(firstEvent);
+        when(secondMessage.getEvent()).thenReturn(secondEvent);
+        when(thirdMessage.getEvent()).thenReturn(thirdEvent);
+        when(eventQueue.retrieveEvents()).thenReturn(List.of(firstMessage, secondMessage, thirdMessage));
+        when(eventService.createIfDoesNotExist(firstEvent)).thenReturn(new CreateEventResponse(Optional.of(1L)));
+        when(eventService.createIfDoesNotExist(secondEvent)).thenReturn(new CreateEventResponse(new RuntimeException("forced failure")));
+        when(eventService.createIfDoesNotExist(thirdEvent)).thenReturn(new CreateEventResponse(Optional.of(3L)));
+        when(eventService.getEventDigestForResource(firstEvent.getResourceExternalId()))
+                .thenReturn(EventDigest.fromEventList(List.of(firstEvent)));
+        when(eventService.getEventDigestForResource(thirdEvent.getResourceExternalId()))
+                .thenReturn(EventDigest.fromEventList(List.of(thirdEvent)));
+
+        eventMessageHandler.handle();
+
+        verify(eventQueue).markMessagesAsProcessed(List.of(firstMessage, thirdMessage));
+        verify(eventQueue).scheduleMessagesForRetry(List.of(secondMessage));
+    }
+
+    @Test
+    public void shouldCountDuplicateAndRetriedEvents_WhenProcessingIndividually() throws QueueException {
+        Event firstEvent = aQueuePaymentEventFixture().toEntity();
+        Event secondEvent = aQueuePaymentEventFixture().toEntity();
+        EventMessage firstMessage = mock(EventMessage.class);
+        EventMessage secondMessage = mock(EventMessage.class);
+        when(firstMessage.getEvent()).thenReturn(firstEvent);
+        when(secondMessage.getEvent()).thenReturn(secondEvent);
+        when(eventQueue.retrieveEvents()).thenReturn(List.of(firstMessage, secondMessage));
+        when(eventService.createIfDoesNotExist(firstEvent)).thenReturn(new CreateEventResponse(Optional.empty()));
+        when(eventService.createIfDoesNotExist(secondEvent)).thenReturn(new CreateEventResponse(new RuntimeException("forced failure")));
+        when(eventService.getEventDigestForResource(firstEvent.getResourceExternalId()))
+                .thenReturn(EventDigest.fromEventList(List.of(firstEvent)));
+
+        eventMessageHandler.handle();
+
+        assertThat(metricRegistry.counter("uk.gov.pay.ledger.queue.EventMessageHandler.duplicate-events").getCount(), is(1L));
+        assertThat(metricRegistry.counter("uk.gov.pay.ledger.queue.EventMessageHandler.retried-messages").getCount(), is(1L));
+        assertThat(metricRegistry.timer("uk.gov.pay.ledger.queue.EventMessageHandler.process-message").getCount(), is(2L));
+        assertThat(metricRegistry.timer("uk.gov.pay.ledger.queue.EventMessageHandler.upsert-transaction").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldCountDuplicateEventsAndBatchSize_WhenBatchIsProcessedSuccessfully() {
+        Event firstEvent = aQueuePaymentEventFixture().toEntity();
+        Event secondEvent = aQueuePaymentEventFixture().toEntity();
+        EventMessage firstMessage = mock(EventMessage.class);
+        EventMessage secondMessage = mock(EventMessage.class);
+        when(firstMessage.getEvent()).thenReturn(firstEvent);
+        when(secondMessage.getEvent()).thenReturn(secondEvent);
+        when(eventService.createIfDoesNotExist(anyList())).thenReturn(new CreateEventResponse(List.of(1L)));
+        when(eventService.getEventDigestsForResources(anyCollection()))
+                .thenReturn(List.of(EventDigest.fromEventList(List.of(firstEvent)), EventDigest.fromEventList(List.of(secondEvent))));
+
+        eventMessageHandler.processBatch(List.of(firstMessage, secondMessage));
+
+        assertThat(metricRegistry.counter("uk.gov.pay.ledger.queue.EventMessageHandler.duplicate-events").getCount(), is(1L));
+        assertThat(metricRegistry.histogram("uk.gov.pay.ledger.queue.EventMessageHandler.batch-size").getSnapshot().getMax(), is(2L));
+        assertThat(metricRegistry.timer("uk.gov.pay.ledger.queue.EventMessageHandler.process-batch").getCount(), is(1L));
     }
-}
\ No newline at end of file
+}
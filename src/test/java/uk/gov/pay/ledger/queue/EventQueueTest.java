@@ -1,6 +1,7 @@
 package uk.gov.pay.ledger.queue;
 
 import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
@@ -20,6 +21,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -34,6 +36,7 @@ public class EventQueueTest {
     private SqsQueueService sqsQueueService;
 
     private EventQueue eventQueue;
+    private MetricRegistry metricRegistry = new MetricRegistry();
 
     @Before
     public void setUp() throws QueueException {
@@ -60,7 +63,7 @@ public class EventQueueTest {
         when(ledgerConfig.getQueueMessageReceiverConfig()).thenReturn(queueMessageReceiverConfig);
         when(sqsQueueService.receiveMessages(anyString(), anyString())).thenReturn(messages);
 
-        eventQueue = new EventQueue(sqsQueueService, ledgerConfig, new ObjectMapper());
+        eventQueue = new EventQueue(sqsQueueService, ledgerConfig, new ObjectMapper(), metricRegistry);
     }
 
     @Test
@@ -73,6 +76,17 @@ public class EventQueueTest {
         assertEquals(ZonedDateTime.parse("2018-03-12T16:25:01.123456Z"), eventsList.get(0).getEvent().getEventDate());
         assertEquals("PAYMENT_CREATED", eventsList.get(0).getEvent().getEventType());
         assertEquals(ResourceType.PAYMENT, eventsList.get(0).getEvent().getResourceType());
-        assertEquals("{\"example_event_details_field\":\"and its value\"}", eventsList.get(0).getEvent().getEventData());
+        assertEquals("{\"example_event_details_field\": \"and its value\"}", eventsList.get(0).getEvent().getEventData());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldCountMessagesThatCannotBeParsed() {
+        SendMessageResult messageResult = mock(SendMessageResult.class);
+
+        List<EventMessage> eventsList = eventQueue.parseMessages(List.of(QueueMessage.of(messageResult, "not json")));
+
+        assertTrue(eventsList.isEmpty());
+        assertEquals(1, metricRegistry.counter("uk.gov.pay.ledger.queue.EventQueue.parse-failures").getCount());
+        assertEquals(1, metricRegistry.timer("uk.gov.pay.ledger.queue.EventQueue.parse-messages").getCount());
+    }
+}
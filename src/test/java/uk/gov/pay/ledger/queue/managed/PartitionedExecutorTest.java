@@ -0,0 +1,65 @@
+package uk.gov.pay.ledger.queue.managed;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PartitionedExecutorTest {
+
+    private PartitionedExecutor partitionedExecutor;
+    private List<ExecutorService> executorServices;
+
+    @Before
+    public void setUp() {
+        executorServices = IntStream.range(0, 4)
+                .mapToObj(i -> Executors.newSingleThreadExecutor())
+                .collect(Collectors.toList());
+        partitionedExecutor = new PartitionedExecutor(executorServices);
+    }
+
+    @After
+    public void tearDown() {
+        partitionedExecutor.shutdown();
+    }
+
+    @Test
+    public void shouldAlwaysChooseTheSamePartitionForAKey() {
+        int partition = partitionedExecutor.partitionFor("resource-external-id");
+
+        assertThat(partitionedExecutor.partitionFor("resource-external-id"), is(partition));
+        assertThat(partition >= 0 && partition < executorServices.size(), is(true));
+    }
+
+    @Test
+    public void shouldRunTasksForTheSameKeyInSubmissionOrder() throws InterruptedException {
+        ConcurrentHashMap<String, List<Integer>> executed = new ConcurrentHashMap<>();
+        List<String> keys = List.of("payment-1", "payment-2", "payment-3");
+
+        for (int i = 0; i < 100; i++) {
+            int sequence = i;
+            for (String key : keys) {
+                partitionedExecutor.execute(key,
+                        () -> executed.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(sequence));
+            }
+        }
+        partitionedExecutor.shutdown();
+        for (ExecutorService executorService : executorServices) {
+            executorService.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        keys.forEach(key -> assertThat(executed.get(key), is(expected)));
+    }
+}
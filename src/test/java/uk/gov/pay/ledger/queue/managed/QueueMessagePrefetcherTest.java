@@ -0,0 +1,121 @@
+package uk.gov.pay.ledger.queue.managed;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.queue.EventQueue;
+import uk.gov.pay.ledger.queue.QueueMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueueMessagePrefetcherTest {
+
+    @Mock
+    private EventQueue eventQueue;
+
+    private MetricRegistry metricRegistry;
+
+    @Before
+    public void setUp() {
+        metricRegistry = new MetricRegistry();
+    }
+
+    @Test
+    public void shouldBufferPrefetchedMessagesUntilTaken() throws Exception {
+        when(eventQueue.receiveMessages()).thenReturn(queueMessages(3));
+        QueueMessagePrefetcher prefetcher = new QueueMessagePrefetcher(eventQueue, 10, 10, () -> false, metricRegistry);
+
+        prefetcher.prefetch();
+
+        assertThat(gauge("buffer-depth"), is(3));
+        assertThat(prefetcher.take(2, 1, TimeUnit.SECONDS).size(), is(2));
+        assertThat(prefetcher.take(2, 1, TimeUnit.SECONDS).size(), is(1));
+        assertThat(gauge("buffer-depth"), is(0));
+        assertThat(gauge("in-flight-receives"), is(0));
+    }
+
+    @Test
+    public void shouldNotReceiveWhenBufferHasNoRoomForAFullBatch() throws Exception {
+        when(eventQueue.receiveMessages()).thenReturn(queueMessages(10));
+        QueueMessagePrefetcher prefetcher = new QueueMessagePrefetcher(eventQueue, 10, 10, () -> false, metricRegistry);
+        prefetcher.prefetch();
+
+        CompletableFuture<Void> blockedPrefetch = CompletableFuture.runAsync(() -> {
+            try {
+                prefetcher.prefetch();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThat(isBlocked(blockedPrefetch), is(true));
+        assertThat(prefetcher.take(10, 1, TimeUnit.SECONDS).size(), is(10));
+        blockedPrefetch.get(1, TimeUnit.SECONDS);
+        assertThat(metricRegistry.timer(MetricRegistry.name(QueueMessagePrefetcher.class, "back-pressure-blocked")).getCount(), is(2L));
+    }
+
+    @Test
+    public void shouldReturnEmptyListWhenNothingIsBuffered() throws InterruptedException {
+        QueueMessagePrefetcher prefetcher = new QueueMessagePrefetcher(eventQueue, 10, 10, () -> false, metricRegistry);
+
+        assertThat(prefetcher.take(10, 10, TimeUnit.MILLISECONDS).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldPauseLongerAfterEachConsecutiveFailedReceive() throws Exception {
+        when(eventQueue.receiveMessages()).thenThrow(new RuntimeException("Unable to execute HTTP request"));
+        QueueMessagePrefetcher prefetcher = new QueueMessagePrefetcher(eventQueue, 10, 10, () -> false, metricRegistry);
+
+        long firstPause = timePrefetch(prefetcher);
+        long secondPause = timePrefetch(prefetcher);
+
+        assertThat(firstPause, is(greaterThanOrEqualTo(50L)));
+        assertThat(secondPause, is(greaterThanOrEqualTo(100L)));
+        assertThat(gauge("buffer-depth"), is(0));
+        assertThat(gauge("in-flight-receives"), is(0));
+    }
+
+    private long timePrefetch(QueueMessagePrefetcher prefetcher) throws InterruptedException {
+        long start = System.nanoTime();
+        prefetcher.prefetch();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private boolean isBlocked(CompletableFuture<Void> future) throws Exception {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            return false;
+        } catch (TimeoutException e) {
+            return true;
+        }
+    }
+
+    private Object gauge(String name) {
+        Gauge gauge = metricRegistry.getGauges().get(MetricRegistry.name(QueueMessagePrefetcher.class, name));
+        return gauge.getValue();
+    }
+
+    private List<QueueMessage> queueMessages(int numberOfMessages) {
+        ReceiveMessageResult result = new ReceiveMessageResult().withMessages(IntStream.range(0, numberOfMessages)
+                .mapToObj(i -> new Message().withMessageId("message-" + i).withReceiptHandle("handle-" + i).withBody("{}"))
+                .collect(Collectors.toList()));
+        return QueueMessage.of(result);
+    }
+}
@@ -1,6 +1,7 @@
 package uk.gov.pay.ledger.queue.sqs;
 
 import com.amazonaws.services.sqs.AmazonSQS;
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -50,7 +51,7 @@ public class EventQueueIT {
         LedgerConfig mockConfig = mock(LedgerConfig.class);
         when(mockConfig.getSqsConfig()).thenReturn(sqsConfig);
 
-        SqsQueueService sqsQueueService = new SqsQueueService(client, mockConfig);
+        SqsQueueService sqsQueueService = new SqsQueueService(client, mockConfig, new MetricRegistry());
 
         List<QueueMessage> result = sqsQueueService.receiveMessages(SqsTestDocker.getQueueUrl("event-queue"), "All");
         assertFalse(result.isEmpty());
@@ -72,11 +73,11 @@ public class EventQueueIT {
         when(mockConfig.getSqsConfig()).thenReturn(sqsConfig);
         when(mockConfig.getQueueMessageReceiverConfig()).thenReturn(queueReceiverConfig);
 
-        SqsQueueService sqsQueueService = new SqsQueueService(client, mockConfig);
-        EventQueue eventQueue = new EventQueue(sqsQueueService, mockConfig, new ObjectMapper());
+        SqsQueueService sqsQueueService = new SqsQueueService(client, mockConfig, new MetricRegistry());
+        EventQueue eventQueue = new EventQueue(sqsQueueService, mockConfig, new ObjectMapper(), new MetricRegistry());
 
         List<EventMessage> result = eventQueue.retrieveEvents();
         assertFalse(result.isEmpty());
         assertThat(result.get(0).getId(), is(event.getResourceExternalId()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package uk.gov.pay.ledger.queue.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.PurgeQueueRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.gov.pay.ledger.app.LedgerConfig;
+import uk.gov.pay.ledger.app.config.SqsConfig;
+import uk.gov.pay.ledger.queue.QueueException;
+import uk.gov.pay.ledger.queue.QueueMessage;
+import uk.gov.pay.ledger.rule.SqsTestDocker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SqsQueueServiceIT {
+
+    private static final String QUEUE_NAME = "batch-acknowledgement-queue";
+
+    private static AmazonSQS client;
+    private static String queueUrl;
+    private SqsQueueService sqsQueueService;
+
+    @BeforeClass
+    public static void setUpQueue() {
+        client = SqsTestDocker.initialise(QUEUE_NAME);
+        queueUrl = SqsTestDocker.getQueueUrl(QUEUE_NAME);
+    }
+
+    @Before
+    public void setUp() {
+        client.purgeQueue(new PurgeQueueRequest(queueUrl));
+
+        SqsConfig sqsConfig = mock(SqsConfig.class);
+        when(sqsConfig.getMessageMaximumBatchSize()).thenReturn(10);
+        when(sqsConfig.getMessageMaximumWaitTimeInSeconds()).thenReturn(1);
+        LedgerConfig mockConfig = mock(LedgerConfig.class);
+        when(mockConfig.getSqsConfig()).thenReturn(sqsConfig);
+
+        sqsQueueService = new SqsQueueService(client, mockConfig, new MetricRegistry());
+    }
+
+    @Test
+    public void shouldDeleteMoreMessagesThanFitInASingleBatch() throws QueueException {
+        List<String> receiptHandles = sendAndReceive(12);
+
+        List<String> failed = sqsQueueService.deleteMessages(queueUrl, receiptHandles);
+
+        assertThat(failed.isEmpty(), is(true));
+        assertThat(client.receiveMessage(new ReceiveMessageRequest(queueUrl).withWaitTimeSeconds(1)).getMessages().isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldReturnOnlyTheReceiptHandlesThatCouldNotBeDeleted() throws QueueException {
+        List<String> receiptHandles = new ArrayList<>(sendAndReceive(2));
+        receiptHandles.add(1, "invalid-receipt-handle");
+
+        List<String> failed = sqsQueueService.deleteMessages(queueUrl, receiptHandles);
+
+        assertThat(failed, contains("invalid-receipt-handle"));
+    }
+
+    @Test
+    public void shouldDeferMessages() throws QueueException {
+        List<String> receiptHandles = sendAndReceive(3);
+
+        List<String> failed = sqsQueueService.deferMessages(queueUrl, receiptHandles, 0);
+
+        assertThat(failed.isEmpty(), is(true));
+        assertThat(receiveAll(3).size(), is(3));
+    }
+
+    private List<String> sendAndReceive(int numberOfMessages) throws QueueException {
+        IntStream.range(0, numberOfMessages).forEach(i -> client.sendMessage(queueUrl, "{\"message\": " + i + "}"));
+        return receiveAll(numberOfMessages);
+    }
+
+    private List<String> receiveAll(int numberOfMessages) throws QueueException {
+        List<QueueMessage> received = new ArrayList<>();
+        while (received.size() < numberOfMessages) {
+            List<QueueMessage> messages = sqsQueueService.receiveMessages(queueUrl, "All");
+            if (messages.isEmpty()) {
+                break;
+            }
+            received.addAll(messages);
+        }
+        return received.stream().map(QueueMessage::getReceiptHandle).collect(Collectors.toList());
+    }
+}
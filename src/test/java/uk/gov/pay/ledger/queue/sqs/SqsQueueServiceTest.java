@@ -2,12 +2,19 @@ package uk.gov.pay.ledger.queue.sqs;
 
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.codahale.metrics.MetricRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.pay.ledger.app.LedgerConfig;
@@ -16,12 +23,19 @@ import uk.gov.pay.ledger.queue.QueueException;
 import uk.gov.pay.ledger.queue.QueueMessage;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -43,7 +57,7 @@ public class SqsQueueServiceTest {
 
         when(ledgerConfig.getSqsConfig()).thenReturn(sqsConfig);
 
-        sqsQueueService = new SqsQueueService(sqsClient, ledgerConfig);
+        sqsQueueService = new SqsQueueService(sqsClient, ledgerConfig, new MetricRegistry());
     }
 
     @Test
@@ -83,4 +97,57 @@ public class SqsQueueServiceTest {
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenThrow(AmazonSQSException.class);
         sqsQueueService.receiveMessages("some-queue-url", "some-attribute-name");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deleteMessagesShouldSendAtMostTenEntriesPerBatch() throws QueueException {
+        List<String> receiptHandles = IntStream.range(0, 12).mapToObj(i -> "receipt-handle-" + i).collect(Collectors.toList());
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class))).thenReturn(new DeleteMessageBatchResult());
+
+        List<String> failed = sqsQueueService.deleteMessages("some-queue-url", receiptHandles);
+
+        ArgumentCaptor<DeleteMessageBatchRequest> captor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient, times(2)).deleteMessageBatch(captor.capture());
+        assertThat(captor.getAllValues().get(0).getEntries().size(), is(10));
+        assertThat(captor.getAllValues().get(1).getEntries().size(), is(2));
+        assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    public void deleteMessagesShouldRetryOnlyEntriesThatFailedWithServerError() throws QueueException {
+        DeleteMessageBatchResult partialFailure = new DeleteMessageBatchResult()
+                .withFailed(new BatchResultErrorEntry().withId("1").withSenderFault(false).withCode("InternalError"),
+                        new BatchResultErrorEntry().withId("2").withSenderFault(true).withCode("ReceiptHandleIsInvalid"));
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(partialFailure)
+                .thenReturn(new DeleteMessageBatchResult());
+
+        List<String> failed = sqsQueueService.deleteMessages("some-queue-url", List.of("handle-0", "handle-1", "handle-2"));
+
+        ArgumentCaptor<DeleteMessageBatchRequest> captor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient, times(2)).deleteMessageBatch(captor.capture());
+        assertThat(captor.getAllValues().get(1).getEntries().size(), is(1));
+        assertThat(captor.getAllValues().get(1).getEntries().get(0).getReceiptHandle(), is("handle-1"));
+        assertThat(failed, contains("handle-2"));
+    }
+
+    @Test
+    public void deferMessagesShouldReturnEntriesThatKeepFailing() throws QueueException {
+        ChangeMessageVisibilityBatchResult failure = new ChangeMessageVisibilityBatchResult()
+                .withFailed(new BatchResultErrorEntry().withId("0").withSenderFault(false).withCode("InternalError"));
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class))).thenReturn(failure);
+
+        long start = System.nanoTime();
+        List<String> failed = sqsQueueService.deferMessages("some-queue-url", List.of("handle-0"), 900);
+        long elapsedInMilliseconds = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        verify(sqsClient, times(3)).changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class));
+        assertThat(failed, contains("handle-0"));
+        assertThat(elapsedInMilliseconds, is(greaterThanOrEqualTo(300L)));
+    }
+
+    @Test(expected = QueueException.class)
+    public void deleteMessagesShouldThrowQueueExceptionIfBatchRequestFails() throws QueueException {
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class))).thenThrow(AmazonSQSException.class);
+        sqsQueueService.deleteMessages("some-queue-url", List.of("handle-0"));
+    }
+}
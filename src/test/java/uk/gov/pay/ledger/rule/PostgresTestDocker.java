@@ -57,11 +57,11 @@ public class PostgresTestDocker {
         return getConnectionUrl() + DB_NAME;
     }
 
-    static String getDbPassword() {
+    public static String getDbPassword() {
         return DB_PASSWORD;
     }
 
-    static String getDbUsername() {
+    public static String getDbUsername() {
         return DB_USERNAME;
     }
 }
@@ -57,6 +57,12 @@ public class TransactionDaoIT {
         assertThat(retrievedTransaction.getTotalAmount(), is(transactionEntity.getTotalAmount()));
         assertThat(retrievedTransaction.getFee(), is(transactionEntity.getFee()));
         assertThat(retrievedTransaction.getTransactionType(), is(transactionEntity.getTransactionType()));
+        assertThat(retrievedTransaction.getLanguage(), is(fixture.getLanguage()));
+        assertThat(retrievedTransaction.getReturnUrl(), is(fixture.getReturnUrl()));
+        assertThat(retrievedTransaction.getPaymentProvider(), is(fixture.getPaymentProvider()));
+        assertThat(retrievedTransaction.getDelayedCapture(), is(false));
+        assertThat(retrievedTransaction.getAddressLine1(), is(fixture.getCardDetails().getBillingAddress().getAddressLine1()));
+        assertThat(retrievedTransaction.getAddressCountry(), is(fixture.getCardDetails().getBillingAddress().getAddressCountry()));
     }
 
     @Test
@@ -137,4 +143,24 @@ public class TransactionDaoIT {
 
         assertThat(retrievedTransaction.getState(), is(transaction.getState()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldBackfillDetailsColumnsFromTransactionDetails() {
+        TransactionFixture fixture = aTransactionFixture()
+                .withDefaultCardDetails()
+                .withTransactionType("PAYMENT")
+                .withDefaultTransactionDetails()
+                .insert(rule.getJdbi());
+        rule.getJdbi().useHandle(handle -> handle.execute(
+                "UPDATE transaction SET language = NULL, return_url = NULL, address_line1 = NULL WHERE external_id = ?",
+                fixture.getExternalId()));
+
+        transactionDao.backfillDetailsColumns(0, transactionDao.findMaxTransactionId());
+
+        TransactionEntity transaction = transactionDao.findTransactionByExternalId(fixture.getExternalId()).get();
+
+        assertThat(transaction.getLanguage(), is(fixture.getLanguage()));
+        assertThat(transaction.getReturnUrl(), is(fixture.getReturnUrl()));
+        assertThat(transaction.getAddressLine1(), is(fixture.getCardDetails().getBillingAddress().getAddressLine1()));
+    }
+}
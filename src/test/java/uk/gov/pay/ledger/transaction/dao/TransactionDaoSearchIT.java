@@ -8,6 +8,7 @@ import org.junit.Test;
 import uk.gov.pay.ledger.rule.AppWithPostgresAndSqsRule;
 import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 import uk.gov.pay.ledger.transaction.search.common.CommaDelimitedSetParameter;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchCursor;
 import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 import uk.gov.pay.ledger.transaction.state.TransactionState;
 import uk.gov.pay.ledger.util.DatabaseTestHelper;
@@ -15,6 +16,8 @@ import uk.gov.pay.ledger.util.fixture.TransactionFixture;
 
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.RandomUtils.nextLong;
 import static org.hamcrest.CoreMatchers.is;
@@ -119,6 +122,30 @@ public class TransactionDaoSearchIT {
         assertThat(total, is(1L));
     }
 
+    @Test
+    public void shouldOnlyMatchStartOfEmail_whenSearchingWithPrefixTextMatch() {
+        String gatewayAccountId = "account-id-" + nextLong();
+
+        aTransactionFixture()
+                .withGatewayAccountId(gatewayAccountId)
+                .withEmail("Jane.Doe@example.org")
+                .insert(rule.getJdbi());
+        aTransactionFixture()
+                .withGatewayAccountId(gatewayAccountId)
+                .withEmail("mary.jane@example.org")
+                .insert(rule.getJdbi());
+
+        TransactionSearchParams searchParams = new TransactionSearchParams();
+        searchParams.setAccountId(gatewayAccountId);
+        searchParams.setEmail("jane");
+        searchParams.setTextMatch(TransactionSearchParams.PREFIX_TEXT_MATCH);
+
+        List<TransactionEntity> transactionList = transactionDao.searchTransactions(searchParams);
+
+        assertThat(transactionList.size(), is(1));
+        assertThat(transactionList.get(0).getEmail(), is("Jane.Doe@example.org"));
+    }
+
     @Test
     public void shouldReturn1Record_whenSearchingByReference() {
 
@@ -272,6 +299,51 @@ public class TransactionDaoSearchIT {
         assertThat(total, is(19L));
     }
 
+    @Test
+    public void shouldReturnPlannerEstimateForSearch() {
+        String gatewayAccountId = "account-id-" + nextLong();
+
+        for (int i = 0; i < 5; i++) {
+            aTransactionFixture()
+                    .withGatewayAccountId(gatewayAccountId)
+                    .insert(rule.getJdbi());
+        }
+
+        TransactionSearchParams searchParams = new TransactionSearchParams();
+        searchParams.setAccountId(gatewayAccountId);
+
+        Long estimate = transactionDao.getEstimatedTotalForSearch(searchParams);
+
+        assertThat(estimate >= 1L, is(true));
+    }
+
+    @Test
+    public void shouldReturnRecordsAfterCursor_whenSeekingWithCursor() {
+        String gatewayAccountId = "account-id-" + nextLong();
+        long id = nextLong();
+        ZonedDateTime createdDate = ZonedDateTime.parse("2019-08-01T10:15:30.123456Z");
+
+        for (int i = 1; i < 6; i++) {
+            aTransactionFixture()
+                    .withId(id + i)
+                    .withGatewayAccountId(gatewayAccountId)
+                    .withReference("reference" + i)
+                    .withCreatedDate(i < 4 ? createdDate : createdDate.plusMinutes(i))
+                    .insert(rule.getJdbi());
+        }
+
+        TransactionSearchParams searchParams = new TransactionSearchParams();
+        searchParams.setAccountId(gatewayAccountId);
+        searchParams.setDisplaySize(2l);
+        searchParams.setCursor(new TransactionSearchCursor(createdDate, id + 3).encode());
+
+        List<TransactionEntity> transactionList = transactionDao.searchTransactions(searchParams);
+
+        assertThat(transactionList.size(), Matchers.is(2));
+        assertThat(transactionList.get(0).getReference(), is("reference2"));
+        assertThat(transactionList.get(1).getReference(), is("reference1"));
+    }
+
     @Test
     public void shouldReturn2Records_WhenSearchingByCreatedState() {
         String gatewayAccountId = "account-id-" + nextLong();
@@ -393,4 +465,46 @@ public class TransactionDaoSearchIT {
 
         assertThat(transactionList.size(), Matchers.is(2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnPaymentsAndRefundsInRequestedStates_whenSearchingByPaymentAndRefundStates() {
+        String gatewayAccountId = "account-id-" + nextLong();
+
+        aTransactionFixture()
+                .withGatewayAccountId(gatewayAccountId)
+                .withReference("declined-payment")
+                .withState(TransactionState.FAILED_REJECTED)
+                .insert(rule.getJdbi());
+        aTransactionFixture()
+                .withGatewayAccountId(gatewayAccountId)
+                .withReference("successful-payment")
+                .withState(TransactionState.SUCCESS)
+                .insert(rule.getJdbi());
+        aTransactionFixture()
+                .withGatewayAccountId(gatewayAccountId)
+                .withReference("successful-refund")
+                .withTransactionType("REFUND")
+                .withState(TransactionState.SUCCESS)
+                .insert(rule.getJdbi());
+        aTransactionFixture()
+                .withGatewayAccountId(gatewayAccountId)
+                .withReference("submitted-refund")
+                .withTransactionType("REFUND")
+                .withState(TransactionState.SUBMITTED)
+                .insert(rule.getJdbi());
+
+        TransactionSearchParams searchParams = new TransactionSearchParams();
+        searchParams.setAccountId(gatewayAccountId);
+        searchParams.setPaymentStates(new CommaDelimitedSetParameter("failed"));
+        searchParams.setRefundStates(new CommaDelimitedSetParameter("success"));
+
+        List<TransactionEntity> transactionList = transactionDao.searchTransactions(searchParams);
+
+        assertThat(transactionList.size(), is(2));
+        assertThat(transactionList.stream().map(TransactionEntity::getReference).collect(Collectors.toSet()),
+                is(Set.of("declined-payment", "successful-refund")));
+
+        Long total = transactionDao.getTotalForSearch(searchParams);
+        assertThat(total, is(2L));
+    }
+}
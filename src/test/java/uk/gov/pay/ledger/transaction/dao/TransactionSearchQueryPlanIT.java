@@ -0,0 +1,147 @@
+package uk.gov.pay.ledger.transaction.dao;
+
+import org.jdbi.v3.core.statement.Query;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.SqlStatements;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import uk.gov.pay.ledger.rule.AppWithPostgresAndSqsRule;
+import uk.gov.pay.ledger.transaction.search.common.CommaDelimitedSetParameter;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchCursor;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static uk.gov.pay.ledger.util.DatabaseTestHelper.aDatabaseTestHelper;
+
+public class TransactionSearchQueryPlanIT {
+
+    private static final String GATEWAY_ACCOUNT_ID = "account-7";
+    private static final String SEQ_SCAN = "\"Seq Scan\"";
+
+    @ClassRule
+    public static AppWithPostgresAndSqsRule rule = new AppWithPostgresAndSqsRule();
+
+    private static final AtomicReference<StatementContext> lastStatement = new AtomicReference<>();
+    private static SqlLogger previousSqlLogger;
+
+    private TransactionDao transactionDao = new TransactionDao(rule.getJdbi());
+
+    @BeforeClass
+    public static void seedTransactions() {
+        previousSqlLogger = rule.getJdbi().getConfig(SqlStatements.class).getSqlLogger();
+        rule.getJdbi().getConfig(SqlStatements.class).setSqlLogger(new SqlLogger() {
+            @Override
+            public void logAfterExecution(StatementContext context) {
+                lastStatement.set(context);
+            }
+        });
+        aDatabaseTestHelper(rule.getJdbi()).truncateAllData();
+        rule.getJdbi().useHandle(handle -> {
+            handle.execute("INSERT INTO transaction(external_id, gateway_account_id, amount, reference, description, " +
+                    "state, email, cardholder_name, card_brand, last_digits_card_number, first_digits_card_number, " +
+                    "created_date, event_count, type) " +
+                    "SELECT substr(md5(n::text), 1, 26), 'account-' || (n % 200), 1000, 'reference-' || n, 'description', " +
+                    "(ARRAY['created', 'submitted', 'success', 'failed_rejected'])[1 + n % 4], 'email' || n || '@example.org', " +
+                    "'name ' || n, (ARRAY['visa', 'master-card', 'american-express'])[1 + n % 3], lpad((n % 10000)::text, 4, '0'), " +
+                    "lpad((n % 1000000)::text, 6, '0'), now() - n * interval '1 minute', 1, 'PAYMENT' " +
+                    "FROM generate_series(1, 100000) n");
+            handle.execute("ANALYZE transaction");
+        });
+    }
+
+    @AfterClass
+    public static void removeTransactions() {
+        rule.getJdbi().getConfig(SqlStatements.class).setSqlLogger(previousSqlLogger);
+        aDatabaseTestHelper(rule.getJdbi()).truncateAllData();
+    }
+
+    @Test
+    public void searchByGatewayAccountShouldNotUseSeqScan() {
+        assertNoSeqScan(searchParams());
+    }
+
+    @Test
+    public void searchByGatewayAccountAndDatesShouldNotUseSeqScan() {
+        TransactionSearchParams searchParams = searchParams();
+        searchParams.setFromDate(ZonedDateTime.now().minusDays(7).toString());
+        searchParams.setToDate(ZonedDateTime.now().minusDays(1).toString());
+        assertNoSeqScan(searchParams);
+    }
+
+    @Test
+    public void searchByGatewayAccountAndStateShouldNotUseSeqScan() {
+        TransactionSearchParams searchParams = searchParams();
+        searchParams.setState("success");
+        assertNoSeqScan(searchParams);
+    }
+
+    @Test
+    public void searchByGatewayAccountAndPaymentAndRefundStatesShouldNotUseSeqScan() {
+        TransactionSearchParams searchParams = searchParams();
+        searchParams.setPaymentStates(new CommaDelimitedSetParameter("success,failed"));
+        searchParams.setRefundStates(new CommaDelimitedSetParameter("success"));
+        assertNoSeqScan(searchParams);
+    }
+
+    @Test
+    public void searchByGatewayAccountAndCardBrandShouldNotUseSeqScan() {
+        TransactionSearchParams searchParams = searchParams();
+        searchParams.setCardBrands(new CommaDelimitedSetParameter("visa,master-card"));
+        assertNoSeqScan(searchParams);
+    }
+
+    @Test
+    public void searchByGatewayAccountAndCardDigitsShouldNotUseSeqScan() {
+        TransactionSearchParams searchParams = searchParams();
+        searchParams.setFirstDigitsCardNumber("000007");
+        searchParams.setLastDigitsCardNumber("0007");
+        assertNoSeqScan(searchParams);
+    }
+
+    @Test
+    public void searchByGatewayAccountAndEmailShouldNotUseSeqScan() {
+        TransactionSearchParams searchParams = searchParams();
+        searchParams.setEmail("email7");
+        assertNoSeqScan(searchParams);
+    }
+
+    @Test
+    public void searchByGatewayAccountWithCursorShouldNotUseSeqScan() {
+        TransactionSearchParams searchParams = searchParams();
+        searchParams.setCursor(new TransactionSearchCursor(ZonedDateTime.now().minusDays(3), 50000L).encode());
+        assertNoSeqScan(searchParams);
+    }
+
+    private TransactionSearchParams searchParams() {
+        TransactionSearchParams searchParams = new TransactionSearchParams();
+        searchParams.setAccountId(GATEWAY_ACCOUNT_ID);
+        searchParams.setDisplaySize(20L);
+        return searchParams;
+    }
+
+    private void assertNoSeqScan(TransactionSearchParams searchParams) {
+        transactionDao.searchTransactions(searchParams);
+        assertThat(explainLastStatement(), not(containsString(SEQ_SCAN)));
+
+        transactionDao.getTotalForSearch(searchParams);
+        assertThat(explainLastStatement(), not(containsString(SEQ_SCAN)));
+    }
+
+    private String explainLastStatement() {
+        StatementContext context = lastStatement.get();
+        return rule.getJdbi().withHandle(handle -> {
+            Query query = handle.createQuery("EXPLAIN (FORMAT JSON) " + context.getRenderedSql());
+            context.getParsedSql().getParameters().getParameterNames()
+                    .forEach(name -> query.bind(name, context.getBinding().findForName(name, context).orElseThrow()));
+            return query.mapTo(String.class).findOnly();
+        });
+    }
+}
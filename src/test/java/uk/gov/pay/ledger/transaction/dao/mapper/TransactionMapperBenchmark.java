@@ -0,0 +1,180 @@
+package uk.gov.pay.ledger.transaction.dao.mapper;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.model.PaymentFactory;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a 500 row page of transactions, comparing the label based mapping that parsed transaction_details
+ * and external_metadata for every row with the index based mapper and PaymentFactory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionMapperBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+    private static final List<String> COLUMNS = List.of("id", "gateway_account_id", "external_id", "parent_external_id",
+            "amount", "reference", "description", "state", "email", "cardholder_name", "external_metadata",
+            "created_date", "transaction_details", "event_count", "card_brand", "last_digits_card_number",
+            "first_digits_card_number", "net_amount", "total_amount", "settlement_submitted_time", "settled_time",
+            "refund_status", "refund_amount_submitted", "refund_amount_available", "fee", "type", "language",
+            "return_url", "payment_provider", "delayed_capture", "gateway_transaction_id", "corporate_surcharge",
+            "address_line1", "address_line2", "address_postcode", "address_city", "address_county",
+            "address_country", "card_expiry_date");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PaymentFactory paymentFactory = new PaymentFactory();
+    private Object[][] rows;
+
+    @Setup
+    public void setUp() {
+        rows = new Object[PAGE_SIZE][];
+        Timestamp createdDate = Timestamp.from(Instant.parse("2019-09-01T10:15:30Z"));
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            rows[i] = new Object[]{(long) i, "gateway-account-id", "external-id-" + i, null,
+                    1000L + i, "reference-" + i, "a description", "success", "someone@example.org", "J Doe",
+                    "{\"ledger_code\": 123, \"some_key\": \"key\"}", createdDate,
+                    "{\"language\": \"en\", \"return_url\": \"https://example.org\", \"payment_provider\": \"sandbox\", " +
+                            "\"delayed_capture\": false, \"address_line1\": \"12 Rouge Avenue\", " +
+                            "\"address_postcode\": \"N1 3QU\", \"address_city\": \"London\", \"address_country\": \"GB\", " +
+                            "\"expiry_date\": \"11/21\", \"corporate_surcharge\": 5}",
+                    3, "visa", "4242", "424242", 995L, 1005L, null, null, "available", 0L, 1000L, 10L, "PAYMENT",
+                    "en", "https://example.org", "sandbox", false, "gateway-transaction-id", 5L,
+                    "12 Rouge Avenue", null, "N1 3QU", "London", null, "GB", "11/21"};
+        }
+    }
+
+    @Benchmark
+    public void labelBasedMappingWithEagerJson(Blackhole blackhole) throws Exception {
+        ResultSet rs = resultSet();
+        while (rs.next()) {
+            TransactionEntity entity = mapByLabel(rs);
+            JsonNode transactionDetails = objectMapper.readTree(Optional.ofNullable(entity.getTransactionDetails()).orElse("{}"));
+            blackhole.consume(Optional.ofNullable(transactionDetails.get("language")).map(JsonNode::textValue).orElse(null));
+            blackhole.consume(Optional.ofNullable(transactionDetails.get("address_line1")).map(JsonNode::textValue).orElse(null));
+            blackhole.consume(objectMapper.readValue(entity.getExternalMetadata(), new TypeReference<Map<String, Object>>() {}));
+            blackhole.consume(paymentFactory.createTransactionEntity(entity));
+        }
+    }
+
+    @Benchmark
+    public void indexBasedMappingWithLazyJson(Blackhole blackhole) throws Exception {
+        ResultSet rs = resultSet();
+        RowMapper<TransactionEntity> mapper = new TransactionMapper().specialize(rs, null);
+        while (rs.next()) {
+            blackhole.consume(paymentFactory.createTransactionEntity(mapper.map(rs, null)));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionMapperBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static TransactionEntity mapByLabel(ResultSet rs) throws SQLException {
+        return new TransactionEntity.Builder()
+                .withId(rs.getLong("id"))
+                .withGatewayAccountId(rs.getString("gateway_account_id"))
+                .withExternalId(rs.getString("external_id"))
+                .withParentExternalId(rs.getString("parent_external_id"))
+                .withAmount(rs.getLong("amount"))
+                .withReference(rs.getString("reference"))
+                .withDescription(rs.getString("description"))
+                .withState(rs.getString("state"))
+                .withEmail(rs.getString("email"))
+                .withCardholderName(rs.getString("cardholder_name"))
+                .withExternalMetadata(rs.getString("external_metadata"))
+                .withCreatedDate(getZonedDateTime(rs, "created_date").orElse(null))
+                .withTransactionDetails(rs.getString("transaction_details"))
+                .withEventCount(rs.getInt("event_count"))
+                .withCardBrand(rs.getString("card_brand"))
+                .withLastDigitsCardNumber(rs.getString("last_digits_card_number"))
+                .withFirstDigitsCardNumber(rs.getString("first_digits_card_number"))
+                .withNetAmount(rs.getLong("net_amount"))
+                .withTotalAmount(rs.getLong("total_amount"))
+                .withSettlementSubmittedTime(getZonedDateTime(rs, "settlement_submitted_time").orElse(null))
+                .withSettledTime(getZonedDateTime(rs, "settled_time").orElse(null))
+                .withRefundStatus(rs.getString("refund_status"))
+                .withRefundAmountSubmitted(rs.getLong("refund_amount_submitted"))
+                .withRefundAmountAvailable(rs.getLong("refund_amount_available"))
+                .withFee(rs.getLong("fee"))
+                .withTransactionType(rs.getString("type"))
+                .build();
+    }
+
+    private static Optional<ZonedDateTime> getZonedDateTime(ResultSet rs, String columnLabel) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(columnLabel);
+
+        return Optional.ofNullable(timestamp)
+                .map(t -> ZonedDateTime.ofInstant(t.toInstant(), ZoneOffset.UTC));
+    }
+
+    /**
+     * A forward only result set over the page, looking labels up in a map as the JDBC driver does.
+     */
+    private ResultSet resultSet() {
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columnIndexes.put(COLUMNS.get(i), i + 1);
+        }
+        int[] row = {-1};
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("next")) {
+                        return ++row[0] < rows.length;
+                    }
+                    if (method.getName().equals("findColumn")) {
+                        return columnIndexes.get(args[0]);
+                    }
+                    int columnIndex = args[0] instanceof String ? columnIndexes.get(args[0]) : (Integer) args[0];
+                    Object value = rows[row[0]][columnIndex - 1];
+                    switch (method.getName()) {
+                        case "getLong":
+                            return value == null ? 0L : ((Number) value).longValue();
+                        case "getInt":
+                            return value == null ? 0 : ((Number) value).intValue();
+                        case "getString":
+                            return value == null ? null : value.toString();
+                        default:
+                            return value;
+                    }
+                });
+    }
+}
@@ -0,0 +1,116 @@
+package uk.gov.pay.ledger.transaction.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.setup.Environment;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.app.LedgerConfig;
+import uk.gov.pay.ledger.app.config.TransactionSearchConfig;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.model.PaymentFactory;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.ledger.util.fixture.TransactionFixture.aTransactionFixture;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionDao transactionDao;
+    @Mock
+    private Environment environment;
+    @Mock
+    private LedgerConfig ledgerConfig;
+
+    private ObjectMapper objectMapper = Jackson.newObjectMapper();
+    private TransactionExportService transactionExportService;
+    private TransactionSearchParams searchParams = new TransactionSearchParams();
+
+    @Before
+    public void setUp() {
+        when(environment.getObjectMapper()).thenReturn(objectMapper);
+        when(ledgerConfig.getTransactionSearchConfig()).thenReturn(new TransactionSearchConfig());
+        transactionExportService = new TransactionExportService(transactionDao, new PaymentFactory(),
+                environment, ledgerConfig);
+    }
+
+    @Test
+    public void shouldWriteOneJsonObjectPerLine_whenExportingAsNdjson() throws Exception {
+        TransactionEntity first = aTransactionFixture().withReference("first").toEntity();
+        TransactionEntity second = aTransactionFixture().withReference("second").toEntity();
+        streamTransactions(first, second);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transactionExportService.export(searchParams, ExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines.length, is(2));
+        assertThat(objectMapper.readTree(lines[0]).get("reference").asText(), is("first"));
+        assertThat(objectMapper.readTree(lines[1]).get("reference").asText(), is("second"));
+    }
+
+    @Test
+    public void shouldWriteHeaderAndEscapedRows_whenExportingAsCsv() throws Exception {
+        TransactionEntity transaction = aTransactionFixture().withReference("a \"quoted\", reference").toEntity();
+        streamTransactions(transaction);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transactionExportService.export(searchParams, ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines.length, is(2));
+        assertThat(lines[0], startsWith("transaction_id,gateway_account_id,reference,"));
+        assertThat(lines[1], startsWith(transaction.getExternalId() + "," + transaction.getGatewayAccountId()
+                + ",\"a \"\"quoted\"\", reference\","));
+    }
+
+    @Test
+    public void shouldNotReserveExport_whenMaximumNumberOfExportsAreRunning() throws Exception {
+        TransactionEntity transaction = aTransactionFixture().toEntity();
+        streamTransactions(transaction);
+
+        Optional<StreamingOutput> first = transactionExportService.reserveExport(searchParams, ExportFormat.NDJSON);
+        Optional<StreamingOutput> second = transactionExportService.reserveExport(searchParams, ExportFormat.NDJSON);
+        Optional<StreamingOutput> third = transactionExportService.reserveExport(searchParams, ExportFormat.NDJSON);
+
+        assertThat(first.isPresent(), is(true));
+        assertThat(second.isPresent(), is(true));
+        assertThat(third.isPresent(), is(false));
+
+        first.get().write(new ByteArrayOutputStream());
+        assertThat(transactionExportService.reserveExport(searchParams, ExportFormat.NDJSON).isPresent(), is(true));
+    }
+
+    @Test
+    public void shouldOnlyQuoteCsvValuesThatNeedIt() {
+        assertThat(TransactionExportService.escapeCsv("plain"), is("plain"));
+        assertThat(TransactionExportService.escapeCsv("line\nbreak"), is("\"line\nbreak\""));
+    }
+
+    private void streamTransactions(TransactionEntity... transactions) {
+        doAnswer(invocation -> {
+            Consumer<TransactionEntity> consumer = invocation.getArgument(3);
+            List.of(transactions).forEach(consumer);
+            return null;
+        }).when(transactionDao).streamTransactions(eq(searchParams), any(Integer.class), any(Integer.class), any());
+    }
+}
@@ -1,6 +1,5 @@
 package uk.gov.pay.ledger.transaction.model;
 
-import io.dropwizard.jackson.Jackson;
 import org.junit.Before;
 import org.junit.Test;
 import org.testcontainers.shaded.com.google.common.collect.ImmutableMap;
@@ -32,21 +31,6 @@ public class PaymentFactoryTest {
     private String cardholderName = "M Jan Kowalski";
     private String fullExternalMetadata = "{\"ledger_code\":123, \"some_key\":\"key\"}";
     private ZonedDateTime createdDate = ZonedDateTime.now();
-    private String fullTransactionDetails = "{\n" +
-            "  \"language\": \"en\",\n" +
-            "  \"return_url\": \"https://test.url.com\",\n" +
-            "  \"payment_provider\": \"sandbox\",\n" +
-            "  \"delayed_capture\": true,\n" +
-            "  \"gateway_transaction_id\": \"gti_12334\",\n" +
-            "  \"corporate_surcharge\": 12,\n" +
-            "  \"fee\": 5,\n" +
-            "  \"address_line1\": \"line 1\",\n" +
-            "  \"address_line2\": \"line 2\",\n" +
-            "  \"address_postcode\": \"A11 11BB\",\n" +
-            "  \"address_city\": \"London\",\n" +
-            "  \"address_county\": \"London\",\n" +
-            "  \"address_country\": \"GB\"\n" +
-            "}";
     private Integer eventCount = 2;
     private String cardBrand = "visa";
     private String lastDigitsCardNumber = "5678";
@@ -74,7 +58,19 @@ public class PaymentFactoryTest {
                 .withCardholderName(cardholderName)
                 .withExternalMetadata(fullExternalMetadata)
                 .withCreatedDate(createdDate)
-                .withTransactionDetails(fullTransactionDetails)
+                .withLanguage("en")
+                .withReturnUrl("https://test.url.com")
+                .withPaymentProvider("sandbox")
+                .withDelayedCapture(true)
+                .withGatewayTransactionId("gti_12334")
+                .withCorporateSurcharge(12L)
+                .withAddressLine1("line 1")
+                .withAddressLine2("line 2")
+                .withAddressPostcode("A11 11BB")
+                .withAddressCity("London")
+                .withAddressCounty("London")
+                .withAddressCountry("GB")
+                .withCardExpiryDate("11/21")
                 .withEventCount(eventCount)
                 .withCardBrand(cardBrand)
                 .withLastDigitsCardNumber(lastDigitsCardNumber)
@@ -113,7 +109,7 @@ public class PaymentFactoryTest {
                 .withRefundAmountAvailable(refundAmountAvailable)
                 .build();
 
-        paymentFactory = new PaymentFactory(Jackson.newObjectMapper());
+        paymentFactory = new PaymentFactory();
     }
 
     @Test
@@ -136,6 +132,7 @@ public class PaymentFactoryTest {
         assertThat(payment.getCardDetails().getFirstDigitsCardNumber(), is(firstDigitsCardNumber));
         assertThat(payment.getCardDetails().getCardHolderName(), is(cardholderName));
         assertThat(payment.getCardDetails().getCardBrand(), is(cardBrand));
+        assertThat(payment.getCardDetails().getExpiryDate(), is("11/21"));
         assertThat(payment.getCardDetails().getBillingAddress(), notNullValue());
         assertThat(payment.getCardDetails().getBillingAddress().getAddressLine1(), is("line 1"));
         assertThat(payment.getCardDetails().getBillingAddress().getAddressLine2(), is("line 2"));
@@ -197,4 +194,29 @@ public class PaymentFactoryTest {
         assertThat(payment.getSettlementSummary().getCapturedDate(), is(Optional.of("2017-09-09")));
         assertThat(payment.getSettlementSummary().getSettlementSubmittedTime(), is(Optional.of("2017-09-09T08:35:45.695Z")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void createsPaymentFromTransactionDetails_whenPromotedColumnsAreNotSet() {
+        TransactionEntity entity = new TransactionEntity.Builder()
+                .withGatewayAccountId(gatewayAccountId)
+                .withExternalId(externalId)
+                .withState(state)
+                .withTransactionDetails("{\"language\": \"cy\", \"return_url\": \"https://test.url.com\", " +
+                        "\"payment_provider\": \"sandbox\", \"delayed_capture\": true, \"corporate_surcharge\": 12, " +
+                        "\"address_line1\": \"line 1\", \"address_country\": \"GB\", \"expiry_date\": \"11/21\"}")
+                .withLanguage("en")
+                .build();
+
+        var payment = paymentFactory.createTransactionEntity(entity);
+
+        assertThat(payment.getLanguage(), is("en"));
+        assertThat(payment.getReturnUrl(), is("https://test.url.com"));
+        assertThat(payment.getPaymentProvider(), is("sandbox"));
+        assertThat(payment.getDelayedCapture(), is(true));
+        assertThat(payment.getCorporateCardSurcharge(), is(12L));
+        assertThat(payment.getCardDetails().getExpiryDate(), is("11/21"));
+        assertThat(payment.getCardDetails().getBillingAddress().getAddressLine1(), is("line 1"));
+        assertThat(payment.getCardDetails().getBillingAddress().getAddressCountry(), is("GB"));
+        assertThat(payment.getGatewayTransactionId(), nullValue());
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static uk.gov.pay.commons.model.ApiResponseDateTimeFormatter.ISO_INSTANT_MILLISECOND_PRECISION;
 import static uk.gov.pay.ledger.util.DatabaseTestHelper.aDatabaseTestHelper;
@@ -117,4 +118,19 @@ public class TransactionResourceIT {
                 .body("_links.prev_page.href", containsString("v1/transaction?account_id=" + gatewayAccountId + "&from_date=2000-01-01T10%3A15%3A30Z&to_date=2100-01-01T10%3A15%3A30Z&email=example.org&reference=reference&cardholder_name=smith&first_digits_card_number=123456&last_digits_card_number=1234&card_brand=visa%2Cmastercard&state=submitted&page=1&display_size=2"))
                 .body("_links.next_page.href", containsString("v1/transaction?account_id=" + gatewayAccountId + "&from_date=2000-01-01T10%3A15%3A30Z&to_date=2100-01-01T10%3A15%3A30Z&email=example.org&reference=reference&cardholder_name=smith&first_digits_card_number=123456&last_digits_card_number=1234&card_brand=visa%2Cmastercard&state=submitted&page=3&display_size=2"));
     }
+
+    @Test
+    public void shouldExportAllMatchingTransactionsAsNdjson() {
+        String gatewayAccountId = RandomStringUtils.randomAlphanumeric(20);
+        aPersistedTransactionList(gatewayAccountId, 3, rule.getJdbi(), true);
+
+        String body = given().port(port)
+                .get("/v1/transaction/export?account_id=" + gatewayAccountId + "&display_size=1")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        assertThat(body.split("\n").length, is(3));
+    }
 }
@@ -5,21 +5,33 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.exception.BadRequestExceptionMapper;
+import uk.gov.pay.ledger.transaction.export.ExportFormat;
+import uk.gov.pay.ledger.transaction.export.TransactionExportService;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 import uk.gov.pay.ledger.transaction.service.TransactionService;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TransactionResourceTest {
     private static final TransactionService mockTransactionService = mock(TransactionService.class);
+    private static final TransactionExportService mockTransactionExportService = mock(TransactionExportService.class);
 
     @ClassRule
     public static final ResourceTestRule resources = ResourceTestRule.builder()
-            .addResource(new TransactionResource(mockTransactionService))
+            .addResource(new TransactionResource(mockTransactionService, mockTransactionExportService))
+            .addProvider(new BadRequestExceptionMapper())
             .build();
 
     @Test
@@ -38,4 +50,48 @@ public class TransactionResourceTest {
 
         assertThat(response.getStatus(), is(404));
     }
+
+    @Test
+    public void shouldStreamExportInRequestedFormat() throws Exception {
+        StreamingOutput output = outputStream -> outputStream.write("transaction_id\r\nexternal-id\r\n".getBytes(StandardCharsets.UTF_8));
+        when(mockTransactionExportService.reserveExport(any(TransactionSearchParams.class), eq(ExportFormat.CSV)))
+                .thenReturn(Optional.of(output));
+
+        Response response = resources
+                .target("/v1/transaction/export")
+                .queryParam("account_id", 1)
+                .queryParam("format", "csv")
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getMediaType().toString(), is("text/csv"));
+        assertThat(response.readEntity(String.class), is("transaction_id\r\nexternal-id\r\n"));
+    }
+
+    @Test
+    public void shouldReturn503IfTooManyExportsAreRunning() {
+        when(mockTransactionExportService.reserveExport(any(TransactionSearchParams.class), eq(ExportFormat.NDJSON)))
+                .thenReturn(Optional.empty());
+
+        Response response = resources
+                .target("/v1/transaction/export")
+                .queryParam("account_id", 1)
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(503));
+    }
+
+    @Test
+    public void shouldReturn400IfExportFormatIsNotSupported() {
+        Response response = resources
+                .target("/v1/transaction/export")
+                .queryParam("account_id", 1)
+                .queryParam("format", "xlsx")
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(400));
+    }
 }
@@ -0,0 +1,49 @@
+package uk.gov.pay.ledger.transaction.search.common;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.transaction.search.model.Link;
+
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriInfo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionLinkTemplatesTest {
+
+    @Mock
+    private UriInfo uriInfo;
+
+    private TransactionLinkTemplates linkTemplates;
+
+    @Before
+    public void setUp() {
+        when(uriInfo.getBaseUri()).thenReturn(UriBuilder.fromUri("http://app.com/").build());
+        linkTemplates = new TransactionLinkTemplates(uriInfo.getBaseUri());
+    }
+
+    @Test
+    public void shouldBuildSelfAndRefundsLinks() {
+        assertThat(linkTemplates.selfHref("ch_123abc456def"), is("http://app.com/v1/transaction/ch_123abc456def"));
+        assertThat(linkTemplates.refundsHref("ch_123abc456def"),
+                is("http://app.com/v1/transaction/ch_123abc456def/refunds"));
+        assertThat(linkTemplates.selfLink("ch_123abc456def"),
+                is(Link.ofValue("http://app.com/v1/transaction/ch_123abc456def", "GET", "self")));
+        assertThat(linkTemplates.refundsLink("ch_123abc456def"),
+                is(Link.ofValue("http://app.com/v1/transaction/ch_123abc456def/refunds", "GET", "refunds")));
+    }
+
+    @Test
+    public void shouldEncodeExternalIdsThatAreNotUnreserved() {
+        assertThat(linkTemplates.selfHref("an id/with?reserved#chars"),
+                is("http://app.com/v1/transaction/an%20id%2Fwith%3Freserved%23chars"));
+        assertThat(linkTemplates.refundsHref("an id/with?reserved#chars"),
+                is("http://app.com/v1/transaction/an%20id%2Fwith%3Freserved%23chars/refunds"));
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.pay.ledger.transaction.search.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the search conditions and bind parameters of a transaction search with most filters set. The query map is
+ * cached per search, so each invocation builds it for new search params as each request does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionSearchParamsBenchmark {
+
+    private TransactionSearchParams searchParams;
+
+    @Setup
+    public void setUp() {
+        searchParams = searchParams();
+    }
+
+    @Benchmark
+    public String generateQuery() {
+        return searchParams.generateQuery();
+    }
+
+    @Benchmark
+    public Map<String, Object> getQueryMap() {
+        return searchParams().getQueryMap();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionSearchParamsBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static TransactionSearchParams searchParams() {
+        TransactionSearchParams searchParams = new TransactionSearchParams();
+        searchParams.setAccountId("gateway-account-id");
+        searchParams.setEmail("someone@example.org");
+        searchParams.setReference("a reference");
+        searchParams.setCardHolderName("J Doe");
+        searchParams.setFromDate("2019-09-01T00:00:00Z");
+        searchParams.setToDate("2019-10-01T00:00:00Z");
+        searchParams.setPaymentStates(new CommaDelimitedSetParameter("created,submitted,success"));
+        searchParams.setRefundStates(new CommaDelimitedSetParameter("submitted,success"));
+        searchParams.setCardBrands(new CommaDelimitedSetParameter("visa,master-card"));
+        searchParams.setLastDigitsCardNumber("4242");
+        searchParams.setPageNumber(2L);
+        searchParams.setDisplaySize(500L);
+        return searchParams;
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.rules.ExpectedException;
 import uk.gov.pay.ledger.exception.UnparsableDateException;
 import uk.gov.pay.ledger.exception.ValidationException;
 
+import java.time.ZonedDateTime;
+
 public class TransactionSearchParamsValidatorTest {
 
     @Rule
@@ -49,4 +51,34 @@ public class TransactionSearchParamsValidatorTest {
         searchParams.setToDate("2019-05-01T10:15:30Z");
         TransactionSearchParamsValidator.validateSearchParams(searchParams);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldThrowException_whenInvalidCursor() {
+        searchParams.setCursor("not-a-cursor");
+        thrown.expect(ValidationException.class);
+        thrown.expectMessage("Invalid cursor [not-a-cursor]");
+        TransactionSearchParamsValidator.validateSearchParams(searchParams);
+    }
+
+    @Test
+    public void shouldNotThrowException_whenValidCursor() {
+        searchParams.setCursor(new TransactionSearchCursor(ZonedDateTime.parse("2019-05-01T10:15:30.123456Z"), 10L).encode());
+        TransactionSearchParamsValidator.validateSearchParams(searchParams);
+    }
+
+    @Test
+    public void shouldThrowException_whenInvalidTextMatch() {
+        searchParams.setTextMatch("suffix");
+        thrown.expect(ValidationException.class);
+        thrown.expectMessage("Field [text_match] must be one of [contains, prefix]");
+        TransactionSearchParamsValidator.validateSearchParams(searchParams);
+    }
+
+    @Test
+    public void shouldThrowException_whenUnknownPaymentState() {
+        searchParams.setPaymentStates(new CommaDelimitedSetParameter("success,unknown"));
+        thrown.expect(ValidationException.class);
+        thrown.expectMessage("Field [payment_states] contains an unknown state [unknown]");
+        TransactionSearchParamsValidator.validateSearchParams(searchParams);
+    }
+}
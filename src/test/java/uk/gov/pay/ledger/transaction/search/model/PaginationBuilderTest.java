@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
 import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 
 import javax.ws.rs.core.UriBuilder;
@@ -92,4 +93,59 @@ public class PaginationBuilderTest {
         assertThat(builder.getNextLink().getHref().contains("page=4&display_size=10"), is(true));
         assertThat(builder.getSelfLink().getHref().contains("page=3&display_size=10"), is(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldBuildSelfFirstAndNextLinksWithCursor_whenCursorPaginationIsUsed() {
+        searchParams.setCursor("");
+        searchParams.setDisplaySize(10L);
+        PaginationBuilder builder = new PaginationBuilder(searchParams, mockedUriInfo)
+                .withTotalCount(120L)
+                .withNextCursor("next-cursor");
+        builder = builder.buildResponse();
+        assertThat(builder.getSelfLink().getHref().contains("cursor=&display_size=10"), is(true));
+        assertThat(builder.getFirstLink().getHref().contains("cursor=&display_size=10"), is(true));
+        assertThat(builder.getNextLink().getHref().contains("cursor=next-cursor&display_size=10"), is(true));
+        assertThat(builder.getPrevLink(), is(nullValue()));
+        assertThat(builder.getLastLink(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotBuildNextLink_whenCursorPaginationIsUsedAndThereIsNoNextCursor() {
+        searchParams.setCursor("current-cursor");
+        searchParams.setDisplaySize(10L);
+        PaginationBuilder builder = new PaginationBuilder(searchParams, mockedUriInfo)
+                .withTotalCount(120L);
+        builder = builder.buildResponse();
+        assertThat(builder.getSelfLink().getHref().contains("cursor=current-cursor&display_size=10"), is(true));
+        assertThat(builder.getNextLink(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldBuildNextLinkWithoutLastLink_whenTotalIsNotCounted() {
+        searchParams.setPageNumber(2L);
+        searchParams.setDisplaySize(10L);
+        PaginationBuilder builder = new PaginationBuilder(searchParams, mockedUriInfo)
+                .withTotalCount(null)
+                .withCountStrategy(SearchCountStrategy.NONE)
+                .withResultCount(10L);
+        builder = builder.buildResponse();
+        assertThat(builder.getFirstLink().getHref().contains("page=1&display_size=10"), is(true));
+        assertThat(builder.getPrevLink().getHref().contains("page=1&display_size=10"), is(true));
+        assertThat(builder.getSelfLink().getHref().contains("page=2&display_size=10"), is(true));
+        assertThat(builder.getNextLink().getHref().contains("page=3&display_size=10"), is(true));
+        assertThat(builder.getLastLink(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldBuildNextLinkBeyondEstimatedLastPage_whenPageIsFull() {
+        searchParams.setPageNumber(2L);
+        searchParams.setDisplaySize(10L);
+        PaginationBuilder builder = new PaginationBuilder(searchParams, mockedUriInfo)
+                .withTotalCount(15L)
+                .withCountStrategy(SearchCountStrategy.ESTIMATE)
+                .withResultCount(10L);
+        builder = builder.buildResponse();
+        assertThat(builder.getLastLink().getHref().contains("page=2&display_size=10"), is(true));
+        assertThat(builder.getNextLink().getHref().contains("page=3&display_size=10"), is(true));
+    }
+}
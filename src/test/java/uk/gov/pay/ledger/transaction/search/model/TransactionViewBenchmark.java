@@ -0,0 +1,128 @@
+package uk.gov.pay.ledger.transaction.search.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.model.Payment;
+import uk.gov.pay.ledger.transaction.model.PaymentFactory;
+import uk.gov.pay.ledger.transaction.search.common.TransactionLinkTemplates;
+
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Renders one transaction as JSON, either through PaymentFactory and TransactionView as the single transaction
+ * endpoint does, or with TransactionViewWriter as search results are written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionViewBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson.newObjectMapper();
+    private final PaymentFactory paymentFactory = new PaymentFactory();
+    private TransactionEntity entity;
+    private TransactionLinkTemplates linkTemplates;
+    private TransactionViewWriter transactionViewWriter;
+
+    @Setup
+    public void setUp() {
+        URI baseUri = UriBuilder.fromUri("http://ledger.example.org").build();
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getBaseUri()).thenReturn(baseUri);
+        linkTemplates = new TransactionLinkTemplates(baseUri);
+        transactionViewWriter = new TransactionViewWriter(uriInfo);
+
+        entity = new TransactionEntity.Builder()
+                .withId(1L)
+                .withGatewayAccountId("gateway-account-id")
+                .withExternalId("external-id")
+                .withAmount(1000L)
+                .withReference("a reference")
+                .withDescription("a description")
+                .withState("success")
+                .withEmail("someone@example.org")
+                .withCardholderName("J Doe")
+                .withExternalMetadata("{\"ledger_code\": 123, \"some_key\": \"key\"}")
+                .withCreatedDate(ZonedDateTime.parse("2019-09-01T10:15:30.123456Z"))
+                .withEventCount(3)
+                .withCardBrand("visa")
+                .withLastDigitsCardNumber("4242")
+                .withFirstDigitsCardNumber("424242")
+                .withNetAmount(990L)
+                .withTotalAmount(1005L)
+                .withSettlementSubmittedTime(ZonedDateTime.parse("2019-09-02T10:15:30Z"))
+                .withSettledTime(ZonedDateTime.parse("2019-09-03T10:15:30Z"))
+                .withRefundStatus("available")
+                .withRefundAmountSubmitted(0L)
+                .withRefundAmountAvailable(1000L)
+                .withFee(10L)
+                .withTransactionType("PAYMENT")
+                .withLanguage("en")
+                .withReturnUrl("https://example.org")
+                .withPaymentProvider("sandbox")
+                .withDelayedCapture(false)
+                .withGatewayTransactionId("gateway-transaction-id")
+                .withCorporateSurcharge(5L)
+                .withAddressLine1("12 Rouge Avenue")
+                .withAddressPostcode("N1 3QU")
+                .withAddressCity("London")
+                .withAddressCountry("GB")
+                .withCardExpiryDate("11/21")
+                .build();
+    }
+
+    @Benchmark
+    public Payment createTransactionEntity() {
+        return paymentFactory.createTransactionEntity(entity);
+    }
+
+    @Benchmark
+    public String serialiseTransactionView() throws IOException {
+        TransactionView transactionView = TransactionView.from(paymentFactory.createTransactionEntity(entity))
+                .addLink(linkTemplates.selfLink(entity.getExternalId()))
+                .addLink(linkTemplates.refundsLink(entity.getExternalId()));
+        return objectMapper.writeValueAsString(transactionView);
+    }
+
+    @Benchmark
+    public String writeWithTransactionViewWriter() throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+            transactionViewWriter.write(entity, gen, objectMapper.getSerializerProviderInstance());
+        }
+        return json.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionViewBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,132 @@
+package uk.gov.pay.ledger.transaction.search.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.model.PaymentFactory;
+
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.ZonedDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionViewWriterTest {
+
+    @Mock
+    private UriInfo uriInfo;
+
+    private ObjectMapper objectMapper = Jackson.newObjectMapper();
+    private TransactionViewWriter transactionViewWriter;
+
+    @Before
+    public void setUp() {
+        when(uriInfo.getBaseUri()).thenReturn(UriBuilder.fromUri("http://app.com").build());
+        transactionViewWriter = new TransactionViewWriter(uriInfo);
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonAsTransactionView_whenAllFieldsAreSet() throws IOException {
+        TransactionEntity entity = new TransactionEntity.Builder()
+                .withId(1L)
+                .withGatewayAccountId("gateway-account-id")
+                .withExternalId("external-id")
+                .withAmount(1000L)
+                .withReference("ref \"quoted\"")
+                .withDescription("a description with unicode \u00e9 and\nnew line")
+                .withState("success")
+                .withEmail("someone@example.org")
+                .withCardholderName("J Doe")
+                .withExternalMetadata("{\"ledger_code\": 123, \"some_key\": \"key\"}")
+                .withCreatedDate(ZonedDateTime.parse("2019-09-01T10:15:30.123456Z"))
+                .withEventCount(3)
+                .withCardBrand("visa")
+                .withLastDigitsCardNumber("4242")
+                .withFirstDigitsCardNumber("424242")
+                .withNetAmount(990L)
+                .withTotalAmount(1005L)
+                .withSettlementSubmittedTime(ZonedDateTime.parse("2019-09-02T10:15:30Z"))
+                .withSettledTime(ZonedDateTime.parse("2019-09-03T10:15:30Z"))
+                .withRefundStatus("available")
+                .withRefundAmountSubmitted(0L)
+                .withRefundAmountAvailable(1000L)
+                .withFee(10L)
+                .withTransactionType("PAYMENT")
+                .withLanguage("en")
+                .withReturnUrl("https://example.org")
+                .withPaymentProvider("sandbox")
+                .withDelayedCapture(true)
+                .withGatewayTransactionId("gateway-transaction-id")
+                .withCorporateSurcharge(5L)
+                .withAddressLine1("12 Rouge Avenue")
+                .withAddressLine2("Flat 2")
+                .withAddressPostcode("N1 3QU")
+                .withAddressCity("London")
+                .withAddressCounty("Greater London")
+                .withAddressCountry("GB")
+                .withCardExpiryDate("11/21")
+                .build();
+
+        assertThat(write(entity), is(writeTransactionView(entity)));
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonAsTransactionView_whenOptionalFieldsAreMissing() throws IOException {
+        TransactionEntity entity = new TransactionEntity.Builder()
+                .withExternalId("external-id")
+                .withState("created")
+                .withLastDigitsCardNumber("4242")
+                .withAddressCountry("GB")
+                .withRefundAmountAvailable(100L)
+                .build();
+
+        assertThat(write(entity), is(writeTransactionView(entity)));
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonAsTransactionView_whenPromotedFieldsAreOnlyInTransactionDetails() throws IOException {
+        TransactionEntity entity = new TransactionEntity.Builder()
+                .withExternalId("external-id")
+                .withState("success")
+                .withCardBrand("visa")
+                .withTransactionDetails("{\"language\": \"en\", \"return_url\": \"https://example.org\", " +
+                        "\"payment_provider\": \"sandbox\", \"delayed_capture\": true, " +
+                        "\"gateway_transaction_id\": \"gateway-transaction-id\", \"corporate_surcharge\": 5, " +
+                        "\"address_line1\": \"12 Rouge Avenue\", \"address_postcode\": \"N1 3QU\", " +
+                        "\"address_country\": \"GB\", \"expiry_date\": \"11/21\"}")
+                .build();
+
+        String json = write(entity);
+
+        assertThat(json, is(writeTransactionView(entity)));
+        assertThat(json, containsString("\"delayed_capture\":true"));
+        assertThat(json, containsString("\"expiry_date\":\"11/21\""));
+    }
+
+    private String write(TransactionEntity entity) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+            transactionViewWriter.write(entity, gen, objectMapper.getSerializerProviderInstance());
+        }
+        return json.toString();
+    }
+
+    private String writeTransactionView(TransactionEntity entity) throws IOException {
+        TransactionView transactionView = TransactionView.from(new PaymentFactory().createTransactionEntity(entity))
+                .addLink(Link.ofValue("http://app.com/v1/transaction/" + entity.getExternalId(), "GET", "self"))
+                .addLink(Link.ofValue("http://app.com/v1/transaction/" + entity.getExternalId() + "/refunds", "GET", "refunds"));
+        return objectMapper.writeValueAsString(transactionView);
+    }
+}
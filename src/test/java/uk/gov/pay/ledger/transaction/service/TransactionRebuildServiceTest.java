@@ -0,0 +1,99 @@
+package uk.gov.pay.ledger.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.event.dao.EventReplayDao;
+import uk.gov.pay.ledger.event.model.Event;
+import uk.gov.pay.ledger.event.model.TransactionEntityFactory;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.ledger.util.fixture.QueuePaymentEventFixture.aQueuePaymentEventFixture;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionRebuildServiceTest {
+
+    @Mock
+    private EventReplayDao eventReplayDao;
+
+    @Mock
+    private TransactionDao transactionDao;
+
+    private TransactionRebuildService transactionRebuildService;
+    private List<List<String>> writtenBatches = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        transactionRebuildService = new TransactionRebuildService(eventReplayDao, transactionDao,
+                new TransactionEntityFactory(new ObjectMapper()));
+        doAnswer(invocation -> {
+            List<TransactionEntity> transactions = invocation.getArgument(0);
+            writtenBatches.add(transactions.stream().map(TransactionEntity::getExternalId).collect(Collectors.toList()));
+            return null;
+        }).when(transactionDao).overwrite(any());
+    }
+
+    @Test
+    public void shouldProjectOneTransactionPerResourceAndWriteInBatches() throws Exception {
+        List<Event> events = List.of(
+                event("resource-a", "PAYMENT_STARTED"),
+                event("resource-a", "PAYMENT_CREATED"),
+                event("resource-b", "PAYMENT_CREATED"),
+                event("resource-c", "NON_STATE_TRANSITION_EVENT"),
+                event("resource-d", "PAYMENT_CREATED"));
+        when(eventReplayDao.getResourceExternalIdBoundaries(anyInt(), anyDouble())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            Consumer<Event> consumer = invocation.getArgument(3);
+            events.forEach(consumer);
+            return null;
+        }).when(eventReplayDao).streamEvents(isNull(), isNull(), eq(100), any());
+
+        TransactionRebuildService.RebuildResult result = transactionRebuildService.rebuild(1, 2, 100);
+
+        assertThat(writtenBatches, is(List.of(List.of("resource-a", "resource-b"), List.of("resource-d"))));
+        assertThat(result.getEvents(), is(5L));
+        assertThat(result.getTransactions(), is(3L));
+        assertThat(result.getSkippedResources(), is(1L));
+    }
+
+    @Test
+    public void shouldRebuildEachRangeBetweenBoundaries() throws Exception {
+        when(eventReplayDao.getResourceExternalIdBoundaries(anyInt(), anyDouble())).thenReturn(List.of("m"));
+
+        transactionRebuildService.rebuild(2, 10, 100);
+
+        ArgumentCaptor<String> from = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> to = ArgumentCaptor.forClass(String.class);
+        verify(eventReplayDao, times(2)).streamEvents(from.capture(), to.capture(), eq(100), any());
+        assertThat(from.getAllValues().contains(null) && from.getAllValues().contains("m"), is(true));
+        assertThat(to.getAllValues().contains(null) && to.getAllValues().contains("m"), is(true));
+    }
+
+    private Event event(String resourceExternalId, String eventType) {
+        return aQueuePaymentEventFixture()
+                .withResourceExternalId(resourceExternalId)
+                .withEventType(eventType)
+                .toEntity();
+    }
+}
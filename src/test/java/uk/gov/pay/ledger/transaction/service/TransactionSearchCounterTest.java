@@ -0,0 +1,138 @@
+package uk.gov.pay.ledger.transaction.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.app.config.TransactionSearchConfig;
+import uk.gov.pay.ledger.transaction.dao.TransactionDao;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionSearchCounterTest {
+
+    @Mock
+    private TransactionDao transactionDao;
+    @Mock
+    private TransactionSearchConfig config;
+
+    private TransactionSearchParams searchParams;
+
+    @Before
+    public void setUp() {
+        searchParams = new TransactionSearchParams();
+        searchParams.setAccountId("gateway_account_id");
+        when(config.getCountCacheTtlInSeconds()).thenReturn(30);
+        when(config.getCountCacheMaximumSize()).thenReturn(10);
+    }
+
+    @Test
+    public void shouldNotCount_whenStrategyIsNone() {
+        when(config.getCountStrategy()).thenReturn(SearchCountStrategy.NONE);
+
+        Long total = new TransactionSearchCounter(transactionDao, config, Clock.systemUTC()).count(searchParams);
+
+        assertThat(total, is(nullValue()));
+        verify(transactionDao, never()).getTotalForSearch(any());
+    }
+
+    @Test
+    public void shouldUsePlannerEstimate_whenStrategyIsEstimate() {
+        when(config.getCountStrategy()).thenReturn(SearchCountStrategy.ESTIMATE);
+        when(transactionDao.getEstimatedTotalForSearch(searchParams)).thenReturn(1200L);
+
+        Long total = new TransactionSearchCounter(transactionDao, config, Clock.systemUTC()).count(searchParams);
+
+        assertThat(total, is(1200L));
+        verify(transactionDao, never()).getTotalForSearch(any());
+    }
+
+    @Test
+    public void shouldReuseCachedCount_untilTtlExpires() {
+        when(config.getCountStrategy()).thenReturn(SearchCountStrategy.CACHED);
+        when(transactionDao.getTotalForSearch(any())).thenReturn(10L, 11L);
+        MutableClock clock = new MutableClock(Instant.parse("2019-08-01T10:00:00Z"));
+        TransactionSearchCounter counter = new TransactionSearchCounter(transactionDao, config, clock);
+
+        assertThat(counter.count(searchParams), is(10L));
+        clock.instant = clock.instant.plusSeconds(29);
+        assertThat(counter.count(searchParams), is(10L));
+        clock.instant = clock.instant.plusSeconds(1);
+        assertThat(counter.count(searchParams), is(11L));
+
+        verify(transactionDao, times(2)).getTotalForSearch(searchParams);
+    }
+
+    @Test
+    public void shouldCacheCountsSeparately_forDifferentFilters() {
+        when(config.getCountStrategy()).thenReturn(SearchCountStrategy.CACHED);
+        when(transactionDao.getTotalForSearch(any())).thenReturn(10L, 2L);
+        TransactionSearchCounter counter = new TransactionSearchCounter(transactionDao, config, Clock.systemUTC());
+        TransactionSearchParams emailSearchParams = new TransactionSearchParams();
+        emailSearchParams.setAccountId("gateway_account_id");
+        emailSearchParams.setEmail("test@example.org");
+
+        assertThat(counter.count(searchParams), is(10L));
+        assertThat(counter.count(emailSearchParams), is(2L));
+        assertThat(counter.count(searchParams), is(10L));
+    }
+
+    @Test
+    public void shouldCountOnExecutor_whenCountingAsynchronously() throws Exception {
+        when(config.getCountStrategy()).thenReturn(SearchCountStrategy.EXACT);
+        when(transactionDao.getTotalForSearch(searchParams)).thenAnswer(invocation -> Thread.currentThread().getName().equals("count-thread") ? 5L : 0L);
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> new Thread(task, "count-thread"));
+
+        try {
+            Long total = new TransactionSearchCounter(transactionDao, config, Clock.systemUTC(), executor)
+                    .countAsync(searchParams)
+                    .get(5, TimeUnit.SECONDS);
+
+            assertThat(total, is(5L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
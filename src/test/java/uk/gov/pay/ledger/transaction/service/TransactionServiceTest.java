@@ -1,5 +1,7 @@
 package uk.gov.pay.ledger.transaction.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dropwizard.jackson.Jackson;
 import org.junit.Before;
@@ -7,25 +9,36 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.app.config.TransactionCacheConfig;
+import uk.gov.pay.ledger.app.config.TransactionSearchConfig;
 import uk.gov.pay.ledger.event.model.TransactionEntityFactory;
 import uk.gov.pay.ledger.transaction.dao.TransactionDao;
 import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
 import uk.gov.pay.ledger.transaction.model.PaymentFactory;
 import uk.gov.pay.ledger.transaction.model.TransactionSearchResponse;
 import uk.gov.pay.ledger.transaction.search.common.CommaDelimitedSetParameter;
+import uk.gov.pay.ledger.transaction.search.common.SearchCountStrategy;
+import uk.gov.pay.ledger.transaction.search.common.TransactionSearchCursor;
 import uk.gov.pay.ledger.transaction.search.common.TransactionSearchParams;
 import uk.gov.pay.ledger.transaction.search.model.PaginationBuilder;
-import uk.gov.pay.ledger.transaction.search.model.TransactionView;
 import uk.gov.pay.ledger.util.fixture.TransactionFixture;
 
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -40,12 +53,16 @@ public class TransactionServiceTest {
     private String gatewayAccountId = "gateway_account_id";
     private TransactionSearchParams searchParams;
 
+    private ObjectMapper objectMapper = Jackson.newObjectMapper();
+
     @Before
     public void setUp() {
-        ObjectMapper objectMapper = Jackson.newObjectMapper();
         TransactionEntityFactory transactionEntityFactory = new TransactionEntityFactory(objectMapper);
-        PaymentFactory paymentFactory = new PaymentFactory(objectMapper);
-        transactionService = new TransactionService(mockTransactionDao, transactionEntityFactory, paymentFactory);
+        PaymentFactory paymentFactory = new PaymentFactory();
+        transactionService = new TransactionService(mockTransactionDao, transactionEntityFactory, paymentFactory,
+                new TransactionSearchCounter(mockTransactionDao, new TransactionSearchConfig(), Clock.systemUTC()),
+                new TransactionViewCache(new TransactionCacheConfig(), Clock.systemUTC(), new MetricRegistry()),
+                new MetricRegistry());
         searchParams = new TransactionSearchParams();
         searchParams.setAccountId(gatewayAccountId);
 
@@ -64,25 +81,26 @@ public class TransactionServiceTest {
         assertThat(transactionSearchResponse.getPage(), is(1L));
         assertThat(transactionSearchResponse.getCount(), is(5L));
         assertThat(transactionSearchResponse.getTotal(), is(5L));
-        assertThat(transactionSearchResponse.getTransactionViewList().size(), is(5));
+        assertThat(transactionSearchResponse.getTransactionEntityList().size(), is(5));
     }
 
     @Test
-    public void shouldListTransactionWithCorrectSelfAndRefundsLinks() {
+    public void shouldListTransactionWithCorrectSelfAndRefundsLinks() throws IOException {
         List<TransactionEntity> transactionViewList = TransactionFixture.aTransactionList(gatewayAccountId, 1);
         when(mockTransactionDao.searchTransactions(any(TransactionSearchParams.class))).thenReturn(transactionViewList);
         when(mockTransactionDao.getTotalForSearch(any(TransactionSearchParams.class))).thenReturn(1L);
 
         TransactionSearchResponse transactionSearchResponse = transactionService.searchTransactions(searchParams, mockUriInfo);
-        TransactionView transactionView = transactionSearchResponse.getTransactionViewList().get(0);
+        JsonNode transactionView = objectMapper.valueToTree(transactionSearchResponse).get("results").get(0);
+        String externalId = transactionView.get("transaction_id").asText();
 
-        assertThat(transactionView.getLinks().get(0).getRel(), is("self"));
-        assertThat(transactionView.getLinks().get(0).getMethod(), is("GET"));
-        assertThat(transactionView.getLinks().get(0).getHref(), is("http://app.com/v1/transaction/" + transactionView.getExternalId()));
+        assertThat(transactionView.get("links").get(0).get("rel").asText(), is("self"));
+        assertThat(transactionView.get("links").get(0).get("method").asText(), is("GET"));
+        assertThat(transactionView.get("links").get(0).get("href").asText(), is("http://app.com/v1/transaction/" + externalId));
 
-        assertThat(transactionView.getLinks().get(1).getRel(), is("refunds"));
-        assertThat(transactionView.getLinks().get(1).getMethod(), is("GET"));
-        assertThat(transactionView.getLinks().get(1).getHref(), is("http://app.com/v1/transaction/" + transactionView.getExternalId() + "/refunds"));
+        assertThat(transactionView.get("links").get(1).get("rel").asText(), is("refunds"));
+        assertThat(transactionView.get("links").get(1).get("method").asText(), is("GET"));
+        assertThat(transactionView.get("links").get(1).get("href").asText(), is("http://app.com/v1/transaction/" + externalId + "/refunds"));
     }
 
     @Test
@@ -134,4 +152,47 @@ public class TransactionServiceTest {
         assertThat(selfLink, containsString("refund_states=created%2Crefunded"));
         assertThat(selfLink, containsString("card_brand=visa%2Cmastercard"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotCountTransactions_whenSearchingWithCursor() {
+        List<TransactionEntity> transactionViewList = TransactionFixture.aTransactionList(gatewayAccountId, 10);
+        when(mockTransactionDao.searchTransactions(any(TransactionSearchParams.class))).thenReturn(transactionViewList);
+        searchParams.setDisplaySize(10L);
+        searchParams.setCursor(new TransactionSearchCursor(ZonedDateTime.parse("2019-06-01T10:15:30Z"), 100L).encode());
+
+        TransactionSearchResponse transactionSearchResponse = transactionService.searchTransactions(searchParams, mockUriInfo);
+
+        verify(mockTransactionDao, never()).getTotalForSearch(any(TransactionSearchParams.class));
+        assertThat(transactionSearchResponse.getTotal(), is(nullValue()));
+        assertThat(transactionSearchResponse.getCountStrategy(), is(SearchCountStrategy.NONE));
+        assertThat(transactionSearchResponse.getPaginationBuilder().getNextLink().getHref(), containsString("cursor="));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowCountFailure_whenCountFails() {
+        when(mockTransactionDao.searchTransactions(any(TransactionSearchParams.class))).thenReturn(List.of());
+        when(mockTransactionDao.getTotalForSearch(any(TransactionSearchParams.class))).thenThrow(new IllegalStateException("count failed"));
+
+        transactionService.searchTransactions(searchParams, mockUriInfo);
+    }
+
+    @Test
+    public void shouldReadCachedTransactionFromPrimaryDatabase() {
+        TransactionCacheConfig cacheConfig = mock(TransactionCacheConfig.class);
+        when(cacheConfig.isEnabled()).thenReturn(true);
+        when(cacheConfig.getTtlInSeconds()).thenReturn(5);
+        when(cacheConfig.getMaximumSize()).thenReturn(10);
+        transactionService = new TransactionService(mockTransactionDao, new TransactionEntityFactory(objectMapper),
+                new PaymentFactory(),
+                new TransactionSearchCounter(mockTransactionDao, new TransactionSearchConfig(), Clock.systemUTC()),
+                new TransactionViewCache(cacheConfig, Clock.systemUTC(), new MetricRegistry()),
+                new MetricRegistry());
+        TransactionEntity transaction = TransactionFixture.aTransactionList(gatewayAccountId, 1).get(0);
+        when(mockTransactionDao.findTransactionByExternalIdAndGatewayAccountIdFromPrimary(transaction.getExternalId(), gatewayAccountId))
+                .thenReturn(Optional.of(transaction));
+
+        assertThat(transactionService.getTransactionForGatewayAccount(gatewayAccountId, transaction.getExternalId(),
+                mockUriInfo).isPresent(), is(true));
+        verify(mockTransactionDao, never()).findTransactionByExternalIdAndGatewayAccountId(any(), any());
+    }
+}
@@ -0,0 +1,139 @@
+package uk.gov.pay.ledger.transaction.service;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.ledger.app.config.TransactionCacheConfig;
+import uk.gov.pay.ledger.transaction.entity.TransactionEntity;
+import uk.gov.pay.ledger.transaction.model.PaymentFactory;
+import uk.gov.pay.ledger.transaction.search.model.TransactionView;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionViewCacheTest {
+
+    private static final URI BASE_URI = URI.create("http://app.com");
+
+    @Mock
+    private TransactionCacheConfig config;
+
+    private MetricRegistry metricRegistry = new MetricRegistry();
+    private MutableClock clock = new MutableClock(Instant.parse("2019-08-01T10:00:00Z"));
+    private AtomicInteger loads = new AtomicInteger();
+    private TransactionEntity transaction = aTransaction(2);
+
+    @Before
+    public void setUp() {
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getTtlInSeconds()).thenReturn(5);
+        when(config.getMaximumSize()).thenReturn(10);
+    }
+
+    @Test
+    public void shouldReturnCachedView_untilTtlExpires() {
+        TransactionViewCache cache = new TransactionViewCache(config, clock, metricRegistry);
+
+        TransactionView transactionView = get(cache, "gateway_account_id").get();
+        clock.instant = clock.instant.plusSeconds(4);
+        assertThat(get(cache, "gateway_account_id").get(), is(sameInstance(transactionView)));
+        clock.instant = clock.instant.plusSeconds(1);
+        get(cache, "gateway_account_id");
+
+        assertThat(loads.get(), is(2));
+        assertThat(metricRegistry.meter("uk.gov.pay.ledger.transaction.service.TransactionViewCache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.meter("uk.gov.pay.ledger.transaction.service.TransactionViewCache.misses").getCount(), is(2L));
+        assertThat(metricRegistry.meter("uk.gov.pay.ledger.transaction.service.TransactionViewCache.evictions").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldNotReturnCachedView_forAnotherGatewayAccount() {
+        TransactionViewCache cache = new TransactionViewCache(config, clock, metricRegistry);
+
+        get(cache, "gateway_account_id");
+        get(cache, "another_gateway_account_id");
+
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    public void shouldInvalidateCachedView_whenTransactionWithMoreEventsIsWritten() {
+        TransactionViewCache cache = new TransactionViewCache(config, clock, metricRegistry);
+
+        get(cache, "gateway_account_id");
+        cache.invalidate(aTransaction(2));
+        get(cache, "gateway_account_id");
+        assertThat(loads.get(), is(1));
+
+        cache.invalidate(aTransaction(3));
+        get(cache, "gateway_account_id");
+        assertThat(loads.get(), is(2));
+        assertThat(metricRegistry.meter("uk.gov.pay.ledger.transaction.service.TransactionViewCache.invalidations").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldAlwaysLoad_whenDisabled() {
+        when(config.isEnabled()).thenReturn(false);
+        TransactionViewCache cache = new TransactionViewCache(config, clock, metricRegistry);
+
+        get(cache, "gateway_account_id");
+        get(cache, "gateway_account_id");
+
+        assertThat(loads.get(), is(2));
+    }
+
+    private Optional<TransactionView> get(TransactionViewCache cache, String gatewayAccountId) {
+        return cache.get(gatewayAccountId, "external_id", BASE_URI,
+                () -> {
+                    loads.incrementAndGet();
+                    return Optional.of(transaction);
+                },
+                entity -> TransactionView.from(new PaymentFactory().createTransactionEntity(entity)));
+    }
+
+    private static TransactionEntity aTransaction(int eventCount) {
+        return new TransactionEntity.Builder()
+                .withGatewayAccountId("gateway_account_id")
+                .withExternalId("external_id")
+                .withState("created")
+                .withEventCount(eventCount)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package uk.gov.pay.ledger.transaction.state;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+public class TransactionStateTest {
+
+    @Test
+    public void shouldMatchStateFilterByStoredValue() {
+        assertThat(TransactionState.fromStatusFilter("declined"), containsInAnyOrder(TransactionState.FAILED_REJECTED));
+    }
+
+    @Test
+    public void shouldMatchStateFilterByStateGroup() {
+        assertThat(TransactionState.fromStatusFilter("failed"), containsInAnyOrder(
+                TransactionState.FAILED_REJECTED, TransactionState.FAILED_EXPIRED, TransactionState.FAILED_CANCELLED));
+    }
+
+    @Test
+    public void shouldNotMatchUnknownStateFilter() {
+        assertThat(TransactionState.fromStatusFilter("refunded"), empty());
+    }
+}
@@ -31,6 +31,7 @@ public class DatabaseTestHelper {
     public void truncateAllData() {
         jdbi.withHandle(h -> h.createScript(
                 "TRUNCATE TABLE event CASCADE; " +
+                        "TRUNCATE TABLE event_key; " +
                         "TRUNCATE TABLE transaction CASCADE"
         ).execute());
     }
@@ -93,6 +93,16 @@ public class EventFixture implements DbFixture<EventFixture, Event> {
                         eventData
                  )
         );
+        jdbi.withHandle(h ->
+                h.execute(
+                        "INSERT INTO event_key(resource_external_id, resource_type_id, event_type)\n" +
+                                "   VALUES(?, (SELECT rt.id FROM resource_type rt WHERE upper(rt.name) = ?), ?)\n" +
+                                "   ON CONFLICT DO NOTHING\n",
+                        resourceExternalId,
+                        resourceType,
+                        eventType
+                )
+        );
         return this;
     }
 
@@ -1,7 +1,6 @@
 package uk.gov.pay.ledger.util.fixture;
 
 import com.google.gson.JsonObject;
-import io.dropwizard.jackson.Jackson;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.jdbi.v3.core.Jdbi;
@@ -93,7 +92,7 @@ public class TransactionFixture implements DbFixture<TransactionFixture, Transac
                     .withCreatedDate(ZonedDateTime.now(ZoneOffset.UTC).minusHours(1L).plusMinutes(i))
                     .insert(jdbi)
                     .toEntity();
-            transactionList.add(new PaymentFactory(Jackson.newObjectMapper()).createTransactionEntity(entity));
+            transactionList.add(new PaymentFactory().createTransactionEntity(entity));
         }
         return transactionList;
     }
@@ -277,9 +276,22 @@ public class TransactionFixture implements DbFixture<TransactionFixture, Transac
                                 "        refund_amount_available,\n" +
                                 "        settlement_submitted_time,\n" +
                                 "        settled_time,\n" +
-                                "        type\n" +
+                                "        type,\n" +
+                                "        language,\n" +
+                                "        return_url,\n" +
+                                "        payment_provider,\n" +
+                                "        delayed_capture,\n" +
+                                "        gateway_transaction_id,\n" +
+                                "        corporate_surcharge,\n" +
+                                "        address_line1,\n" +
+                                "        address_line2,\n" +
+                                "        address_postcode,\n" +
+                                "        address_city,\n" +
+                                "        address_county,\n" +
+                                "        address_country\n" +
                                 "    )\n" +
-                                "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? as jsonb), ?, CAST(? as jsonb), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::transaction_type)\n",
+                                "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? as jsonb), ?, CAST(? as jsonb), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::transaction_type, " +
+                                "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)\n",
                         id,
                         externalId,
                         gatewayAccountId,
@@ -304,12 +316,28 @@ public class TransactionFixture implements DbFixture<TransactionFixture, Transac
                         refundAmountAvailable,
                         settlementSubmittedTime,
                         settledTime,
-                        transactionType
+                        transactionType,
+                        language,
+                        returnUrl,
+                        paymentProvider,
+                        delayedCapture,
+                        gatewayTransactionId,
+                        corporateCardSurcharge,
+                        billingAddress().map(Address::getAddressLine1).orElse(null),
+                        billingAddress().map(Address::getAddressLine2).orElse(null),
+                        billingAddress().map(Address::getAddressPostCode).orElse(null),
+                        billingAddress().map(Address::getAddressCity).orElse(null),
+                        billingAddress().map(Address::getAddressCounty).orElse(null),
+                        billingAddress().map(Address::getAddressCountry).orElse(null)
                 )
         );
         return this;
     }
 
+    private Optional<Address> billingAddress() {
+        return Optional.ofNullable(cardDetails).map(CardDetails::getBillingAddress);
+    }
+
     @NotNull
     private JsonObject getTransactionDetail() {
         JsonObject transactionDetails = new JsonObject();
@@ -362,6 +390,18 @@ public class TransactionFixture implements DbFixture<TransactionFixture, Transac
                 .withRefundAmountAvailable(refundAmountAvailable)
                 .withFee(fee)
                 .withTransactionType(transactionType)
+                .withLanguage(language)
+                .withReturnUrl(returnUrl)
+                .withPaymentProvider(paymentProvider)
+                .withDelayedCapture(delayedCapture)
+                .withGatewayTransactionId(gatewayTransactionId)
+                .withCorporateSurcharge(corporateCardSurcharge)
+                .withAddressLine1(billingAddress().map(Address::getAddressLine1).orElse(null))
+                .withAddressLine2(billingAddress().map(Address::getAddressLine2).orElse(null))
+                .withAddressPostcode(billingAddress().map(Address::getAddressPostCode).orElse(null))
+                .withAddressCity(billingAddress().map(Address::getAddressCity).orElse(null))
+                .withAddressCounty(billingAddress().map(Address::getAddressCounty).orElse(null))
+                .withAddressCountry(billingAddress().map(Address::getAddressCountry).orElse(null))
                 .build();
     }
 